@@ -0,0 +1,60 @@
+package za.co.taxipoint.codec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import za.co.taxipoint.dto.TaxiRankDTO;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode cost of a rank list as JSON versus the compact encoding. Run with
+ * {@code mvn -Pbenchmark test-compile exec:exec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompactRankCodecBenchmark {
+
+    @Param({"50", "500"})
+    int rankCount;
+
+    private ObjectMapper objectMapper;
+    private CompactRankCodec codec;
+    private List<TaxiRankDTO> ranks;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        codec = new CompactRankCodec(objectMapper);
+        ranks = CompactRankSamples.ranks(rankCount, new Random(42));
+    }
+
+    @Benchmark
+    public byte[] json() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ranks);
+    }
+
+    @Benchmark
+    public byte[] compact() {
+        // Includes the DTO mapping, as the message converter does per response
+        return codec.encode(new CompactRankCodec.Payload(CompactRankCodec.Kind.LIST, 0, false, false,
+                ranks.stream().map(CompactRank::from).toList(), List.of()));
+    }
+}
@@ -0,0 +1,48 @@
+package za.co.taxipoint.codec;
+
+import za.co.taxipoint.dto.CatalogueRankDTO;
+import za.co.taxipoint.dto.TaxiRankDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The rank fields carried by the compact encoding. Both API shapes map onto
+ * it; fields a shape does not have are simply left null and cost nothing on
+ * the wire.
+ */
+public record CompactRank(
+        String id,
+        String name,
+        String description,
+        String address,
+        Double latitude,
+        Double longitude,
+        String district,
+        List<String> routesServed,
+        Map<String, Double> routeFares,
+        Map<String, String> hours,
+        String phone,
+        String currency,
+        Boolean active,
+        Map<String, Object> facilities,
+        Double distanceMeters,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+
+    public static CompactRank from(TaxiRankDTO dto) {
+        return new CompactRank(dto.getId(), dto.getName(), dto.getDescription(), dto.getAddress(),
+                dto.getLatitude(), dto.getLongitude(), dto.getDistrict(), dto.getRoutesServed(),
+                dto.getRouteFares(), dto.getHours(), dto.getPhone(), dto.getCurrency(), dto.getActive(),
+                dto.getFacilities(), dto.getDistanceMeters(), dto.getCreatedAt(), dto.getUpdatedAt());
+    }
+
+    public static CompactRank from(CatalogueRankDTO dto) {
+        return new CompactRank(dto.getId(), dto.getName(), null, dto.getAddress(),
+                dto.getLatitude(), dto.getLongitude(), dto.getDistrict(), dto.getRoutesServed(),
+                dto.getRouteFares(), dto.getHours(), dto.getPhone(), dto.getCurrency(), null,
+                dto.getFacilities(), null, null, null);
+    }
+}
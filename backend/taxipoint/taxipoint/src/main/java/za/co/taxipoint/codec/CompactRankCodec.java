@@ -0,0 +1,461 @@
+package za.co.taxipoint.codec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding of rank lists and catalogue snapshots, served as
+ * {@value #MEDIA_TYPE}. Layout, with every integer a varint:
+ * <pre>
+ *   magic "TPR1" | kind | version | flags
+ *   string table: count, then (length, UTF-8 bytes) per entry
+ *   ranks: count, then per rank a field bitmask followed by the present fields
+ *   removed ids: count, then 16 bytes per id
+ * </pre>
+ * Every string (names, route names, facility keys, hours...) is written once
+ * in the table, most frequent first, and referenced by index. Coordinates are
+ * fixed-point microdegrees, each rank's a zigzag delta from the previous one.
+ * Fares are cents, timestamps UTC epoch seconds. Transport compression is left
+ * to the server's gzip support.
+ */
+public class CompactRankCodec {
+
+    public static final String MEDIA_TYPE = "application/vnd.taxipoint.ranks";
+
+    public enum Kind {
+        LIST, CATALOGUE
+    }
+
+    /**
+     * A decoded payload. {@code version} and {@code removed} only apply to
+     * catalogues, {@code hasNext} only to lists.
+     */
+    public record Payload(Kind kind, long version, boolean full, boolean hasNext,
+                          List<CompactRank> ranks, List<String> removed) {
+    }
+
+    private static final byte[] MAGIC = {'T', 'P', 'R', '1'};
+    private static final double COORDINATE_SCALE = 1_000_000d;
+
+    private static final int FLAG_FULL = 1;
+    private static final int FLAG_HAS_NEXT = 1 << 1;
+
+    private static final int F_ID = 1;
+    private static final int F_NAME = 1 << 1;
+    private static final int F_DESCRIPTION = 1 << 2;
+    private static final int F_ADDRESS = 1 << 3;
+    private static final int F_LOCATION = 1 << 4;
+    private static final int F_DISTRICT = 1 << 5;
+    private static final int F_ROUTES = 1 << 6;
+    private static final int F_FARES = 1 << 7;
+    private static final int F_HOURS = 1 << 8;
+    private static final int F_PHONE = 1 << 9;
+    private static final int F_CURRENCY = 1 << 10;
+    private static final int F_ACTIVE = 1 << 11;
+    private static final int F_FACILITIES = 1 << 12;
+    private static final int F_DISTANCE = 1 << 13;
+    private static final int F_CREATED = 1 << 14;
+    private static final int F_UPDATED = 1 << 15;
+
+    // Facility value tags
+    private static final int V_NULL = 0;
+    private static final int V_FALSE = 1;
+    private static final int V_TRUE = 2;
+    private static final int V_STRING = 3;
+    private static final int V_LONG = 4;
+    private static final int V_DOUBLE = 5;
+    private static final int V_JSON = 6;
+
+    private final ObjectMapper objectMapper;
+
+    public CompactRankCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public byte[] encode(Payload payload) {
+        Map<String, Integer> dictionary = buildDictionary(payload.ranks());
+
+        Output out = new Output();
+        out.bytes(MAGIC);
+        out.varint(payload.kind().ordinal());
+        out.varint(payload.version());
+        out.varint((payload.full() ? FLAG_FULL : 0) | (payload.hasNext() ? FLAG_HAS_NEXT : 0));
+
+        String[] table = new String[dictionary.size()];
+        dictionary.forEach((value, index) -> table[index] = value);
+        out.varint(table.length);
+        for (String value : table) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            out.varint(utf8.length);
+            out.bytes(utf8);
+        }
+
+        out.varint(payload.ranks().size());
+        long previousLat = 0;
+        long previousLng = 0;
+        for (CompactRank rank : payload.ranks()) {
+            int fields = fieldsOf(rank);
+            out.varint(fields);
+            if ((fields & F_ID) != 0) {
+                out.uuid(rank.id());
+            }
+            writeString(out, dictionary, fields, F_NAME, rank.name());
+            writeString(out, dictionary, fields, F_DESCRIPTION, rank.description());
+            writeString(out, dictionary, fields, F_ADDRESS, rank.address());
+            if ((fields & F_LOCATION) != 0) {
+                long lat = Math.round(rank.latitude() * COORDINATE_SCALE);
+                long lng = Math.round(rank.longitude() * COORDINATE_SCALE);
+                out.zigzag(lat - previousLat);
+                out.zigzag(lng - previousLng);
+                previousLat = lat;
+                previousLng = lng;
+            }
+            writeString(out, dictionary, fields, F_DISTRICT, rank.district());
+            if ((fields & F_ROUTES) != 0) {
+                out.varint(rank.routesServed().size());
+                rank.routesServed().forEach(route -> out.varint(ref(dictionary, route)));
+            }
+            if ((fields & F_FARES) != 0) {
+                out.varint(rank.routeFares().size());
+                rank.routeFares().forEach((route, fare) -> {
+                    out.varint(ref(dictionary, route));
+                    out.zigzag(fare == null ? 0 : Math.round(fare * 100));
+                });
+            }
+            if ((fields & F_HOURS) != 0) {
+                out.varint(rank.hours().size());
+                rank.hours().forEach((day, time) -> {
+                    out.varint(ref(dictionary, day));
+                    out.varint(ref(dictionary, time));
+                });
+            }
+            writeString(out, dictionary, fields, F_PHONE, rank.phone());
+            writeString(out, dictionary, fields, F_CURRENCY, rank.currency());
+            if ((fields & F_ACTIVE) != 0) {
+                out.varint(Boolean.TRUE.equals(rank.active()) ? 1 : 0);
+            }
+            if ((fields & F_FACILITIES) != 0) {
+                out.varint(rank.facilities().size());
+                rank.facilities().forEach((key, value) -> {
+                    out.varint(ref(dictionary, key));
+                    writeValue(out, dictionary, value);
+                });
+            }
+            if ((fields & F_DISTANCE) != 0) {
+                out.varint(Math.round(rank.distanceMeters()));
+            }
+            if ((fields & F_CREATED) != 0) {
+                out.zigzag(rank.createdAt().toEpochSecond(ZoneOffset.UTC));
+            }
+            if ((fields & F_UPDATED) != 0) {
+                out.zigzag(rank.updatedAt().toEpochSecond(ZoneOffset.UTC));
+            }
+        }
+
+        out.varint(payload.removed().size());
+        payload.removed().forEach(out::uuid);
+        return out.toByteArray();
+    }
+
+    public Payload decode(byte[] bytes) {
+        Input in = new Input(bytes);
+        for (byte expected : MAGIC) {
+            if (in.buffer.get() != expected) {
+                throw new IllegalArgumentException("Not a compact rank payload");
+            }
+        }
+        Kind kind = Kind.values()[(int) in.varint()];
+        long version = in.varint();
+        int flags = (int) in.varint();
+
+        String[] table = new String[(int) in.varint()];
+        for (int i = 0; i < table.length; i++) {
+            byte[] utf8 = new byte[(int) in.varint()];
+            in.buffer.get(utf8);
+            table[i] = new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        int count = (int) in.varint();
+        List<CompactRank> ranks = new ArrayList<>(count);
+        long lat = 0;
+        long lng = 0;
+        for (int i = 0; i < count; i++) {
+            int fields = (int) in.varint();
+            String id = (fields & F_ID) != 0 ? in.uuid() : null;
+            String name = readString(in, table, fields, F_NAME);
+            String description = readString(in, table, fields, F_DESCRIPTION);
+            String address = readString(in, table, fields, F_ADDRESS);
+            Double latitude = null;
+            Double longitude = null;
+            if ((fields & F_LOCATION) != 0) {
+                lat += in.zigzag();
+                lng += in.zigzag();
+                latitude = lat / COORDINATE_SCALE;
+                longitude = lng / COORDINATE_SCALE;
+            }
+            String district = readString(in, table, fields, F_DISTRICT);
+            List<String> routes = null;
+            if ((fields & F_ROUTES) != 0) {
+                int size = (int) in.varint();
+                routes = new ArrayList<>(size);
+                for (int j = 0; j < size; j++) {
+                    routes.add(table[(int) in.varint()]);
+                }
+            }
+            Map<String, Double> fares = null;
+            if ((fields & F_FARES) != 0) {
+                int size = (int) in.varint();
+                fares = new LinkedHashMap<>();
+                for (int j = 0; j < size; j++) {
+                    fares.put(table[(int) in.varint()], in.zigzag() / 100d);
+                }
+            }
+            Map<String, String> hours = null;
+            if ((fields & F_HOURS) != 0) {
+                int size = (int) in.varint();
+                hours = new LinkedHashMap<>();
+                for (int j = 0; j < size; j++) {
+                    hours.put(table[(int) in.varint()], table[(int) in.varint()]);
+                }
+            }
+            String phone = readString(in, table, fields, F_PHONE);
+            String currency = readString(in, table, fields, F_CURRENCY);
+            Boolean active = (fields & F_ACTIVE) != 0 ? in.varint() == 1 : null;
+            Map<String, Object> facilities = null;
+            if ((fields & F_FACILITIES) != 0) {
+                int size = (int) in.varint();
+                facilities = new LinkedHashMap<>();
+                for (int j = 0; j < size; j++) {
+                    facilities.put(table[(int) in.varint()], readValue(in, table));
+                }
+            }
+            Double distance = (fields & F_DISTANCE) != 0 ? (double) in.varint() : null;
+            LocalDateTime createdAt = (fields & F_CREATED) != 0
+                    ? LocalDateTime.ofEpochSecond(in.zigzag(), 0, ZoneOffset.UTC) : null;
+            LocalDateTime updatedAt = (fields & F_UPDATED) != 0
+                    ? LocalDateTime.ofEpochSecond(in.zigzag(), 0, ZoneOffset.UTC) : null;
+
+            ranks.add(new CompactRank(id, name, description, address, latitude, longitude, district,
+                    routes, fares, hours, phone, currency, active, facilities, distance, createdAt, updatedAt));
+        }
+
+        int removedCount = (int) in.varint();
+        List<String> removed = new ArrayList<>(removedCount);
+        for (int i = 0; i < removedCount; i++) {
+            removed.add(in.uuid());
+        }
+        return new Payload(kind, version, (flags & FLAG_FULL) != 0, (flags & FLAG_HAS_NEXT) != 0, ranks, removed);
+    }
+
+    private int fieldsOf(CompactRank rank) {
+        int fields = 0;
+        fields |= rank.id() != null ? F_ID : 0;
+        fields |= rank.name() != null ? F_NAME : 0;
+        fields |= rank.description() != null ? F_DESCRIPTION : 0;
+        fields |= rank.address() != null ? F_ADDRESS : 0;
+        fields |= rank.latitude() != null && rank.longitude() != null ? F_LOCATION : 0;
+        fields |= rank.district() != null ? F_DISTRICT : 0;
+        fields |= rank.routesServed() != null ? F_ROUTES : 0;
+        fields |= rank.routeFares() != null ? F_FARES : 0;
+        fields |= rank.hours() != null ? F_HOURS : 0;
+        fields |= rank.phone() != null ? F_PHONE : 0;
+        fields |= rank.currency() != null ? F_CURRENCY : 0;
+        fields |= rank.active() != null ? F_ACTIVE : 0;
+        fields |= rank.facilities() != null ? F_FACILITIES : 0;
+        fields |= rank.distanceMeters() != null ? F_DISTANCE : 0;
+        fields |= rank.createdAt() != null ? F_CREATED : 0;
+        fields |= rank.updatedAt() != null ? F_UPDATED : 0;
+        return fields;
+    }
+
+    /**
+     * String table ordered by descending frequency so the common strings get
+     * one-byte references.
+     */
+    private Map<String, Integer> buildDictionary(List<CompactRank> ranks) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (CompactRank rank : ranks) {
+            count(counts, rank.name());
+            count(counts, rank.description());
+            count(counts, rank.address());
+            count(counts, rank.district());
+            count(counts, rank.phone());
+            count(counts, rank.currency());
+            if (rank.routesServed() != null) {
+                rank.routesServed().forEach(route -> countElement(counts, route));
+            }
+            if (rank.routeFares() != null) {
+                rank.routeFares().keySet().forEach(route -> countElement(counts, route));
+            }
+            if (rank.hours() != null) {
+                rank.hours().forEach((day, time) -> {
+                    countElement(counts, day);
+                    countElement(counts, time);
+                });
+            }
+            if (rank.facilities() != null) {
+                rank.facilities().forEach((key, value) -> {
+                    countElement(counts, key);
+                    if (value instanceof String text) {
+                        count(counts, text);
+                    } else if (isJsonValue(value)) {
+                        count(counts, toJson(value));
+                    }
+                });
+            }
+        }
+
+        Map<String, Integer> dictionary = new HashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> dictionary.put(entry.getKey(), dictionary.size()));
+        return dictionary;
+    }
+
+    private void count(Map<String, Integer> counts, String value) {
+        if (value != null) {
+            counts.merge(value, 1, Integer::sum);
+        }
+    }
+
+    // Null keys and elements inside collections travel as the empty string
+    private void countElement(Map<String, Integer> counts, String value) {
+        counts.merge(value == null ? "" : value, 1, Integer::sum);
+    }
+
+    private int ref(Map<String, Integer> dictionary, String value) {
+        return dictionary.get(value == null ? "" : value);
+    }
+
+    private void writeString(Output out, Map<String, Integer> dictionary, int fields, int field, String value) {
+        if ((fields & field) != 0) {
+            out.varint(dictionary.get(value));
+        }
+    }
+
+    private String readString(Input in, String[] table, int fields, int field) {
+        return (fields & field) != 0 ? table[(int) in.varint()] : null;
+    }
+
+    private void writeValue(Output out, Map<String, Integer> dictionary, Object value) {
+        if (value == null) {
+            out.varint(V_NULL);
+        } else if (value instanceof Boolean flag) {
+            out.varint(flag ? V_TRUE : V_FALSE);
+        } else if (value instanceof String text) {
+            out.varint(V_STRING);
+            out.varint(dictionary.get(text));
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+            out.varint(V_LONG);
+            out.zigzag(((Number) value).longValue());
+        } else if (value instanceof Number number) {
+            out.varint(V_DOUBLE);
+            out.bytes(ByteBuffer.allocate(Double.BYTES).putDouble(number.doubleValue()).array());
+        } else {
+            out.varint(V_JSON);
+            out.varint(dictionary.get(toJson(value)));
+        }
+    }
+
+    private Object readValue(Input in, String[] table) {
+        int tag = (int) in.varint();
+        return switch (tag) {
+            case V_NULL -> null;
+            case V_FALSE -> false;
+            case V_TRUE -> true;
+            case V_STRING -> table[(int) in.varint()];
+            case V_LONG -> in.zigzag();
+            case V_DOUBLE -> in.buffer.getDouble();
+            case V_JSON -> fromJson(table[(int) in.varint()]);
+            default -> throw new IllegalArgumentException("Unknown facility value tag " + tag);
+        };
+    }
+
+    private boolean isJsonValue(Object value) {
+        return value != null && !(value instanceof Boolean) && !(value instanceof Number) && !(value instanceof String);
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Facility value is not serializable", e);
+        }
+    }
+
+    private Object fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, Object.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed facility value", e);
+        }
+    }
+
+    private static final class Output extends ByteArrayOutputStream {
+
+        void bytes(byte[] value) {
+            write(value, 0, value.length);
+        }
+
+        void varint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void zigzag(long value) {
+            varint((value << 1) ^ (value >> 63));
+        }
+
+        void uuid(String id) {
+            UUID uuid = UUID.fromString(id);
+            bytes(ByteBuffer.allocate(16)
+                    .putLong(uuid.getMostSignificantBits())
+                    .putLong(uuid.getLeastSignificantBits())
+                    .array());
+        }
+    }
+
+    private static final class Input {
+        private final ByteBuffer buffer;
+
+        private Input(byte[] bytes) {
+            this.buffer = ByteBuffer.wrap(bytes);
+        }
+
+        long varint() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = buffer.get();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        long zigzag() {
+            long raw = varint();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        String uuid() {
+            return new UUID(buffer.getLong(), buffer.getLong()).toString();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package za.co.taxipoint.codec;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.util.MimeTypeUtils;
+import za.co.taxipoint.dto.RankCatalogueDTO;
+import za.co.taxipoint.dto.TaxiRankDTO;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes rank lists, pages and catalogue snapshots with {@link CompactRankCodec}
+ * when the client asks for {@value CompactRankCodec#MEDIA_TYPE}. Registered
+ * after the JSON converter, so JSON stays the default for every other client.
+ */
+public class CompactRankHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(CompactRankCodec.MEDIA_TYPE);
+
+    private final CompactRankCodec codec;
+
+    public CompactRankHttpMessageConverter(CompactRankCodec codec) {
+        super(MEDIA_TYPE);
+        this.codec = codec;
+    }
+
+    /**
+     * Whether content negotiation picks this converter rather than JSON for
+     * an Accept header. The first accepted type, by specificity and quality,
+     * that either representation satisfies decides; JSON wins ties because
+     * its converter is registered first.
+     */
+    public static boolean isSelectedFor(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+            if (type.isCompatibleWith(MEDIA_TYPE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return RankCatalogueDTO.class.isAssignableFrom(clazz) || Iterable.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        if (RankCatalogueDTO.class.isAssignableFrom(clazz)) {
+            return true;
+        }
+        if (!Iterable.class.isAssignableFrom(clazz) || type == null) {
+            return false;
+        }
+        Class<?> element = ResolvableType.forType(type).as(Iterable.class).resolveGeneric(0);
+        return element != null && TaxiRankDTO.class.isAssignableFrom(element);
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        CompactRankCodec.Payload payload;
+        if (body instanceof RankCatalogueDTO catalogue) {
+            payload = new CompactRankCodec.Payload(
+                    CompactRankCodec.Kind.CATALOGUE,
+                    catalogue.getVersion(),
+                    catalogue.isFull(),
+                    false,
+                    catalogue.getRanks().stream().map(CompactRank::from).toList(),
+                    catalogue.getRemoved()
+            );
+        } else {
+            List<CompactRank> ranks = new ArrayList<>();
+            for (Object element : (Iterable<?>) body) {
+                ranks.add(CompactRank.from((TaxiRankDTO) element));
+            }
+            boolean hasNext = body instanceof Slice<?> slice && slice.hasNext();
+            payload = new CompactRankCodec.Payload(CompactRankCodec.Kind.LIST, 0, false, hasNext, ranks, List.of());
+        }
+        outputMessage.getBody().write(codec.encode(payload));
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws HttpMessageNotReadableException {
+        throw new HttpMessageNotReadableException("Compact rank payloads are response-only", inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws HttpMessageNotReadableException {
+        throw new HttpMessageNotReadableException("Compact rank payloads are response-only", inputMessage);
+    }
+}
@@ -0,0 +1,26 @@
+package za.co.taxipoint.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import za.co.taxipoint.codec.CompactRankCodec;
+import za.co.taxipoint.codec.CompactRankHttpMessageConverter;
+
+import java.util.List;
+
+@Configuration
+public class CompactEncodingConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    public CompactEncodingConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Appended last so JSON keeps winning for Accept: */* and application/json
+        converters.add(new CompactRankHttpMessageConverter(new CompactRankCodec(objectMapper)));
+    }
+}
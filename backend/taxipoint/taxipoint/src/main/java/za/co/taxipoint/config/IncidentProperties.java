@@ -0,0 +1,29 @@
+package za.co.taxipoint.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import za.co.taxipoint.model.IncidentCategory;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * How long reported incidents stay active, e.g.
+ * {@code incidents.ttl.accident=6h}. Categories without an entry use
+ * {@code incidents.default-ttl}, which is 48 hours unless configured.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "incidents")
+public class IncidentProperties {
+
+    private Duration defaultTtl = Duration.ofHours(48);
+
+    private Map<IncidentCategory, Duration> ttl = new EnumMap<>(IncidentCategory.class);
+
+    public Duration ttlFor(IncidentCategory category) {
+        return ttl.getOrDefault(category == null ? IncidentCategory.GENERAL : category, defaultTtl);
+    }
+}
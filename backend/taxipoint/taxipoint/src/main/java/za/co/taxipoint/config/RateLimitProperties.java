@@ -0,0 +1,100 @@
+package za.co.taxipoint.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-route request limits applied by the rate-limit filter, keyed by client
+ * address. A policy can be tuned or added through properties, e.g.
+ * {@code ratelimit.policies.login.capacity=10}; see {@link #setPolicies}.
+ * Registration is not limited by default: many users share one carrier NAT
+ * address, so a deployment that wants it should add a generous policy.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "ratelimit")
+public class RateLimitProperties {
+
+    public enum Store { LOCAL, POSTGRES }
+
+    /** LOCAL keeps buckets per instance; POSTGRES shares them through the rate_limit_buckets table. */
+    private Store store = Store.LOCAL;
+
+    /** Upper bound on buckets held in memory by the LOCAL store. */
+    private long cacheMaxSize = 100_000;
+
+    private static final Map<String, Policy> DEFAULT_POLICIES = Map.of(
+            "login", new Policy("POST", "/api/users/login", 5, Duration.ofMinutes(10),
+                    "Too many login attempts. Please try again later."),
+            "refresh", new Policy("POST", "/api/users/refresh", 30, Duration.ofMinutes(10),
+                    "Too many session refreshes. Please log in again later."),
+            "forgot-password", new Policy("POST", "/api/users/forgot-password", 5, Duration.ofMinutes(10),
+                    "Too many password reset requests. Please try again later."),
+            "reset-password", new Policy("POST", "/api/users/reset-password", 5, Duration.ofMinutes(10),
+                    "Too many attempts. Please try again later.")
+    );
+
+    private static final String DEFAULT_MESSAGE = "Too many requests. Please try again later.";
+
+    private Map<String, Policy> policies = defaultPolicies();
+
+    /**
+     * Spring binds each configured policy as a new object, so fields left out
+     * of an override of a built-in policy are taken from the built-in one.
+     * New policies must set method, path, capacity and period.
+     */
+    public void setPolicies(Map<String, Policy> policies) {
+        Map<String, Policy> merged = defaultPolicies();
+        policies.forEach((name, policy) -> {
+            Policy defaults = merged.get(name);
+            merged.put(name, defaults == null ? policy : policy.withDefaults(defaults));
+        });
+        merged.forEach(RateLimitProperties::validate);
+        this.policies = merged;
+    }
+
+    private static Map<String, Policy> defaultPolicies() {
+        Map<String, Policy> policies = new LinkedHashMap<>();
+        DEFAULT_POLICIES.forEach((name, policy) -> policies.put(name, policy.withDefaults(policy)));
+        return policies;
+    }
+
+    private static void validate(String name, Policy policy) {
+        if (policy.getMethod() == null || policy.getPath() == null
+                || policy.getCapacity() <= 0 || policy.getPeriod() == null || policy.getPeriod().isNegative()
+                || policy.getPeriod().isZero()) {
+            throw new IllegalArgumentException("ratelimit.policies." + name
+                    + " needs a method, a path, a positive capacity and a positive period");
+        }
+        if (policy.getMessage() == null) {
+            policy.setMessage(DEFAULT_MESSAGE);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Policy {
+        private String method;
+        private String path;        // Ant-style pattern, e.g. /api/users/login
+        private long capacity;      // requests allowed per period
+        private Duration period;    // refilled in full at the end of each period
+        private String message;
+
+        Policy withDefaults(Policy defaults) {
+            return new Policy(
+                    method != null ? method : defaults.method,
+                    path != null ? path : defaults.path,
+                    capacity > 0 ? capacity : defaults.capacity,
+                    period != null ? period : defaults.period,
+                    message != null ? message : defaults.message);
+        }
+    }
+}
@@ -1,17 +1,64 @@
 package za.co.taxipoint.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+/**
+ * STOMP over SockJS on /ws. By default topics are served by Spring's
+ * in-memory broker, which only reaches sockets on this instance. With
+ * {@code realtime.broker.mode=relay} they are relayed through an external
+ * STOMP broker instead, so a message sent by any instance reaches
+ * subscribers on every instance. See docs/realtime.md.
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    @Value("${realtime.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${realtime.broker.relay-host:localhost}")
+    private String relayHost;
+
+    @Value("${realtime.broker.relay-port:61613}")
+    private int relayPort;
+
+    // REALTIME_BROKER_LOGIN/PASSCODE set both the client and system credentials unless those are given separately
+    @Value("${realtime.broker.client-login:${realtime.broker.login:guest}}")
+    private String clientLogin;
+
+    @Value("${realtime.broker.client-passcode:${realtime.broker.passcode:guest}}")
+    private String clientPasscode;
+
+    @Value("${realtime.broker.system-login:${realtime.broker.login:guest}}")
+    private String systemLogin;
+
+    @Value("${realtime.broker.system-passcode:${realtime.broker.passcode:guest}}")
+    private String systemPasscode;
+
+    @Value("${realtime.broker.virtual-host:}")
+    private String virtualHost;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic"); // clients subscribe to this
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            var relay = config.enableStompBrokerRelay("/topic")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(clientLogin)
+                    .setClientPasscode(clientPasscode)
+                    .setSystemLogin(systemLogin)
+                    .setSystemPasscode(systemPasscode);
+            if (!virtualHost.isBlank()) {
+                relay.setVirtualHost(virtualHost);
+            }
+        } else {
+            config.enableSimpleBroker("/topic"); // clients subscribe to this
+        }
         config.setApplicationDestinationPrefixes("/app"); // clients send here
     }
 
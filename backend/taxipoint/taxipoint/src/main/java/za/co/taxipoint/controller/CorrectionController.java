@@ -2,17 +2,28 @@ package za.co.taxipoint.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import za.co.taxipoint.dto.CorrectionBulkReviewRequest;
 import za.co.taxipoint.dto.CorrectionReviewRequest;
+import za.co.taxipoint.dto.CorrectionReviewResultDTO;
 import za.co.taxipoint.dto.CorrectionSubmissionDTO;
 import za.co.taxipoint.dto.CorrectionSubmissionRequest;
+import za.co.taxipoint.dto.CorrectionVoteBatchRequest;
 import za.co.taxipoint.dto.CorrectionVoteRequest;
+import za.co.taxipoint.dto.CorrectionVoteResultDTO;
+import za.co.taxipoint.model.CorrectionStatus;
+import za.co.taxipoint.model.CorrectionSubmission;
+import za.co.taxipoint.model.CorrectionType;
+import za.co.taxipoint.service.BulkReviewRejectedException;
 import za.co.taxipoint.service.CorrectionService;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
@@ -20,6 +31,9 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class CorrectionController {
 
+    private static final int MAX_QUEUE_PAGE_SIZE = 200;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final CorrectionService correctionService;
 
     @PostMapping
@@ -40,6 +54,55 @@ public class CorrectionController {
         return ResponseEntity.ok(correctionService.vote(id, authentication.getName(), request));
     }
 
+    /**
+     * Applies votes queued by a client, e.g. while offline. Replayed items are
+     * recognised by their idempotency key and reported as duplicates.
+     */
+    @PostMapping("/votes")
+    public ResponseEntity<List<CorrectionVoteResultDTO>> voteOnCorrections(
+            @Valid @RequestBody CorrectionVoteBatchRequest request,
+            Authentication authentication
+    ) {
+        return ResponseEntity.ok(correctionService.voteBatch(authentication.getName(), request));
+    }
+
+    // Open submissions in pages of ?limit=; pass the X-Next-Cursor header back as ?cursor= for the next page
+    @GetMapping("/queue")
+    public ResponseEntity<List<CorrectionSubmissionDTO>> getModerationQueue(
+            @RequestParam Optional<CorrectionStatus> status,
+            @RequestParam Optional<CorrectionType> type,
+            @RequestParam Optional<UUID> rankId,
+            @RequestParam Optional<String> district,
+            @RequestParam Optional<Double> minRejectionRatio,
+            @RequestParam Optional<Double> maxRejectionRatio,
+            @RequestParam(defaultValue = "NEWEST") CorrectionService.QueueSort sort,
+            @RequestParam Optional<String> cursor,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        if (limit < 1 || limit > MAX_QUEUE_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        CorrectionService.QueueFilter filter;
+        CorrectionService.QueueCursor after;
+        try {
+            filter = new CorrectionService.QueueFilter(status.orElse(null), type.orElse(null), rankId.orElse(null),
+                    district.orElse(null), minRejectionRatio.orElse(null), maxRejectionRatio.orElse(null));
+            after = cursor.map(CorrectionService.QueueCursor::decode).orElse(null);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Slice<CorrectionSubmission> page = correctionService.getModerationQueue(filter, sort, after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            CorrectionSubmission last = page.getContent().get(page.getNumberOfElements() - 1);
+            response.header(NEXT_CURSOR_HEADER, CorrectionService.QueueCursor.of(last).encode());
+        }
+        return response.body(page.getContent().stream().map(correctionService::toDTO).toList());
+    }
+
+    // Unbounded; kept for older admin clients, new ones page through /queue
     @GetMapping("/pending")
     public ResponseEntity<List<CorrectionSubmissionDTO>> getPendingCorrections() {
         return ResponseEntity.ok(correctionService.getPendingSubmissions());
@@ -57,6 +120,25 @@ public class CorrectionController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Reviews many submissions at once. Best-effort batches answer 200 with a
+     * per-item report; an all-or-nothing batch that hits a missing or
+     * finalized submission applies nothing and answers 409 with the report.
+     */
+    @PostMapping("/reviews")
+    public ResponseEntity<List<CorrectionReviewResultDTO>> reviewCorrections(
+            @Valid @RequestBody CorrectionBulkReviewRequest request,
+            Authentication authentication
+    ) {
+        try {
+            return ResponseEntity.ok(correctionService.reviewBatch(authentication.getName(), request));
+        } catch (BulkReviewRejectedException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getResults());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<CorrectionSubmissionDTO> reviewCorrection(
             @PathVariable UUID id,
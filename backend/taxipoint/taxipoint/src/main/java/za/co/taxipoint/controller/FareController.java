@@ -0,0 +1,38 @@
+package za.co.taxipoint.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import za.co.taxipoint.dto.DestinationFareDTO;
+import za.co.taxipoint.service.TaxiRankService;
+
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/fares")
+@RequiredArgsConstructor
+public class FareController {
+
+    private static final int MAX_RESULTS = 100;
+
+    private final TaxiRankService taxiRankService;
+
+    // Which ranks go to a destination and what they charge, closest first when an origin is given
+    @GetMapping
+    public ResponseEntity<List<DestinationFareDTO>> findFaresToDestination(
+            @RequestParam String destination,
+            @RequestParam Optional<Double> lat,
+            @RequestParam Optional<Double> lng,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        if (destination.isBlank() || limit < 1 || limit > MAX_RESULTS || lat.isPresent() != lng.isPresent()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(taxiRankService.findRanksForDestination(
+                destination, lat.orElse(null), lng.orElse(null), limit));
+    }
+}
@@ -1,17 +1,19 @@
 package za.co.taxipoint.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import za.co.taxipoint.dto.IncidentDto;
 import za.co.taxipoint.dto.IncidentRequest;
 import za.co.taxipoint.model.Incident;
-import za.co.taxipoint.repository.IncidentRepository;
-import za.co.taxipoint.service.GeocodingService;
 import za.co.taxipoint.service.IncidentService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @RestController
@@ -19,23 +21,44 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class IncidentController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final IncidentService incidentService;
-    private final IncidentRepository incidentRepository;
-    private final GeocodingService geocodingService;
 
+    // Newest first, in pages of ?limit=; pass the X-Next-Cursor header back as ?cursor= for the next page
     @GetMapping
     public ResponseEntity<List<IncidentDto>> getAllIncidents(
-            @RequestParam(defaultValue = "false") boolean includeResolved
+            @RequestParam(defaultValue = "false") boolean includeResolved,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Optional<LocalDateTime> since,
+            @RequestParam Optional<String> cursor,
+            @RequestParam Optional<String> bbox,
+            @RequestParam(defaultValue = "100") int limit
     ) {
-        incidentService.autoResolveExpiredIncidents();
-        List<Incident> incidents = includeResolved
-                ? incidentRepository.findAllByOrderByCreatedAtDesc()
-                : incidentRepository.findByResolvedFalseOrderByCreatedAtDesc();
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
 
-        List<IncidentDto> incidentDtos = incidents.stream()
-                .map(this::toDto)
+        IncidentService.Cursor after;
+        IncidentService.Bounds bounds;
+        try {
+            after = cursor.map(IncidentService.Cursor::decode).orElse(null);
+            bounds = bbox.map(IncidentService.Bounds::parse).orElse(null);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Slice<Incident> page = incidentService.listIncidents(includeResolved, since.orElse(null), after, bounds, limit);
+        List<IncidentDto> incidentDtos = page.getContent().stream()
+                .map(incidentService::toDto)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(incidentDtos);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            Incident last = page.getContent().get(page.getNumberOfElements() - 1);
+            response.header(NEXT_CURSOR_HEADER, IncidentService.Cursor.of(last).encode());
+        }
+        return response.body(incidentDtos);
     }
 
     @PostMapping
@@ -44,7 +67,8 @@ public class IncidentController {
                 request.getDescription(),
                 request.getReporter(),
                 request.getLatitude(),
-                request.getLongitude()
+                request.getLongitude(),
+                request.getCategory()
         );
         return ResponseEntity.ok(saved);
     }
@@ -59,35 +83,8 @@ public class IncidentController {
             return ResponseEntity.badRequest().build();
         }
 
-        return incidentRepository.findById(id)
-                .map(incident -> {
-                    incident.setResolved(resolved);
-                    Incident saved = incidentRepository.save(incident);
-                    return ResponseEntity.ok(toDto(saved));
-                })
+        return incidentService.updateResolved(id, resolved)
+                .map(incident -> ResponseEntity.ok(incidentService.toDto(incident)))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
-
-    private IncidentDto toDto(Incident incident) {
-        double latitude = 0.0;
-        double longitude = 0.0;
-        String formattedAddress = "Location not available";
-
-        if (incident.getLocation() != null) {
-            latitude = incident.getLocation().getY();
-            longitude = incident.getLocation().getX();
-            formattedAddress = geocodingService.reverseGeocode(latitude, longitude);
-        }
-
-        return new IncidentDto(
-                incident.getId(),
-                incident.getDescription(),
-                incident.getReporter(),
-                latitude,
-                longitude,
-                formattedAddress,
-                incident.getCreatedAt(),
-                Boolean.TRUE.equals(incident.getResolved())
-        );
-    }
 }
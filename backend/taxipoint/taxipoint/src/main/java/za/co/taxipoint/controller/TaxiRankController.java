@@ -3,8 +3,15 @@ package za.co.taxipoint.controller;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.*;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import za.co.taxipoint.codec.CompactRankHttpMessageConverter;
+import za.co.taxipoint.dto.RankCatalogueDTO;
+import za.co.taxipoint.dto.RankSuggestionDTO;
 import za.co.taxipoint.dto.TaxiFareQuoteDTO;
 import za.co.taxipoint.dto.TaxiRankDTO;
 import za.co.taxipoint.model.TaxiRank;
@@ -20,16 +27,24 @@ import java.util.UUID;
 @RequestMapping("/api")
 public class TaxiRankController {
 
+    private static final int MAX_NEAREST = 50;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final int MAX_SUGGESTIONS = 20;
+    private static final int MAX_FARE_DESTINATIONS = 50;
+
     @Autowired
     private TaxiRankService taxiRankService;
 
     // List taxi ranks with optional suburb filter or nearby geo query
     @GetMapping("/taxi-ranks")
-    public ResponseEntity<Page<TaxiRankDTO>> listTaxiRanks(
+    public ResponseEntity<Slice<TaxiRankDTO>> listTaxiRanks(
             @RequestParam Optional<String> suburb,
             @RequestParam Optional<Double> lat,
             @RequestParam Optional<Double> lng,
             @RequestParam Optional<Double> radius_m,
+            @RequestParam Optional<UUID> after,
             @RequestParam(defaultValue = "false") boolean includeInactive,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
@@ -38,22 +53,15 @@ public class TaxiRankController {
 
         // Geo query has priority if lat, lng, radius are present
         if (lat.isPresent() && lng.isPresent() && radius_m.isPresent()) {
-            List<TaxiRank> nearby = taxiRankService.findNearby(lat.get(), lng.get(), radius_m.get());
-
-            // Paginate manually
-            int start = (int) pageable.getOffset();
-            int end = Math.min(start + pageable.getPageSize(), nearby.size());
-
-            Page<TaxiRankDTO> pageResult = new PageImpl<>(
-                    nearby.subList(start, end)
-                            .stream()
-                            .map(taxiRankService::toDTO)
-                            .toList(),
-                    pageable,
-                    nearby.size()
-            );
-
-            return ResponseEntity.ok(pageResult);
+            // Keyset pagination for deep pages: ?after=<id of the last rank on the previous page>
+            if (after.isPresent()) {
+                Slice<TaxiRankDTO> slice = taxiRankService.findNearbyAfter(
+                        lat.get(), lng.get(), radius_m.get(), after.get(), size);
+                return withNextCursor(slice);
+            }
+
+            Page<TaxiRankDTO> pageResult = taxiRankService.findNearbyPage(lat.get(), lng.get(), radius_m.get(), pageable);
+            return withNextCursor(pageResult);
         }
 
         // Standard list with optional suburb filter
@@ -62,6 +70,14 @@ public class TaxiRankController {
         return ResponseEntity.ok(dtoPage);
     }
 
+    private ResponseEntity<Slice<TaxiRankDTO>> withNextCursor(Slice<TaxiRankDTO> slice) {
+        if (!slice.hasNext() || slice.getContent().isEmpty()) {
+            return ResponseEntity.ok(slice);
+        }
+        String nextCursor = slice.getContent().get(slice.getContent().size() - 1).getId();
+        return ResponseEntity.ok().header(NEXT_CURSOR_HEADER, nextCursor).body(slice);
+    }
+
     // Get a single taxi rank by ID
     @GetMapping("/taxi-ranks/{id}")
     public ResponseEntity<TaxiRankDTO> getTaxiRank(@PathVariable UUID id) {
@@ -93,14 +109,53 @@ public class TaxiRankController {
     }
 
 
-    // Search taxi ranks by text query (name, route, district)
+    // Search taxi ranks by text query (name, address, route, district), best matches first
     @GetMapping("/taxi-ranks/search")
-    public ResponseEntity<List<TaxiRankDTO>> searchTaxiRanks(@RequestParam String query) {
-        List<TaxiRankDTO> results = taxiRankService.searchByText(query)
-                .stream()
-                .map(taxiRankService::toDTO)
-                .toList();
-        return ResponseEntity.ok(results);
+    public ResponseEntity<List<TaxiRankDTO>> searchTaxiRanks(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (query.isBlank() || page < 0 || size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Page<TaxiRank> results = taxiRankService.searchByText(query, page, size);
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(results.getTotalElements()))
+                .body(results.map(taxiRankService::toDTO).getContent());
+    }
+
+    // Typeahead for the search box, served from memory
+    @GetMapping("/taxi-ranks/suggest")
+    public ResponseEntity<List<RankSuggestionDTO>> suggestTaxiRanks(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(taxiRankService.suggest(q, limit));
+    }
+
+    // Versioned catalogue for offline clients: a full snapshot, or only what changed since ?since=
+    @GetMapping("/taxi-ranks/catalogue")
+    public ResponseEntity<RankCatalogueDTO> getCatalogue(
+            @RequestParam Optional<Long> since,
+            WebRequest request
+    ) {
+        long version = taxiRankService.getCatalogueVersion();
+        // Strong validators must differ per representation, so the compact encoding gets its own
+        String representation = CompactRankHttpMessageConverter.isSelectedFor(request.getHeader(HttpHeaders.ACCEPT))
+                ? "compact-" : "";
+        String etag = "\"catalogue-" + representation + since.map(value -> value + "-").orElse("") + version + "\"";
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .cacheControl(CacheControl.noCache())
+                .body(taxiRankService.getCatalogue(since.orElse(null), version));
     }
 
    @GetMapping("/taxi-ranks/nearby")
@@ -119,6 +174,19 @@ public class TaxiRankController {
     }
 }
 
+    // k closest ranks, regardless of distance
+    @GetMapping("/taxi-ranks/nearest")
+    public ResponseEntity<List<TaxiRankDTO>> getNearestTaxiRanks(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "5") int k
+    ) {
+        if (k < 1 || k > MAX_NEAREST) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(taxiRankService.findNearest(lat, lng, k));
+    }
+
     @GetMapping("/taxi-ranks/{id}/fare")
     public ResponseEntity<TaxiFareQuoteDTO> getTaxiRankFare(
             @PathVariable UUID id,
@@ -133,4 +201,19 @@ public class TaxiRankController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Quote several destinations from one rank, e.g. every leg of a planned trip
+    @PostMapping("/taxi-ranks/{id}/fares")
+    public ResponseEntity<List<TaxiFareQuoteDTO>> getTaxiRankFares(
+            @PathVariable UUID id,
+            @RequestBody List<String> destinations
+    ) {
+        if (destinations == null || destinations.isEmpty() || destinations.size() > MAX_FARE_DESTINATIONS) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return taxiRankService.findFareQuotes(id, destinations)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
 }
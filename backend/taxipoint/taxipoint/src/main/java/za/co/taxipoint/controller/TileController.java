@@ -0,0 +1,39 @@
+package za.co.taxipoint.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import za.co.taxipoint.dto.MapTileDTO;
+import za.co.taxipoint.geo.TileMath;
+import za.co.taxipoint.service.MapTileService;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/tiles")
+@RequiredArgsConstructor
+public class TileController {
+
+    // Clustered overview tiles change less visibly than street-level ones
+    private static final Duration CLUSTERED_MAX_AGE = Duration.ofSeconds(60);
+    private static final Duration DETAIL_MAX_AGE = Duration.ofSeconds(15);
+
+    private final MapTileService mapTileService;
+
+    // Ranks and unresolved incidents for one z/x/y map tile
+    @GetMapping("/{z}/{x}/{y}")
+    public ResponseEntity<MapTileDTO> getTile(@PathVariable int z, @PathVariable int x, @PathVariable int y) {
+        if (!TileMath.isValid(z, x, y)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Duration maxAge = mapTileService.isClustered(z) ? CLUSTERED_MAX_AGE : DETAIL_MAX_AGE;
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(maxAge).cachePublic())
+                .body(mapTileService.getTile(z, x, y));
+    }
+}
@@ -1,5 +1,6 @@
 package za.co.taxipoint.controller;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
@@ -9,9 +10,11 @@ import za.co.taxipoint.dto.UserRegisterDTO;
 import za.co.taxipoint.dto.UserUpdateDTO;
 import za.co.taxipoint.dto.ForgotPasswordRequest;
 import za.co.taxipoint.dto.ResetPasswordRequest;
+import za.co.taxipoint.dto.TokenRefreshRequest;
+import za.co.taxipoint.service.AuthTokenService;
+import za.co.taxipoint.service.PasswordHashingBusyException;
 import za.co.taxipoint.service.UserService;
 import za.co.taxipoint.service.PasswordResetService;
-import za.co.taxipoint.service.RateLimitingService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
@@ -24,16 +27,16 @@ public class UserController {
 
     private final UserService userService;
     private final PasswordResetService passwordResetService;
-    private final RateLimitingService rateLimitingService;
+    private final AuthTokenService authTokenService;
     private final HttpServletRequest request;
     
     public UserController(UserService userService, 
                           PasswordResetService passwordResetService,
-                          RateLimitingService rateLimitingService,
+                          AuthTokenService authTokenService,
                           HttpServletRequest request) {
         this.userService = userService;
         this.passwordResetService = passwordResetService;
-        this.rateLimitingService = rateLimitingService;
+        this.authTokenService = authTokenService;
         this.request = request;
     }
 
@@ -42,6 +45,8 @@ public class UserController {
         try {
             UserDTO createdUser = userService.registerUser(dto);
             return ResponseEntity.ok(createdUser);
+        } catch (PasswordHashingBusyException e) {
+            return hashingBusy(e);
         } catch (IllegalArgumentException e) {
             // for validation errors
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -53,21 +58,35 @@ public class UserController {
     
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody UserLoginDTO dto) {
-        // Rate Limiting Check
-        String clientIp = request.getRemoteAddr();
-        if (!rateLimitingService.resolveBucket(clientIp).tryConsume(1)) {
-            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body("Too many login attempts. Please try again later.");
-        }
-
         try {
             var authResp = userService.loginUser(dto);
             return ResponseEntity.ok(authResp);
+        } catch (PasswordHashingBusyException e) {
+            return hashingBusy(e);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(401).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Login failed: " + e.getMessage());
         }
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody TokenRefreshRequest dto) {
+        try {
+            return ResponseEntity.ok(authTokenService.refresh(dto.getRefreshToken()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(401).body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestBody(required = false) TokenRefreshRequest dto) {
+        String header = request.getHeader("Authorization");
+        String accessToken = header != null && header.startsWith("Bearer ") ? header.substring(7) : null;
+        authTokenService.logout(accessToken, dto != null ? dto.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping
     public ResponseEntity<List<UserDTO>> listUsers() {
         return ResponseEntity.ok(userService.listUsers());
@@ -109,12 +128,6 @@ public ResponseEntity<?> updatePassword(
 
     @PostMapping("/forgot-password")
     public ResponseEntity<?> forgotPassword(@RequestBody ForgotPasswordRequest requestDto) {
-        // Rate Limiting Check
-        String clientIp = request.getRemoteAddr();
-        if (!rateLimitingService.resolveBucket(clientIp).tryConsume(1)) {
-            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body("Too many password reset requests. Please try again later.");
-        }
-
         try {
             passwordResetService.requestPasswordReset(requestDto);
             return ResponseEntity.ok("Password reset email sent successfully");
@@ -125,12 +138,6 @@ public ResponseEntity<?> updatePassword(
 
     @PostMapping("/reset-password")
     public ResponseEntity<?> resetPassword(@Valid @RequestBody ResetPasswordRequest requestDto) {
-        // Rate Limiting Check
-        String clientIp = request.getRemoteAddr();
-        if (!rateLimitingService.resolveBucket(clientIp).tryConsume(1)) {
-            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body("Too many attempts. Please try again later.");
-        }
-
         try {
             passwordResetService.resetPassword(requestDto);
             return ResponseEntity.ok(Map.of("message", "Password reset successfully"));
@@ -156,4 +163,12 @@ public ResponseEntity<?> updatePassword(
                     .body(Map.of("valid", false, "error", "Token validation failed"));
         }
     }
+
+    // Password change and any other hashing path not handled inline
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<?> hashingBusy(PasswordHashingBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+    }
 }
@@ -0,0 +1,14 @@
+package za.co.taxipoint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthTokensDTO {
+    private String token;        // short-lived access token for the Authorization header
+    private String refreshToken; // single use; exchange at /api/users/refresh for a new pair
+    private long expiresIn;      // access token lifetime in seconds
+}
@@ -0,0 +1,28 @@
+package za.co.taxipoint.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The fields the apps render from their local rank catalogue. Unlike
+ * {@link TaxiRankDTO} it leaves out descriptions, timestamps and empty values.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class CatalogueRankDTO {
+    private String id;
+    private String name;
+    private String address;
+    private Double latitude;
+    private Double longitude;
+    private String district;
+    private List<String> routesServed;
+    private Map<String, Double> routeFares;
+    private Map<String, String> hours;
+    private String phone;
+    private String currency;
+    private Map<String, Object> facilities;
+}
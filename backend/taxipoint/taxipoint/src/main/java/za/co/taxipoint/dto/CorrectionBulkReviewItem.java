@@ -0,0 +1,18 @@
+package za.co.taxipoint.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import za.co.taxipoint.model.ReviewDecision;
+
+import java.util.UUID;
+
+@Data
+public class CorrectionBulkReviewItem {
+    @NotNull
+    private UUID submissionId;
+
+    @NotNull
+    private ReviewDecision decision;
+
+    private String reviewNotes;
+}
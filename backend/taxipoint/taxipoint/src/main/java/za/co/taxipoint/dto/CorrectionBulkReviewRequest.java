@@ -0,0 +1,25 @@
+package za.co.taxipoint.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CorrectionBulkReviewRequest {
+
+    public enum Mode {
+        ALL_OR_NOTHING, // one missing or finalized submission cancels the whole batch
+        BEST_EFFORT     // those are reported and the rest is reviewed
+    }
+
+    @NotEmpty
+    @Size(max = 500)
+    private List<@Valid CorrectionBulkReviewItem> reviews;
+
+    @NotNull
+    private Mode mode = Mode.ALL_OR_NOTHING;
+}
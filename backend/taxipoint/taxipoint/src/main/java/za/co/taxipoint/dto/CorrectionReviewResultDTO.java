@@ -0,0 +1,27 @@
+package za.co.taxipoint.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CorrectionReviewResultDTO {
+
+    public enum Outcome {
+        APPROVED,
+        REJECTED,
+        NOT_FOUND,
+        FINALIZED,  // already approved or rejected before this batch
+        SKIPPED     // valid, but an all-or-nothing batch was cancelled by another item
+    }
+
+    private UUID submissionId;
+    private Outcome outcome;
+    private CorrectionSubmissionDTO submission; // state after review, for APPROVED and REJECTED
+}
@@ -0,0 +1,23 @@
+package za.co.taxipoint.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import za.co.taxipoint.model.CorrectionVoteType;
+
+import java.util.UUID;
+
+@Data
+public class CorrectionVoteBatchItem {
+    @NotNull
+    private UUID submissionId;
+
+    @NotNull
+    private CorrectionVoteType voteType;
+
+    // Generated by the client when the vote is queued; replays with the same key are ignored
+    @NotBlank
+    @Size(max = 64)
+    private String idempotencyKey;
+}
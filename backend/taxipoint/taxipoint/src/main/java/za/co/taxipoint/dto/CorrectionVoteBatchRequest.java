@@ -0,0 +1,16 @@
+package za.co.taxipoint.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CorrectionVoteBatchRequest {
+    // Applied in order, so a later vote on the same submission wins
+    @NotEmpty
+    @Size(max = 100)
+    private List<@Valid CorrectionVoteBatchItem> votes;
+}
@@ -0,0 +1,27 @@
+package za.co.taxipoint.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CorrectionVoteResultDTO {
+
+    public enum Outcome {
+        APPLIED,    // counted now
+        DUPLICATE,  // this idempotency key was processed before; nothing changed
+        NOT_FOUND,
+        FINALIZED   // the submission was already approved or rejected
+    }
+
+    private String idempotencyKey;
+    private UUID submissionId;
+    private Outcome outcome;
+    private CorrectionSubmissionDTO submission; // current state, for APPLIED and DUPLICATE
+}
@@ -0,0 +1,17 @@
+package za.co.taxipoint.dto;
+
+import lombok.Data;
+
+@Data
+public class DestinationFareDTO {
+    private String rankId;
+    private String rankName;
+    private String address;
+    private String district;
+    private Double latitude;
+    private Double longitude;
+    private Double distanceMeters;      // null when no origin was given
+    private String matchedDestination;
+    private Double fare;                // null when the rank serves the route but lists no fare
+    private String currency;
+}
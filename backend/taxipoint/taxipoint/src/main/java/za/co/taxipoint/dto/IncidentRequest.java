@@ -1,6 +1,7 @@
 package za.co.taxipoint.dto;
 
 import lombok.Data;
+import za.co.taxipoint.model.IncidentCategory;
 
 @Data
 public class IncidentRequest {
@@ -8,4 +9,5 @@ public class IncidentRequest {
     private String reporter;
     private double latitude;
     private double longitude;
+    private IncidentCategory category; // optional, GENERAL when omitted
 }
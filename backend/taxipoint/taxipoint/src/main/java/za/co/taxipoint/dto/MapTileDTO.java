@@ -0,0 +1,18 @@
+package za.co.taxipoint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MapTileDTO {
+    private int z;
+    private int x;
+    private int y;
+    private boolean clustered;
+    private List<TileFeatureDTO> features;
+}
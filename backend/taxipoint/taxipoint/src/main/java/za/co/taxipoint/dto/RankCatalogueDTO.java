@@ -0,0 +1,17 @@
+package za.co.taxipoint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankCatalogueDTO {
+    private long version;                 // pass back as ?since= on the next sync
+    private boolean full;                 // true: replace the local catalogue; false: apply as a delta
+    private List<CatalogueRankDTO> ranks; // added or changed ranks
+    private List<String> removed;         // ids of ranks deactivated since the client's version
+}
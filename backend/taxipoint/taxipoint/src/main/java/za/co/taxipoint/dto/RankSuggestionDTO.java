@@ -0,0 +1,15 @@
+package za.co.taxipoint.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankSuggestionDTO {
+    private String text;
+    private String type;      // RANK, ROUTE, DISTRICT or ADDRESS
+    private String rankId;    // only set for RANK suggestions
+    private int rankCount;    // number of active ranks carrying this text
+}
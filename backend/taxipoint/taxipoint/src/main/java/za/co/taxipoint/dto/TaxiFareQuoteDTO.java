@@ -10,4 +10,5 @@ public class TaxiFareQuoteDTO {
     private String matchedDestination;
     private Double fare;
     private String currency;
+    private String matchType; // EXACT, TOKENS, CONTAINS or FUZZY; null when nothing matched
 }
@@ -0,0 +1,16 @@
+package za.co.taxipoint.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TileFeatureDTO {
+    private String type;           // RANK, INCIDENT or CLUSTER
+    private String id;             // rank UUID or incident id; null for clusters
+    private String label;          // rank name or incident description
+    private double latitude;       // the point, or the cluster's centroid
+    private double longitude;
+    private Integer rankCount;     // clusters only
+    private Integer incidentCount; // clusters only
+}
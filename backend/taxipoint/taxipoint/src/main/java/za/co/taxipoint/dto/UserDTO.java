@@ -10,6 +10,8 @@ public class UserDTO {
     private String email;
     private String role;
     private String token;
+    private String refreshToken;
+    private Long tokenExpiresIn;
     private Boolean notifications;
     private Boolean soundAlerts;
     private Boolean autoRefresh;
@@ -0,0 +1,18 @@
+package za.co.taxipoint.event;
+
+import za.co.taxipoint.model.Incident;
+
+/**
+ * Published after an incident is written, so background work such as
+ * geocoding can react without sitting on the request path.
+ */
+public record IncidentChangedEvent(Incident incident, Change change) {
+
+    public enum Change {
+        CREATED,
+        RESOLVED,
+        REOPENED,
+        // Resolved by the expiry sweep
+        EXPIRED
+    }
+}
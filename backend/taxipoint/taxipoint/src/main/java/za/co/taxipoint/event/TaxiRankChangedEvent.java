@@ -0,0 +1,18 @@
+package za.co.taxipoint.event;
+
+import org.locationtech.jts.geom.Point;
+import za.co.taxipoint.model.TaxiRank;
+
+/**
+ * Published after a taxi rank is created or modified, whether through the
+ * admin API or an approved correction. In-memory rank indexes listen for it.
+ * {@code previousLocation} is where the rank was before this write; it is
+ * null for new ranks and equal to the current location when it did not move.
+ */
+public record TaxiRankChangedEvent(TaxiRank rank, Point previousLocation) {
+
+    public boolean moved() {
+        return previousLocation != null
+                && (rank.getLocation() == null || !previousLocation.equalsExact(rank.getLocation()));
+    }
+}
@@ -0,0 +1,40 @@
+package za.co.taxipoint.geo;
+
+/**
+ * Spherical distance helpers shared by the in-memory geo indexes.
+ */
+public final class GeoUtils {
+
+    // Mean radius PostGIS uses for sphere distances (use_spheroid = false), so
+    // in-memory and SQL distances order ranks the same way
+    public static final double EARTH_RADIUS_METERS = 6371008.7714;
+    public static final double METERS_PER_DEGREE_LAT = 111320;
+
+    private GeoUtils() {
+    }
+
+    public static double haversineMeters(double lat1, double lon1, double lat2, double lon2) {
+        double latRad1 = Math.toRadians(lat1);
+        double latRad2 = Math.toRadians(lat2);
+        double deltaLat = Math.toRadians(lat2 - lat1);
+        double deltaLon = Math.toRadians(lon2 - lon1);
+
+        double a = Math.sin(deltaLat / 2) * Math.sin(deltaLat / 2) +
+                Math.cos(latRad1) * Math.cos(latRad2) *
+                        Math.sin(deltaLon / 2) * Math.sin(deltaLon / 2);
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return EARTH_RADIUS_METERS * c;
+    }
+
+    /**
+     * Degrees of longitude spanned by the given distance at a latitude.
+     */
+    public static double metersToLongitudeDegrees(double meters, double latitude) {
+        double cos = Math.max(Math.cos(Math.toRadians(latitude)), 0.01);
+        return meters / (METERS_PER_DEGREE_LAT * cos);
+    }
+
+    public static double metersToLatitudeDegrees(double meters) {
+        return meters / METERS_PER_DEGREE_LAT;
+    }
+}
@@ -0,0 +1,45 @@
+package za.co.taxipoint.geo;
+
+/**
+ * Web Mercator ("slippy map") tile arithmetic, matching the z/x/y scheme
+ * used by Leaflet and OpenStreetMap tile servers.
+ */
+public final class TileMath {
+
+    public static final int MAX_ZOOM = 22;
+
+    private TileMath() {
+    }
+
+    public static boolean isValid(int zoom, int x, int y) {
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            return false;
+        }
+        int tiles = 1 << zoom;
+        return x >= 0 && x < tiles && y >= 0 && y < tiles;
+    }
+
+    public static double tileToLongitude(int x, int zoom) {
+        return x / (double) (1 << zoom) * 360.0 - 180.0;
+    }
+
+    public static double tileToLatitude(int y, int zoom) {
+        double n = Math.PI - 2.0 * Math.PI * y / (1 << zoom);
+        return Math.toDegrees(Math.atan(Math.sinh(n)));
+    }
+
+    /**
+     * Fractional tile column of a longitude; the integer part is the tile x.
+     */
+    public static double longitudeToTileX(double longitude, int zoom) {
+        return (longitude + 180.0) / 360.0 * (1 << zoom);
+    }
+
+    /**
+     * Fractional tile row of a latitude; the integer part is the tile y.
+     */
+    public static double latitudeToTileY(double latitude, int zoom) {
+        double latRad = Math.toRadians(latitude);
+        return (1.0 - Math.log(Math.tan(latRad) + 1.0 / Math.cos(latRad)) / Math.PI) / 2.0 * (1 << zoom);
+    }
+}
@@ -0,0 +1,183 @@
+package za.co.taxipoint.index;
+
+import org.springframework.stereotype.Component;
+import za.co.taxipoint.model.TaxiRank;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Reverse index from destination words to the active ranks that serve them,
+ * built from each rank's routesServed and routeFares keys. Answers "which
+ * ranks go to X" without scanning every rank.
+ */
+@Component
+public class DestinationIndex implements TaxiRankIndex {
+
+    /**
+     * A rank serving the destination, the route name that matched and the
+     * rank's compiled fares for quoting it.
+     */
+    public record Match(TaxiRank rank, String route, RankFares fares) {
+    }
+
+    private record Route(String name, Set<String> tokens) {
+    }
+
+    private record Entry(TaxiRank rank, List<Route> routes, RankFares fares) {
+    }
+
+    private final Map<String, Set<UUID>> ranksByToken = new HashMap<>();
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    @Override
+    public void rebuild(Collection<TaxiRank> ranks) {
+        lock.writeLock().lock();
+        try {
+            ranksByToken.clear();
+            entries.clear();
+            ranks.forEach(this::insert);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(TaxiRank rank) {
+        lock.writeLock().lock();
+        try {
+            delete(rank.getId());
+            insert(rank);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(UUID rankId) {
+        lock.writeLock().lock();
+        try {
+            delete(rankId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Ranks with a route whose name contains every word of the destination.
+     */
+    public List<Match> findServing(String destination) {
+        List<String> tokens = TextTokens.tokenize(destination);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            // Intersect starting from the rarest word to keep the candidate set small
+            Set<UUID> candidates = null;
+            for (String token : tokens.stream()
+                    .sorted((a, b) -> Integer.compare(postingSize(a), postingSize(b)))
+                    .toList()) {
+                Set<UUID> posting = ranksByToken.get(token);
+                if (posting == null) {
+                    return List.of();
+                }
+                if (candidates == null) {
+                    candidates = new HashSet<>(posting);
+                } else {
+                    candidates.retainAll(posting);
+                }
+                if (candidates.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<Match> matches = new ArrayList<>();
+            for (UUID rankId : candidates) {
+                Entry entry = entries.get(rankId);
+                // The words may be spread over different routes; require one route to carry them all
+                entry.routes().stream()
+                        .filter(route -> route.tokens().containsAll(tokens))
+                        .min((a, b) -> Integer.compare(a.tokens().size(), b.tokens().size()))
+                        .ifPresent(route -> matches.add(new Match(entry.rank(), route.name(), entry.fares())));
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int postingSize(String token) {
+        Set<UUID> posting = ranksByToken.get(token);
+        return posting == null ? 0 : posting.size();
+    }
+
+    private void insert(TaxiRank rank) {
+        if (rank.getId() == null) {
+            return;
+        }
+
+        Map<String, Route> routes = new LinkedHashMap<>();
+        if (rank.getRouteFares() != null) {
+            rank.getRouteFares().keySet().forEach(name -> addRoute(routes, name));
+        }
+        if (rank.getRoutesServed() != null) {
+            rank.getRoutesServed().forEach(name -> addRoute(routes, name));
+        }
+        if (routes.isEmpty()) {
+            return;
+        }
+
+        Entry entry = new Entry(rank, List.copyOf(routes.values()), RankFares.compile(rank));
+        entries.put(rank.getId(), entry);
+        for (Route route : entry.routes()) {
+            route.tokens().forEach(token -> ranksByToken.computeIfAbsent(token, t -> new HashSet<>()).add(rank.getId()));
+        }
+    }
+
+    private void addRoute(Map<String, Route> routes, String name) {
+        if (name == null) {
+            return;
+        }
+        List<String> tokens = TextTokens.tokenize(name);
+        if (!tokens.isEmpty()) {
+            routes.putIfAbsent(String.join(" ", tokens), new Route(name.trim(), Set.copyOf(tokens)));
+        }
+    }
+
+    private void delete(UUID rankId) {
+        Entry entry = entries.remove(rankId);
+        if (entry == null) {
+            return;
+        }
+        for (Route route : entry.routes()) {
+            for (String token : route.tokens()) {
+                Set<UUID> posting = ranksByToken.get(token);
+                if (posting != null) {
+                    posting.remove(rankId);
+                    if (posting.isEmpty()) {
+                        ranksByToken.remove(token);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package za.co.taxipoint.index;
+
+import za.co.taxipoint.model.TaxiRank;
+
+/**
+ * A rank returned from a spatial query together with its great-circle
+ * distance from the query point.
+ */
+public record RankDistance(TaxiRank rank, double distanceMeters) {
+}
@@ -0,0 +1,64 @@
+package za.co.taxipoint.index;
+
+import org.springframework.stereotype.Component;
+import za.co.taxipoint.model.TaxiRank;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled fare tables for every active rank. Entries are replaced whenever
+ * {@link TaxiRankIndexer} forwards a rank write, so a route fare change is
+ * visible on the next quote. Ranks missing from the index (cold start,
+ * another instance's write) are compiled once on first use and kept.
+ */
+@Component
+public class RankFareIndex implements TaxiRankIndex {
+
+    private volatile Map<UUID, RankFares> fares = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    @Override
+    public void rebuild(Collection<TaxiRank> ranks) {
+        Map<UUID, RankFares> rebuilt = new ConcurrentHashMap<>();
+        for (TaxiRank rank : ranks) {
+            if (rank.getId() != null) {
+                rebuilt.put(rank.getId(), RankFares.compile(rank));
+            }
+        }
+        fares = rebuilt;
+        ready = true;
+    }
+
+    @Override
+    public void upsert(TaxiRank rank) {
+        if (rank.getId() != null) {
+            fares.put(rank.getId(), RankFares.compile(rank));
+        }
+    }
+
+    @Override
+    public void remove(UUID rankId) {
+        fares.remove(rankId);
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Optional<RankFares> get(UUID rankId) {
+        return Optional.ofNullable(fares.get(rankId));
+    }
+
+    /**
+     * Compiles and keeps a rank loaded outside the indexer. An entry already
+     * present wins, since it came from a write at least as recent as this read.
+     */
+    public RankFares cache(TaxiRank rank) {
+        return fares.computeIfAbsent(rank.getId(), id -> RankFares.compile(rank));
+    }
+}
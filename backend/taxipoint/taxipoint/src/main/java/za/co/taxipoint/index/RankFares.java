@@ -0,0 +1,184 @@
+package za.co.taxipoint.index;
+
+import za.co.taxipoint.model.TaxiRank;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A rank's route fares compiled for lookup: route names are normalized once,
+ * exact matches are a hash probe and the looser tiers only run when that
+ * misses. Instances are immutable and safe to share between threads.
+ */
+public final class RankFares {
+
+    public enum MatchType {
+        EXACT, TOKENS, CONTAINS, FUZZY
+    }
+
+    public record FareMatch(String route, double fare, MatchType matchType) {
+    }
+
+    private record Route(String name, String key, Set<String> tokens, double fare) {
+    }
+
+    private final UUID rankId;
+    private final String rankName;
+    private final String currency;
+    private final Map<String, Route> byKey;
+    private final List<Route> routes;
+
+    private RankFares(UUID rankId, String rankName, String currency, List<Route> routes) {
+        this.rankId = rankId;
+        this.rankName = rankName;
+        this.currency = currency;
+        this.routes = routes;
+        Map<String, Route> keys = new HashMap<>();
+        // The first route wins when two names normalize the same, as with the old linear scan
+        routes.forEach(route -> keys.putIfAbsent(route.key(), route));
+        this.byKey = keys;
+    }
+
+    public static RankFares compile(TaxiRank rank) {
+        List<Route> routes = new ArrayList<>();
+        if (rank.getRouteFares() != null) {
+            rank.getRouteFares().forEach((name, fare) -> {
+                if (name == null || fare == null) {
+                    return;
+                }
+                List<String> tokens = TextTokens.tokenize(name);
+                if (!tokens.isEmpty()) {
+                    routes.add(new Route(name, String.join(" ", tokens), new HashSet<>(tokens), fare));
+                }
+            });
+        }
+        String currency = rank.getCurrency() != null ? rank.getCurrency() : "ZAR";
+        return new RankFares(rank.getId(), rank.getName(), currency, Collections.unmodifiableList(routes));
+    }
+
+    public UUID getRankId() {
+        return rankId;
+    }
+
+    public String getRankName() {
+        return rankName;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public boolean isEmpty() {
+        return routes.isEmpty();
+    }
+
+    /**
+     * Best fare for a destination, trying an exact match on the normalized
+     * name, then word overlap, then substring containment in either
+     * direction, then a small edit distance to absorb typos.
+     */
+    public Optional<FareMatch> match(String destination) {
+        List<String> tokens = TextTokens.tokenize(destination);
+        if (tokens.isEmpty() || routes.isEmpty()) {
+            return Optional.empty();
+        }
+        String key = String.join(" ", tokens);
+
+        Route exact = byKey.get(key);
+        if (exact != null) {
+            return Optional.of(toMatch(exact, MatchType.EXACT));
+        }
+
+        Set<String> wanted = new HashSet<>(tokens);
+        Route bestOverlap = null;
+        double bestScore = 0;
+        for (Route route : routes) {
+            if (!route.tokens().containsAll(wanted) && !wanted.containsAll(route.tokens())) {
+                continue;
+            }
+            Set<String> shared = new HashSet<>(route.tokens());
+            shared.retainAll(wanted);
+            double score = (double) shared.size() / (route.tokens().size() + wanted.size() - shared.size());
+            if (score > bestScore) {
+                bestScore = score;
+                bestOverlap = route;
+            }
+        }
+        if (bestOverlap != null) {
+            return Optional.of(toMatch(bestOverlap, MatchType.TOKENS));
+        }
+
+        for (Route route : routes) {
+            if (route.key().contains(key) || key.contains(route.key())) {
+                return Optional.of(toMatch(route, MatchType.CONTAINS));
+            }
+        }
+
+        int allowed = key.length() <= 5 ? 1 : 2;
+        Route closest = null;
+        int closestDistance = allowed + 1;
+        for (Route route : routes) {
+            int distance = boundedEditDistance(route.key(), key, allowed);
+            if (distance < closestDistance) {
+                closestDistance = distance;
+                closest = route;
+            }
+        }
+        return Optional.ofNullable(closest).map(route -> toMatch(route, MatchType.FUZZY));
+    }
+
+    /**
+     * Fare of one named route, matched only on its normalized name. Used when
+     * the route has already been chosen, e.g. by {@link DestinationIndex}.
+     */
+    public Optional<FareMatch> fareFor(String route) {
+        List<String> tokens = TextTokens.tokenize(route);
+        if (tokens.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(byKey.get(String.join(" ", tokens)))
+                .map(match -> toMatch(match, MatchType.EXACT));
+    }
+
+    private FareMatch toMatch(Route route, MatchType matchType) {
+        return new FareMatch(route.name(), route.fare(), matchType);
+    }
+
+    /**
+     * Levenshtein distance, giving up with {@code limit + 1} as soon as it is
+     * known to exceed the limit.
+     */
+    static int boundedEditDistance(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) > limit) {
+            return limit + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], limit + 1);
+    }
+}
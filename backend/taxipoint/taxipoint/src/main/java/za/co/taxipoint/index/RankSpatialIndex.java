@@ -0,0 +1,365 @@
+package za.co.taxipoint.index;
+
+import org.springframework.stereotype.Component;
+import za.co.taxipoint.geo.GeoUtils;
+import za.co.taxipoint.model.TaxiRank;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Uniform lat/lng grid over active ranks with located positions. Cells are
+ * 0.01 degrees (about 1.1 km north-south), so a typical nearby query touches
+ * a handful of cells and never reaches PostGIS.
+ */
+@Component
+public class RankSpatialIndex implements TaxiRankIndex {
+
+    static final double CELL_DEGREES = 0.01;
+
+    // Ids compare as unsigned bytes, the way Postgres orders uuid, so cursors agree with the SQL path
+    public static final Comparator<RankDistance> BY_DISTANCE_THEN_ID =
+            Comparator.comparingDouble(RankDistance::distanceMeters)
+                    .thenComparing(match -> match.rank().getId(), RankSpatialIndex::compareUuids);
+
+    private final Map<Long, List<TaxiRank>> cells = new HashMap<>();
+    // Cell of each indexed rank, remembered so a moved rank can be found in its old cell
+    private final Map<UUID, Long> cellByRank = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    @Override
+    public void rebuild(Collection<TaxiRank> activeRanks) {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            cellByRank.clear();
+            activeRanks.forEach(this::insert);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(TaxiRank rank) {
+        lock.writeLock().lock();
+        try {
+            delete(rank.getId());
+            insert(rank);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(UUID rankId) {
+        lock.writeLock().lock();
+        try {
+            delete(rankId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Ranks within {@code radiusMeters} of the point, ordered by distance and
+     * then id so the order is stable enough to page through with a cursor.
+     */
+    public List<RankDistance> findWithinRadius(double latitude, double longitude, double radiusMeters) {
+        List<RankDistance> matches = new ArrayList<>();
+        forEachWithinRadius(latitude, longitude, radiusMeters, matches::add);
+        matches.sort(BY_DISTANCE_THEN_ID);
+        return matches;
+    }
+
+    /**
+     * The first {@code limit} ranks within the radius that sort after
+     * {@code after} (or from the start when it is null). Only a bounded heap
+     * of {@code limit} candidates is kept, so a page costs one pass over the
+     * radius rather than a sort of every match.
+     */
+    public List<RankDistance> findWithinRadius(double latitude, double longitude, double radiusMeters,
+                                               RankDistance after, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        PriorityQueue<RankDistance> best = new PriorityQueue<>(BY_DISTANCE_THEN_ID.reversed());
+        forEachWithinRadius(latitude, longitude, radiusMeters, match -> {
+            if (after != null && BY_DISTANCE_THEN_ID.compare(match, after) <= 0) {
+                return;
+            }
+            if (best.size() < limit) {
+                best.add(match);
+            } else if (BY_DISTANCE_THEN_ID.compare(match, best.peek()) < 0) {
+                best.poll();
+                best.add(match);
+            }
+        });
+
+        List<RankDistance> page = new ArrayList<>(best);
+        page.sort(BY_DISTANCE_THEN_ID);
+        return page;
+    }
+
+    public int countWithinRadius(double latitude, double longitude, double radiusMeters) {
+        int[] count = new int[1];
+        forEachWithinRadius(latitude, longitude, radiusMeters, match -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Distance from the point to an indexed rank, for resolving a paging
+     * cursor without scanning the radius.
+     */
+    public Optional<RankDistance> distanceTo(UUID rankId, double latitude, double longitude) {
+        lock.readLock().lock();
+        try {
+            Long key = cellByRank.get(rankId);
+            if (key == null) {
+                return Optional.empty();
+            }
+            return cells.getOrDefault(key, List.of()).stream()
+                    .filter(rank -> rank.getId().equals(rankId))
+                    .findFirst()
+                    .map(rank -> new RankDistance(rank, GeoUtils.haversineMeters(
+                            latitude, longitude, rank.getLocation().getY(), rank.getLocation().getX())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void forEachWithinRadius(double latitude, double longitude, double radiusMeters,
+                                     Consumer<RankDistance> action) {
+        double latSpan = GeoUtils.metersToLatitudeDegrees(radiusMeters);
+        double lngSpan = GeoUtils.metersToLongitudeDegrees(radiusMeters, latitude);
+        int minRow = row(latitude - latSpan);
+        int maxRow = row(latitude + latSpan);
+        int minCol = col(longitude - lngSpan);
+        int maxCol = col(longitude + lngSpan);
+
+        lock.readLock().lock();
+        try {
+            long boxCells = (long) (maxRow - minRow + 1) * (maxCol - minCol + 1);
+            if (boxCells > cells.size()) {
+                // Very large radius: scanning occupied cells is cheaper than walking the box.
+                cells.forEach((key, cellRanks) -> {
+                    int row = (int) (key >> 32);
+                    int col = (int) (long) key;
+                    if (row >= minRow && row <= maxRow && col >= minCol && col <= maxCol) {
+                        collect(cellRanks, latitude, longitude, radiusMeters, action);
+                    }
+                });
+            } else {
+                for (int row = minRow; row <= maxRow; row++) {
+                    for (int col = minCol; col <= maxCol; col++) {
+                        List<TaxiRank> cellRanks = cells.get(key(row, col));
+                        if (cellRanks != null) {
+                            collect(cellRanks, latitude, longitude, radiusMeters, action);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks inside a lat/lng box, in no particular order. Used for map tiles.
+     */
+    public List<TaxiRank> findInBounds(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+        int minRow = row(minLatitude);
+        int maxRow = row(maxLatitude);
+        int minCol = col(minLongitude);
+        int maxCol = col(maxLongitude);
+
+        List<TaxiRank> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            long boxCells = (long) (maxRow - minRow + 1) * (maxCol - minCol + 1);
+            if (boxCells > cells.size()) {
+                cells.forEach((key, cellRanks) -> {
+                    int row = (int) (key >> 32);
+                    int col = (int) (long) key;
+                    if (row >= minRow && row <= maxRow && col >= minCol && col <= maxCol) {
+                        collectInBounds(cellRanks, minLatitude, minLongitude, maxLatitude, maxLongitude, matches);
+                    }
+                });
+            } else {
+                for (int row = minRow; row <= maxRow; row++) {
+                    for (int col = minCol; col <= maxCol; col++) {
+                        List<TaxiRank> cellRanks = cells.get(key(row, col));
+                        if (cellRanks != null) {
+                            collectInBounds(cellRanks, minLatitude, minLongitude, maxLatitude, maxLongitude, matches);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches;
+    }
+
+    private void collectInBounds(List<TaxiRank> cellRanks, double minLatitude, double minLongitude,
+                                 double maxLatitude, double maxLongitude, List<TaxiRank> matches) {
+        for (TaxiRank rank : cellRanks) {
+            double latitude = rank.getLocation().getY();
+            double longitude = rank.getLocation().getX();
+            if (latitude >= minLatitude && latitude < maxLatitude
+                    && longitude >= minLongitude && longitude < maxLongitude) {
+                matches.add(rank);
+            }
+        }
+    }
+
+    /**
+     * The {@code k} ranks closest to the point, closest first. Rings of cells
+     * are visited outwards from the query cell and the search stops as soon as
+     * no unvisited cell can hold anything closer than the current k-th match,
+     * so the cost depends on k and local density rather than on a radius.
+     */
+    public List<RankDistance> findNearest(double latitude, double longitude, int k) {
+        if (k <= 0) {
+            return List.of();
+        }
+
+        // Max-heap on distance holding the best k candidates seen so far
+        PriorityQueue<RankDistance> best = new PriorityQueue<>(
+                Comparator.comparingDouble(RankDistance::distanceMeters).reversed());
+        int originRow = row(latitude);
+        int originCol = col(longitude);
+
+        lock.readLock().lock();
+        try {
+            int visitedCells = 0;
+            for (int ring = 0; ; ring++) {
+                if (visitedCells >= cells.size()) {
+                    // Sparse surroundings: walking further rings would cost more than a full scan.
+                    best.clear();
+                    cells.values().forEach(cellRanks -> offerAll(cellRanks, latitude, longitude, k, best));
+                    break;
+                }
+
+                for (int dRow = -ring; dRow <= ring; dRow++) {
+                    int step = Math.abs(dRow) == ring ? 1 : 2 * ring;
+                    for (int dCol = -ring; dCol <= ring; dCol += step) {
+                        List<TaxiRank> cellRanks = cells.get(key(originRow + dRow, originCol + dCol));
+                        visitedCells++;
+                        if (cellRanks != null) {
+                            offerAll(cellRanks, latitude, longitude, k, best);
+                        }
+                    }
+                }
+
+                if (best.size() == k && best.peek().distanceMeters() <= unvisitedLowerBound(latitude, ring)) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<RankDistance> nearest = new ArrayList<>(best);
+        nearest.sort(Comparator.comparingDouble(RankDistance::distanceMeters));
+        return nearest;
+    }
+
+    /**
+     * Conservative minimum distance from the query point to any cell outside
+     * the first {@code ring} rings, using the narrowest longitude spacing the
+     * band can have and a small margin for great-circle shortcuts.
+     */
+    private double unvisitedLowerBound(double latitude, int ring) {
+        double gapDegrees = ring * CELL_DEGREES;
+        double poleward = Math.min(89.0, Math.abs(latitude) + gapDegrees);
+        double lngGap = gapDegrees * GeoUtils.METERS_PER_DEGREE_LAT * Math.cos(Math.toRadians(poleward));
+        double latGap = gapDegrees * GeoUtils.METERS_PER_DEGREE_LAT;
+        return Math.min(latGap, lngGap) * 0.99;
+    }
+
+    private void offerAll(List<TaxiRank> cellRanks, double latitude, double longitude, int k,
+                          PriorityQueue<RankDistance> best) {
+        for (TaxiRank rank : cellRanks) {
+            double distance = GeoUtils.haversineMeters(
+                    latitude, longitude, rank.getLocation().getY(), rank.getLocation().getX());
+            if (best.size() < k) {
+                best.add(new RankDistance(rank, distance));
+            } else if (distance < best.peek().distanceMeters()) {
+                best.poll();
+                best.add(new RankDistance(rank, distance));
+            }
+        }
+    }
+
+    private void collect(List<TaxiRank> cellRanks, double latitude, double longitude, double radiusMeters,
+                         Consumer<RankDistance> action) {
+        for (TaxiRank rank : cellRanks) {
+            double distance = GeoUtils.haversineMeters(
+                    latitude, longitude, rank.getLocation().getY(), rank.getLocation().getX());
+            if (distance <= radiusMeters) {
+                action.accept(new RankDistance(rank, distance));
+            }
+        }
+    }
+
+    private void insert(TaxiRank rank) {
+        if (rank.getId() == null || rank.getLocation() == null) {
+            return;
+        }
+        long key = cellKey(rank);
+        cellByRank.put(rank.getId(), key);
+        cells.computeIfAbsent(key, k -> new ArrayList<>()).add(rank);
+    }
+
+    private void delete(UUID rankId) {
+        Long key = cellByRank.remove(rankId);
+        if (key == null) {
+            return;
+        }
+        List<TaxiRank> cellRanks = cells.get(key);
+        if (cellRanks != null) {
+            cellRanks.removeIf(rank -> rank.getId().equals(rankId));
+            if (cellRanks.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    private long cellKey(TaxiRank rank) {
+        return key(row(rank.getLocation().getY()), col(rank.getLocation().getX()));
+    }
+
+    static int compareUuids(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    static int row(double latitude) {
+        return (int) Math.floor((latitude + 90) / CELL_DEGREES);
+    }
+
+    static int col(double longitude) {
+        return (int) Math.floor((longitude + 180) / CELL_DEGREES);
+    }
+
+    static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+}
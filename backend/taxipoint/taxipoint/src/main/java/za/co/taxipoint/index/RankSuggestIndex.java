@@ -0,0 +1,203 @@
+package za.co.taxipoint.index;
+
+import org.springframework.stereotype.Component;
+import za.co.taxipoint.dto.RankSuggestionDTO;
+import za.co.taxipoint.model.TaxiRank;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead over rank names, districts, addresses, served routes and fare
+ * destinations. Every normalized token of a suggestion is kept in a sorted
+ * map, so a prefix lookup is a range scan over the tokens that start with
+ * the typed text and never touches the database.
+ */
+@Component
+public class RankSuggestIndex implements TaxiRankIndex {
+
+    public enum Type {
+        RANK, ROUTE, DISTRICT, ADDRESS
+    }
+
+    // A suggestion; route, district and address texts are shared by every rank that carries them
+    private record Term(Type type, String key, UUID rankId) {
+    }
+
+    private static final class TermInfo {
+        private final String text;
+        private final List<String> tokens;
+        private int rankCount;
+
+        private TermInfo(String text, List<String> tokens) {
+            this.text = text;
+            this.tokens = tokens;
+        }
+    }
+
+    private final NavigableMap<String, Set<Term>> tokens = new TreeMap<>();
+    private final Map<Term, TermInfo> terms = new HashMap<>();
+    private final Map<UUID, Set<Term>> termsByRank = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    @Override
+    public void rebuild(Collection<TaxiRank> ranks) {
+        lock.writeLock().lock();
+        try {
+            tokens.clear();
+            terms.clear();
+            termsByRank.clear();
+            ranks.forEach(this::insert);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(TaxiRank rank) {
+        lock.writeLock().lock();
+        try {
+            delete(rank.getId());
+            insert(rank);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(UUID rankId) {
+        lock.writeLock().lock();
+        try {
+            delete(rankId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Suggestions whose words start with every word of the query. Texts that
+     * start with the whole query rank first, then ranks before routes,
+     * districts and addresses, then the most widely served texts.
+     */
+    public List<RankSuggestionDTO> suggest(String query, int limit) {
+        List<String> queryTokens = TextTokens.tokenize(query);
+        if (queryTokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String queryPhrase = String.join(" ", queryTokens);
+        // The longest word is usually the most selective one to scan on
+        String driver = queryTokens.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+
+        lock.readLock().lock();
+        try {
+            Set<Term> candidates = new HashSet<>();
+            tokens.subMap(driver, true, driver + Character.MAX_VALUE, true)
+                    .values()
+                    .forEach(candidates::addAll);
+
+            return candidates.stream()
+                    .filter(term -> matchesAll(terms.get(term).tokens, queryTokens))
+                    .sorted(Comparator
+                            .comparing((Term term) -> !term.key().startsWith(queryPhrase))
+                            .thenComparing(Term::type)
+                            .thenComparing(term -> -terms.get(term).rankCount)
+                            .thenComparing(Term::key))
+                    .limit(limit)
+                    .map(term -> {
+                        TermInfo info = terms.get(term);
+                        return new RankSuggestionDTO(
+                                info.text,
+                                term.type().name(),
+                                term.rankId() == null ? null : term.rankId().toString(),
+                                info.rankCount
+                        );
+                    })
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean matchesAll(List<String> termTokens, List<String> queryTokens) {
+        return queryTokens.stream()
+                .allMatch(queryToken -> termTokens.stream().anyMatch(token -> token.startsWith(queryToken)));
+    }
+
+    private void insert(TaxiRank rank) {
+        if (rank.getId() == null) {
+            return;
+        }
+        UUID rankId = rank.getId();
+        addTerm(rankId, Type.RANK, rank.getName(), rankId);
+        addTerm(rankId, Type.DISTRICT, rank.getDistrict(), null);
+        addTerm(rankId, Type.ADDRESS, rank.getAddress(), null);
+        if (rank.getRoutesServed() != null) {
+            rank.getRoutesServed().forEach(route -> addTerm(rankId, Type.ROUTE, route, null));
+        }
+        if (rank.getRouteFares() != null) {
+            rank.getRouteFares().keySet().forEach(route -> addTerm(rankId, Type.ROUTE, route, null));
+        }
+    }
+
+    private void addTerm(UUID owner, Type type, String text, UUID rankId) {
+        if (text == null) {
+            return;
+        }
+        List<String> textTokens = TextTokens.tokenize(text);
+        if (textTokens.isEmpty()) {
+            return;
+        }
+
+        Term term = new Term(type, String.join(" ", textTokens), rankId);
+        // A rank listing the same route in routesServed and routeFares counts once
+        if (!termsByRank.computeIfAbsent(owner, id -> new LinkedHashSet<>()).add(term)) {
+            return;
+        }
+
+        TermInfo info = terms.computeIfAbsent(term, t -> new TermInfo(text.trim(), textTokens));
+        if (info.rankCount++ == 0) {
+            textTokens.forEach(token -> tokens.computeIfAbsent(token, t -> new HashSet<>()).add(term));
+        }
+    }
+
+    private void delete(UUID rankId) {
+        Set<Term> owned = termsByRank.remove(rankId);
+        if (owned == null) {
+            return;
+        }
+        for (Term term : owned) {
+            TermInfo info = terms.get(term);
+            if (info == null || --info.rankCount > 0) {
+                continue;
+            }
+            terms.remove(term);
+            for (String token : info.tokens) {
+                Set<Term> postings = tokens.get(token);
+                if (postings != null) {
+                    postings.remove(term);
+                    if (postings.isEmpty()) {
+                        tokens.remove(token);
+                    }
+                }
+            }
+        }
+    }
+}
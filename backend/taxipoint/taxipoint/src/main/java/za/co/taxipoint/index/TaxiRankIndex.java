@@ -0,0 +1,29 @@
+package za.co.taxipoint.index;
+
+import za.co.taxipoint.model.TaxiRank;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * An in-memory view over active taxi ranks. Implementations are kept in sync
+ * by {@link TaxiRankIndexer}, which performs the initial load and forwards
+ * every rank write.
+ */
+public interface TaxiRankIndex {
+
+    /**
+     * Replaces the whole index with the given active ranks.
+     */
+    void rebuild(Collection<TaxiRank> ranks);
+
+    void upsert(TaxiRank rank);
+
+    void remove(UUID rankId);
+
+    /**
+     * False until the first {@link #rebuild} completes; callers fall back to
+     * the database while the index is cold.
+     */
+    boolean isReady();
+}
@@ -0,0 +1,104 @@
+package za.co.taxipoint.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import za.co.taxipoint.event.TaxiRankChangedEvent;
+import za.co.taxipoint.model.TaxiRank;
+import za.co.taxipoint.repository.TaxiRankRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Loads active ranks into every {@link TaxiRankIndex} once at startup and
+ * applies rank writes as they commit. A periodic reload picks up writes made
+ * by other instances and heals any update missed during the initial load.
+ * Writes that commit while a reload is reading its snapshot are replayed
+ * after the swap unless the snapshot already holds a newer catalogue version.
+ */
+@Component
+public class TaxiRankIndexer {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaxiRankIndexer.class);
+
+    private final TaxiRankRepository taxiRankRepository;
+    private final List<TaxiRankIndex> indexes;
+    private final Object lock = new Object();
+    // Non-null while a reload is reading its snapshot
+    private List<TaxiRank> changedDuringReload;
+
+    public TaxiRankIndexer(TaxiRankRepository taxiRankRepository, List<TaxiRankIndex> indexes) {
+        this.taxiRankRepository = taxiRankRepository;
+        this.indexes = indexes;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    @Scheduled(
+            initialDelayString = "${taxi-ranks.index.reload-interval-ms:900000}",
+            fixedDelayString = "${taxi-ranks.index.reload-interval-ms:900000}"
+    )
+    public void reload() {
+        synchronized (lock) {
+            changedDuringReload = new ArrayList<>();
+        }
+        try {
+            List<TaxiRank> ranks = taxiRankRepository.findAllActive();
+            synchronized (lock) {
+                indexes.forEach(index -> index.rebuild(ranks));
+                replayNewerThan(ranks, changedDuringReload);
+            }
+            logger.info("Loaded {} active taxi ranks into {} in-memory indexes", ranks.size(), indexes.size());
+        } catch (Exception e) {
+            // Indexes that never loaded stay cold and callers keep using the database.
+            logger.warn("Failed to load taxi rank indexes: {}", e.getMessage());
+        } finally {
+            synchronized (lock) {
+                changedDuringReload = null;
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaxiRankChanged(TaxiRankChangedEvent event) {
+        synchronized (lock) {
+            if (changedDuringReload != null) {
+                changedDuringReload.add(event.rank());
+            }
+            apply(event.rank());
+        }
+    }
+
+    private void replayNewerThan(List<TaxiRank> snapshot, List<TaxiRank> changes) {
+        Map<UUID, Long> snapshotVersions = new HashMap<>();
+        snapshot.forEach(rank -> snapshotVersions.put(rank.getId(), rank.getChangeSeq()));
+        for (TaxiRank rank : changes) {
+            Long snapshotVersion = snapshotVersions.get(rank.getId());
+            if (snapshotVersion == null || rank.getChangeSeq() == null || rank.getChangeSeq() > snapshotVersion) {
+                apply(rank);
+            }
+        }
+    }
+
+    private void apply(TaxiRank rank) {
+        boolean active = rank.getActive() == null || Boolean.TRUE.equals(rank.getActive());
+        for (TaxiRankIndex index : indexes) {
+            if (active) {
+                index.upsert(rank);
+            } else {
+                index.remove(rank.getId());
+            }
+        }
+    }
+}
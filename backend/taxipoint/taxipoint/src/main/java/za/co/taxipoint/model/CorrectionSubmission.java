@@ -10,6 +10,7 @@ import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import lombok.Data;
+import org.hibernate.annotations.Formula;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
@@ -55,6 +56,14 @@ public class CorrectionSubmission {
     @Column(nullable = false)
     private int rejectionsCount = 0;
 
+    /**
+     * How close the submission is to a voting threshold, scaled so 30 means it
+     * has reached one (10 confirmations auto-approve, 3 rejections flag).
+     * Matches the expression index behind the moderation queue's priority sort.
+     */
+    @Formula("GREATEST(confirmations_count * 3, rejections_count * 10)")
+    private int reviewPriority;
+
     @Column(nullable = false)
     private boolean autoApproved = false;
 
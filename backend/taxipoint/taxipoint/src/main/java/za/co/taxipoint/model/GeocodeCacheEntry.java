@@ -0,0 +1,29 @@
+package za.co.taxipoint.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persistent tier of the reverse-geocoding cache. Rows are keyed by the
+ * geohash cell of the looked-up coordinate so nearby points share one entry.
+ */
+@Data
+@Entity
+@Table(name = "geocode_cache")
+public class GeocodeCacheEntry {
+
+    @Id
+    @Column(name = "cell_key", length = 12)
+    private String cellKey;
+
+    @Column(name = "formatted_address", nullable = false, columnDefinition = "TEXT")
+    private String formattedAddress;
+
+    @Column(name = "resolved_at", nullable = false)
+    private LocalDateTime resolvedAt;
+}
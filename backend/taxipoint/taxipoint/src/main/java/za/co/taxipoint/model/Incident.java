@@ -4,6 +4,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -51,6 +53,27 @@ public class Incident {
     @Column(columnDefinition = "geometry(Point,4326)", nullable = false)
     private Point location;
 
+    /**
+     * Address resolved for the location when the incident was created, so
+     * listings can be served without reverse geocoding each row.
+     */
+    @Column(name = "formatted_address", columnDefinition = "TEXT")
+    private String formattedAddress;
+
+    /**
+     * Failed reverse-geocoding lookups so far, and the earliest time the
+     * backfill sweep may try again. Incidents past the attempt limit are
+     * left without an address.
+     */
+    @JsonIgnore
+    @Builder.Default
+    @Column(name = "geocode_attempts")
+    private Integer geocodeAttempts = 0;
+
+    @JsonIgnore
+    @Column(name = "geocode_retry_at")
+    private LocalDateTime geocodeRetryAt;
+
     // The correct fix: We use the @CreationTimestamp annotation.
     // While LocalDateTime.now() is a good default in Java, the @CreationTimestamp
     // annotation is the idiomatic JPA/Hibernate way to ensure the database
@@ -59,6 +82,18 @@ public class Incident {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private IncidentCategory category;
+
+    /**
+     * When the incident stops counting as active, from its category's TTL.
+     * Reads treat it as resolved from then on; the scheduled sweep later
+     * flips {@code resolved} in bulk.
+     */
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
     /**
  * Tracks whether the incident has been resolved.
  * Defaults to false (unresolved) when a new incident is created.
@@ -0,0 +1,13 @@
+package za.co.taxipoint.model;
+
+/**
+ * Kind of incident a commuter reports. Each category can have its own
+ * lifetime before the incident expires; see {@code incidents.ttl.*}.
+ */
+public enum IncidentCategory {
+    GENERAL,
+    ACCIDENT,
+    TRAFFIC,
+    PROTEST,
+    SAFETY
+}
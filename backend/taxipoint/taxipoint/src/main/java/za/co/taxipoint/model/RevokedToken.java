@@ -0,0 +1,31 @@
+package za.co.taxipoint.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persistent side of the access-token revocation list. A key names either a
+ * single token ({@code jti:<id>}) or every token of a user issued up to
+ * {@code revokedAt} ({@code sub:<email>}). Rows are only needed until the
+ * last token they cover has expired on its own.
+ */
+@Data
+@Entity
+@Table(name = "revoked_tokens")
+public class RevokedToken {
+
+    @Id
+    @Column(name = "token_key", length = 150)
+    private String tokenKey;
+
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
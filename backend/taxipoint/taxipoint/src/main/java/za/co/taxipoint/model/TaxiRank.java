@@ -1,7 +1,10 @@
 package za.co.taxipoint.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 import org.locationtech.jts.geom.Point;
@@ -62,12 +65,28 @@ public class TaxiRank {
     @Column(columnDefinition = "jsonb")
     private Map<String, Object> facilities;
 
+    // Catalogue version of the last write, from taxi_rank_catalogue_version; see TaxiRankService.save
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Location as last read from or written to the database, so a move can be announced where the rank left
+    @Transient
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Point storedLocation;
+
+    @PostLoad
+    protected void onLoad() {
+        storedLocation = location;
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -1,17 +1,50 @@
 package za.co.taxipoint.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import za.co.taxipoint.model.CorrectionStatus;
 import za.co.taxipoint.model.CorrectionSubmission;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface CorrectionSubmissionRepository extends JpaRepository<CorrectionSubmission, UUID> {
+public interface CorrectionSubmissionRepository extends JpaRepository<CorrectionSubmission, UUID>, JpaSpecificationExecutor<CorrectionSubmission> {
     List<CorrectionSubmission> findByStatusInOrderByCreatedAtDesc(Collection<CorrectionStatus> statuses);
     List<CorrectionSubmission> findByRankIdOrderByCreatedAtDesc(UUID rankId);
     List<CorrectionSubmission> findBySubmittedByEmailOrderByCreatedAtDesc(String submittedByEmail);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CorrectionSubmission s WHERE s.id = :id")
+    Optional<CorrectionSubmission> findLockedById(@Param("id") UUID id);
+
+    // Rows are locked in id order, so overlapping bulk reviews cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CorrectionSubmission s WHERE s.id IN :ids ORDER BY s.id")
+    List<CorrectionSubmission> findAllLockedByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Applies vote deltas in place, only while the submission is still open.
+     * The row stays locked until commit, so the counts read back afterwards in
+     * the same transaction are exact. Returns 0 when the submission is
+     * missing or already finalized.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CorrectionSubmission s SET s.confirmationsCount = s.confirmationsCount + :confirmations, "
+            + "s.rejectionsCount = s.rejectionsCount + :rejections, s.updatedAt = :now "
+            + "WHERE s.id = :id AND s.status IN :open")
+    int addVoteCounts(@Param("id") UUID id,
+                      @Param("confirmations") int confirmations,
+                      @Param("rejections") int rejections,
+                      @Param("now") LocalDateTime now,
+                      @Param("open") Collection<CorrectionStatus> open);
 }
@@ -0,0 +1,96 @@
+package za.co.taxipoint.repository;
+
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+import za.co.taxipoint.model.CorrectionStatus;
+import za.co.taxipoint.model.CorrectionSubmission;
+import za.co.taxipoint.model.CorrectionType;
+import za.co.taxipoint.model.TaxiRank;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Filters for the moderation queue, combined per request so each query only
+ * carries the predicates it needs.
+ */
+public final class CorrectionSubmissionSpecifications {
+
+    private CorrectionSubmissionSpecifications() {
+    }
+
+    public static Specification<CorrectionSubmission> statusIn(Collection<CorrectionStatus> statuses) {
+        return (root, query, cb) -> root.get("status").in(statuses);
+    }
+
+    public static Specification<CorrectionSubmission> ofType(CorrectionType type) {
+        return (root, query, cb) -> cb.equal(root.get("correctionType"), type);
+    }
+
+    public static Specification<CorrectionSubmission> forRank(UUID rankId) {
+        return (root, query, cb) -> cb.equal(root.get("rankId"), rankId);
+    }
+
+    /**
+     * About a rank in the district, or proposing a new rank there. Case-insensitive.
+     */
+    public static Specification<CorrectionSubmission> inDistrict(String district) {
+        String lowered = district.trim().toLowerCase();
+        return (root, query, cb) -> {
+            Subquery<UUID> ranks = query.subquery(UUID.class);
+            Root<TaxiRank> rank = ranks.from(TaxiRank.class);
+            ranks.select(rank.get("id")).where(cb.equal(cb.lower(rank.get("district")), lowered));
+
+            Expression<String> proposedDistrict = cb.function("jsonb_extract_path_text", String.class,
+                    root.get("details"), cb.literal("district"));
+            return cb.or(
+                    root.get("rankId").in(ranks),
+                    cb.and(cb.equal(root.get("correctionType"), CorrectionType.MISSING_RANK),
+                            cb.equal(cb.lower(proposedDistrict), lowered))
+            );
+        };
+    }
+
+    /**
+     * Share of rejections among the votes cast is at least {@code min}; unvoted submissions never match.
+     */
+    public static Specification<CorrectionSubmission> rejectionRatioAtLeast(double min) {
+        return (root, query, cb) -> {
+            Expression<Integer> total = cb.sum(root.get("confirmationsCount"), root.get("rejectionsCount"));
+            return cb.and(cb.gt(total, 0), cb.ge(root.get("rejectionsCount"), cb.prod(total, min)));
+        };
+    }
+
+    /**
+     * Share of rejections among the votes cast is at most {@code max}; unvoted submissions always match.
+     */
+    public static Specification<CorrectionSubmission> rejectionRatioAtMost(double max) {
+        return (root, query, cb) -> {
+            Expression<Integer> total = cb.sum(root.get("confirmationsCount"), root.get("rejectionsCount"));
+            return cb.le(root.get("rejectionsCount"), cb.prod(total, max));
+        };
+    }
+
+    /**
+     * Submissions that come after the cursor in (created_at DESC, id DESC) order.
+     */
+    public static Specification<CorrectionSubmission> before(LocalDateTime createdAt, UUID id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), createdAt),
+                cb.and(cb.equal(root.get("createdAt"), createdAt), cb.lessThan(root.get("id"), id))
+        );
+    }
+
+    /**
+     * Submissions that come after the cursor in (review_priority DESC, created_at DESC, id DESC) order.
+     */
+    public static Specification<CorrectionSubmission> beforeByPriority(int priority, LocalDateTime createdAt, UUID id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("reviewPriority"), priority),
+                cb.and(cb.equal(root.get("reviewPriority"), priority), before(createdAt, id).toPredicate(root, query, cb))
+        );
+    }
+}
@@ -0,0 +1,160 @@
+package za.co.taxipoint.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import za.co.taxipoint.model.CorrectionVoteType;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Set-based statements for batched votes. Each method issues one JDBC batch
+ * or one query however many votes are involved, and runs inside the
+ * caller's JPA transaction.
+ */
+@Repository
+public class CorrectionVoteBatchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CorrectionVoteBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * A voter's vote on one submission moving from {@code previous} (null
+     * for a first vote) to {@code current}.
+     */
+    public record VoteChange(UUID submissionId, CorrectionVoteType previous, CorrectionVoteType current) {
+
+        public int confirmationDelta() {
+            return delta(CorrectionVoteType.CONFIRM);
+        }
+
+        public int rejectionDelta() {
+            return delta(CorrectionVoteType.REJECT);
+        }
+
+        private int delta(CorrectionVoteType counted) {
+            return (current == counted ? 1 : 0) - (previous == counted ? 1 : 0);
+        }
+    }
+
+    /**
+     * Records idempotency keys for the voter. Returns, per key and in order,
+     * whether it is new; keys seen before are left untouched.
+     */
+    public boolean[] recordReceipts(Long voterUserId, List<String> idempotencyKeys, LocalDateTime now) {
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "INSERT INTO correction_vote_receipts (voter_user_id, idempotency_key, created_at) "
+                        + "VALUES (?, ?, ?) ON CONFLICT DO NOTHING",
+                idempotencyKeys, idempotencyKeys.size(),
+                (ps, key) -> {
+                    ps.setLong(1, voterUserId);
+                    ps.setString(2, key);
+                    ps.setTimestamp(3, Timestamp.valueOf(now));
+                });
+        boolean[] fresh = new boolean[idempotencyKeys.size()];
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                fresh[index++] = count != 0;
+            }
+        }
+        return fresh;
+    }
+
+    /**
+     * Locks the given submissions until commit, in id order so overlapping
+     * batches cannot deadlock. Single votes take the same lock first too. Vote rows that do not exist yet cannot be
+     * locked, so this is what keeps two batches by one voter from both
+     * treating a vote as new.
+     */
+    public void lockSubmissions(Collection<UUID> submissionIds) {
+        jdbcTemplate.query(connection -> {
+            var ps = connection.prepareStatement(
+                    "SELECT id FROM correction_submissions WHERE id = ANY (?) ORDER BY id FOR UPDATE");
+            ps.setArray(1, connection.createArrayOf("uuid", submissionIds.toArray()));
+            return ps;
+        }, rs -> {
+        });
+    }
+
+    /**
+     * The voter's current votes on the given submissions. Call
+     * {@link #lockSubmissions} first so they cannot change before commit.
+     */
+    public Map<UUID, CorrectionVoteType> findVotes(Long voterUserId, Collection<UUID> submissionIds) {
+        Map<UUID, CorrectionVoteType> votes = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            var ps = connection.prepareStatement(
+                    "SELECT submission_id, vote_type FROM correction_votes "
+                            + "WHERE voter_user_id = ? AND submission_id = ANY (?)");
+            Array ids = connection.createArrayOf("uuid", submissionIds.toArray());
+            ps.setLong(1, voterUserId);
+            ps.setArray(2, ids);
+            return ps;
+        }, rs -> {
+            votes.put(rs.getObject("submission_id", UUID.class), CorrectionVoteType.valueOf(rs.getString("vote_type")));
+        });
+        return votes;
+    }
+
+    /**
+     * Applies the counter deltas of each change to open submissions. Returns
+     * the ids that were updated; the rest are missing or finalized.
+     */
+    public List<UUID> applyCounts(List<VoteChange> changes, LocalDateTime now) {
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "UPDATE correction_submissions SET confirmations_count = confirmations_count + ?, "
+                        + "rejections_count = rejections_count + ?, updated_at = ? "
+                        + "WHERE id = ? AND status IN ('PENDING', 'FLAGGED')",
+                changes, changes.size(),
+                (ps, change) -> {
+                    ps.setInt(1, change.confirmationDelta());
+                    ps.setInt(2, change.rejectionDelta());
+                    ps.setTimestamp(3, Timestamp.valueOf(now));
+                    ps.setObject(4, change.submissionId());
+                });
+        List<UUID> updated = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count != 0) {
+                    updated.add(changes.get(index).submissionId());
+                }
+                index++;
+            }
+        }
+        return updated;
+    }
+
+    public void upsertVotes(Long voterUserId, String voterEmail, List<VoteChange> changes, LocalDateTime now) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO correction_votes (id, submission_id, voter_user_id, voter_email, vote_type, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?) "
+                        + "ON CONFLICT (submission_id, voter_user_id) "
+                        + "DO UPDATE SET vote_type = EXCLUDED.vote_type, updated_at = EXCLUDED.updated_at",
+                changes, changes.size(),
+                (ps, change) -> {
+                    ps.setObject(1, UUID.randomUUID());
+                    ps.setObject(2, change.submissionId());
+                    ps.setLong(3, voterUserId);
+                    ps.setString(4, voterEmail);
+                    ps.setString(5, change.current().name());
+                    ps.setTimestamp(6, Timestamp.valueOf(now));
+                    ps.setTimestamp(7, Timestamp.valueOf(now));
+                });
+    }
+
+    public int deleteReceiptsBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM correction_vote_receipts WHERE created_at < ?", Timestamp.valueOf(cutoff));
+    }
+}
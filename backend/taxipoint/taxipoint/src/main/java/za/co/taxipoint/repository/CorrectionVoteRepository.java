@@ -1,9 +1,12 @@
 package za.co.taxipoint.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import za.co.taxipoint.model.CorrectionVote;
-import za.co.taxipoint.model.CorrectionVoteType;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -11,5 +14,10 @@ import java.util.UUID;
 @Repository
 public interface CorrectionVoteRepository extends JpaRepository<CorrectionVote, UUID> {
     Optional<CorrectionVote> findBySubmissionIdAndVoterUserId(UUID submissionId, Long voterUserId);
-    long countBySubmissionIdAndVoteType(UUID submissionId, CorrectionVoteType voteType);
+
+    // Locks only this voter's row, so a user's concurrent re-votes cannot apply the same delta twice
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM CorrectionVote v WHERE v.submissionId = :submissionId AND v.voterUserId = :voterUserId")
+    Optional<CorrectionVote> findForUpdate(@Param("submissionId") UUID submissionId,
+                                           @Param("voterUserId") Long voterUserId);
 }
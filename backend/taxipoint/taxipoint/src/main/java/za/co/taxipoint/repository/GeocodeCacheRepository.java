@@ -0,0 +1,9 @@
+package za.co.taxipoint.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import za.co.taxipoint.model.GeocodeCacheEntry;
+
+@Repository
+public interface GeocodeCacheRepository extends JpaRepository<GeocodeCacheEntry, String> {
+}
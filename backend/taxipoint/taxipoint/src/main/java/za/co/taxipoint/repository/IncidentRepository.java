@@ -3,20 +3,74 @@ package za.co.taxipoint.repository;
 import java.util.List;
 import java.time.LocalDateTime;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import za.co.taxipoint.model.Incident;
 
 @Repository
-public interface IncidentRepository extends JpaRepository<Incident, Long> {
-    List<Incident> findAllByOrderByCreatedAtDesc();
-    List<Incident> findByResolvedFalseOrderByCreatedAtDesc();
-    List<Incident> findByResolvedFalseAndCreatedAtBefore(LocalDateTime createdAt);
+public interface IncidentRepository extends JpaRepository<Incident, Long>, JpaSpecificationExecutor<Incident> {
 
     /**
-     * Count unresolved incidents
-     * Assumes you have a 'resolved' boolean field in Incident model
+     * Unresolved incidents that have not yet expired. Expiry is applied at
+     * read time, so results are correct between runs of the expiry sweep.
      */
-    long countByResolvedFalse();
+    @Query("SELECT i FROM Incident i WHERE i.resolved = false AND (i.expiresAt IS NULL OR i.expiresAt > :now) " +
+           "ORDER BY i.createdAt DESC")
+    List<Incident> findActive(@Param("now") LocalDateTime now);
+
+    @Query("SELECT COUNT(i) FROM Incident i WHERE i.resolved = false AND (i.expiresAt IS NULL OR i.expiresAt > :now)")
+    long countActive(@Param("now") LocalDateTime now);
+
+    @Query("SELECT i FROM Incident i WHERE i.resolved = false AND i.expiresAt <= :now")
+    List<Incident> findExpired(@Param("now") LocalDateTime now);
+
+    /**
+     * Resolves every expired incident in one statement. Clears the
+     * persistence context, so incidents loaded before it are detached and
+     * changing them afterwards issues no further UPDATEs.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Incident i SET i.resolved = true WHERE i.resolved = false AND i.expiresAt <= :now")
+    int resolveExpired(@Param("now") LocalDateTime now);
+
+    /**
+     * Incidents still waiting for an address whose retry time has passed and
+     * that have not used up their geocoding attempts.
+     */
+    @Query("SELECT i.id FROM Incident i WHERE i.resolved = false AND i.formattedAddress IS NULL " +
+           "AND COALESCE(i.geocodeAttempts, 0) < :maxAttempts " +
+           "AND (i.geocodeRetryAt IS NULL OR i.geocodeRetryAt <= :now) ORDER BY i.createdAt DESC")
+    List<Long> findUnresolvedIdsMissingAddress(@Param("now") LocalDateTime now,
+                                               @Param("maxAttempts") int maxAttempts,
+                                               Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Incident i SET i.geocodeAttempts = COALESCE(i.geocodeAttempts, 0) + 1, i.geocodeRetryAt = :retryAt " +
+           "WHERE i.id = :id AND i.formattedAddress IS NULL")
+    int recordGeocodeFailure(@Param("id") Long id, @Param("retryAt") LocalDateTime retryAt);
+
+    @Query(value = """
+            SELECT * FROM incidents
+            WHERE resolved = false
+              AND (expires_at IS NULL OR expires_at > :now)
+              AND location && ST_MakeEnvelope(:minLng, :minLat, :maxLng, :maxLat, 4326)
+            """, nativeQuery = true)
+    List<Incident> findUnresolvedInBounds(@Param("minLat") double minLat,
+                                          @Param("minLng") double minLng,
+                                          @Param("maxLat") double maxLat,
+                                          @Param("maxLng") double maxLng,
+                                          @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Incident i SET i.formattedAddress = :address WHERE i.id = :id AND i.formattedAddress IS NULL")
+    int updateFormattedAddress(@Param("id") Long id, @Param("address") String address);
 }
@@ -0,0 +1,51 @@
+package za.co.taxipoint.repository;
+
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.data.jpa.domain.Specification;
+import za.co.taxipoint.model.Incident;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filters for incident listings, combined per request so each query only
+ * carries the predicates it needs.
+ */
+public final class IncidentSpecifications {
+
+    private IncidentSpecifications() {
+    }
+
+    /**
+     * Unresolved and not yet expired; mirrors {@link IncidentRepository#findActive}.
+     */
+    public static Specification<Incident> active(LocalDateTime now) {
+        return (root, query, cb) -> cb.and(
+                cb.isFalse(root.get("resolved")),
+                cb.or(cb.isNull(root.get("expiresAt")), cb.greaterThan(root.get("expiresAt"), now))
+        );
+    }
+
+    public static Specification<Incident> createdSince(LocalDateTime since) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), since);
+    }
+
+    /**
+     * Incidents that come after the cursor in (created_at DESC, id DESC) order.
+     */
+    public static Specification<Incident> before(LocalDateTime createdAt, long id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), createdAt),
+                cb.and(cb.equal(root.get("createdAt"), createdAt), cb.lessThan(root.get("id"), id))
+        );
+    }
+
+    /**
+     * Located inside a lat/lng box; ST_Intersects lets PostGIS use the GIST index on location.
+     */
+    public static Specification<Incident> withinBounds(double minLat, double minLng, double maxLat, double maxLng) {
+        return (root, query, cb) -> cb.isTrue(cb.function("ST_Intersects", Boolean.class,
+                root.get("location"),
+                cb.function("ST_MakeEnvelope", Geometry.class,
+                        cb.literal(minLng), cb.literal(minLat), cb.literal(maxLng), cb.literal(maxLat), cb.literal(4326))));
+    }
+}
@@ -0,0 +1,85 @@
+package za.co.taxipoint.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Per-cell aggregates for clustered map tiles. Points are bucketed on the
+ * same Web Mercator grid as {@link za.co.taxipoint.geo.TileMath} and counted
+ * in Postgres, so a low-zoom tile returns at most grid x grid rows however
+ * many ranks or incidents it covers.
+ */
+@Repository
+public class MapTileRepository {
+
+    /**
+     * One occupied grid cell. {@code id} and {@code label} describe the
+     * point itself when {@code count} is 1 and are arbitrary otherwise.
+     */
+    public record TileCell(int row, int col, int count, double latitude, double longitude, String id, String label) {
+    }
+
+    private static final RowMapper<TileCell> CELL_MAPPER = (rs, rowNum) -> new TileCell(
+            rs.getInt("cell_row"),
+            rs.getInt("cell_col"),
+            rs.getInt("point_count"),
+            rs.getDouble("latitude"),
+            rs.getDouble("longitude"),
+            rs.getString("point_id"),
+            rs.getString("point_label"));
+
+    // Fractional tile column/row as in TileMath, scaled to the cluster grid and clamped to the tile
+    private static final String CELL_QUERY = """
+            SELECT cell_row, cell_col, COUNT(*) AS point_count,
+                   AVG(lat) AS latitude, AVG(lng) AS longitude,
+                   MIN(point_id) AS point_id, MIN(point_label) AS point_label
+            FROM (
+                SELECT ST_Y(location) AS lat, ST_X(location) AS lng,
+                       CAST(%1$s AS text) AS point_id, %2$s AS point_label,
+                       CAST(LEAST(? - 1, GREATEST(0, FLOOR(
+                           ((ST_X(location) + 180.0) / 360.0 * ? - ?) * ?))) AS integer) AS cell_col,
+                       CAST(LEAST(? - 1, GREATEST(0, FLOOR(
+                           ((1.0 - LN(TAN(RADIANS(ST_Y(location))) + 1.0 / COS(RADIANS(ST_Y(location)))) / PI()) / 2.0 * ? - ?) * ?))) AS integer) AS cell_row
+                FROM %3$s
+                WHERE location && ST_MakeEnvelope(?, ?, ?, ?, 4326)
+                  AND %4$s
+            ) points
+            GROUP BY cell_row, cell_col
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MapTileRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<TileCell> countActiveRanks(int z, int x, int y, int grid,
+                                           double minLat, double minLng, double maxLat, double maxLng) {
+        String sql = CELL_QUERY.formatted("id", "name", "taxi_ranks", "COALESCE(active, true) = true");
+        return jdbcTemplate.query(sql, CELL_MAPPER, cellArgs(z, x, y, grid, minLat, minLng, maxLat, maxLng));
+    }
+
+    public List<TileCell> countUnresolvedIncidents(int z, int x, int y, int grid,
+                                                   double minLat, double minLng, double maxLat, double maxLng,
+                                                   LocalDateTime now) {
+        String sql = CELL_QUERY.formatted("id", "description", "incidents",
+                "resolved = false AND (expires_at IS NULL OR expires_at > ?)");
+        return jdbcTemplate.query(sql, CELL_MAPPER, cellArgs(z, x, y, grid, minLat, minLng, maxLat, maxLng,
+                Timestamp.valueOf(now)));
+    }
+
+    private Object[] cellArgs(int z, int x, int y, int grid,
+                              double minLat, double minLng, double maxLat, double maxLng, Object... filterArgs) {
+        double tiles = 1L << z;
+        Object[] cellArgs = {grid, tiles, x, grid, grid, tiles, y, grid, minLng, minLat, maxLng, maxLat};
+        Object[] args = Arrays.copyOf(cellArgs, cellArgs.length + filterArgs.length);
+        System.arraycopy(filterArgs, 0, args, cellArgs.length, filterArgs.length);
+        return args;
+    }
+}
@@ -0,0 +1,40 @@
+package za.co.taxipoint.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * The single-row catalogue version for /api/taxi-ranks/catalogue. A rank
+ * write bumps the row inside its own transaction, which keeps the row locked
+ * until commit, so versions are handed out in commit order: a reader that
+ * sees version N can rely on every write numbered up to N being visible.
+ */
+@Repository
+public class RankCatalogueVersionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RankCatalogueVersionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Takes the next version. Must run inside the caller's transaction;
+     * concurrent rank writes queue on the row lock until this one commits.
+     */
+    public long next() {
+        Long version = jdbcTemplate.queryForObject(
+                "UPDATE taxi_rank_catalogue_version SET version = version + 1 WHERE id = 1 RETURNING version",
+                Long.class);
+        if (version == null) {
+            throw new IllegalStateException("taxi_rank_catalogue_version row is missing");
+        }
+        return version;
+    }
+
+    public long current() {
+        Long version = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(version), 0) FROM taxi_rank_catalogue_version", Long.class);
+        return version == null ? 0 : version;
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import za.co.taxipoint.model.TaxiRank;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface TaxiRankRepository extends JpaRepository<TaxiRank, UUID> {
@@ -19,6 +20,55 @@ public interface TaxiRankRepository extends JpaRepository<TaxiRank, UUID> {
     @Query("SELECT t FROM TaxiRank t WHERE COALESCE(t.active, true) = true")
     Page<TaxiRank> findActive(Pageable pageable);
 
+    @Query("SELECT t FROM TaxiRank t WHERE COALESCE(t.active, true) = true")
+    List<TaxiRank> findAllActive();
+
+    @Query(value = """
+            SELECT * FROM taxi_ranks
+            WHERE COALESCE(active, true) = true
+              AND location && ST_MakeEnvelope(:minLng, :minLat, :maxLng, :maxLat, 4326)
+            """, nativeQuery = true)
+    List<TaxiRank> findActiveInBounds(@Param("minLat") double minLat,
+                                      @Param("minLng") double minLng,
+                                      @Param("maxLat") double maxLat,
+                                      @Param("maxLng") double maxLng);
+
+    // lower(name) rather than JPQL's upper() so the expression index is used; of case variants the oldest active rank wins
+    @Query(value = "SELECT * FROM taxi_ranks WHERE lower(name) = lower(:name) " +
+                   "ORDER BY active DESC, created_at, id LIMIT 1", nativeQuery = true)
+    Optional<TaxiRank> findByNameIgnoreCase(@Param("name") String name);
+
+    // Most similarly named rank within :radius metres; the geography index narrows, trigram similarity decides
+    @Query(value = """
+            SELECT * FROM taxi_ranks
+            WHERE ST_DWithin(
+                CAST(location AS geography),
+                CAST(ST_SetSRID(ST_MakePoint(:lng, :lat), 4326) AS geography),
+                :radius
+            )
+            AND similarity(lower(name), lower(:name)) >= :minSimilarity
+            ORDER BY similarity(lower(name), lower(:name)) DESC,
+                     ST_Distance(
+                         CAST(location AS geography),
+                         CAST(ST_SetSRID(ST_MakePoint(:lng, :lat), 4326) AS geography)
+                     )
+            LIMIT 1
+            """, nativeQuery = true)
+    Optional<TaxiRank> findSimilarNearby(
+            @Param("name") String name,
+            @Param("lat") double lat,
+            @Param("lng") double lng,
+            @Param("radius") double radius,
+            @Param("minSimilarity") double minSimilarity
+    );
+
+    // Includes deactivated ranks so clients can drop them
+    @Query("SELECT t FROM TaxiRank t WHERE t.changeSeq > :since AND t.changeSeq <= :version ORDER BY t.changeSeq")
+    List<TaxiRank> findChangedBetween(@Param("since") long since, @Param("version") long version);
+
+    @Query("SELECT t FROM TaxiRank t WHERE COALESCE(t.active, true) = true AND COALESCE(t.changeSeq, 0) <= :version ORDER BY t.name")
+    List<TaxiRank> findActiveUpTo(@Param("version") long version);
+
     @Query("SELECT t FROM TaxiRank t WHERE COALESCE(t.active, true) = true AND LOWER(t.district) LIKE LOWER(CONCAT('%', :district, '%'))")
     Page<TaxiRank> findByActiveTrueAndDistrictIgnoreCaseContaining(@Param("district") String district, Pageable pageable);
 
@@ -32,13 +82,15 @@ public interface TaxiRankRepository extends JpaRepository<TaxiRank, UUID> {
     @Query(value = """
             SELECT *, ST_Distance(
                 CAST(location AS geography),
-                CAST(ST_SetSRID(ST_MakePoint(:lng, :lat), 4326) AS geography)
+                CAST(ST_SetSRID(ST_MakePoint(:lng, :lat), 4326) AS geography),
+                false
             ) as distance_meters
             FROM taxi_ranks
             WHERE ST_DWithin(
                 CAST(location AS geography),
                 CAST(ST_SetSRID(ST_MakePoint(:lng, :lat), 4326) AS geography),
-                :radius
+                :radius,
+                false
             )
             AND COALESCE(active, true) = true
             ORDER BY distance_meters
@@ -55,7 +107,8 @@ public interface TaxiRankRepository extends JpaRepository<TaxiRank, UUID> {
             WHERE ST_DWithin(
                 CAST(location AS geography),
                 CAST(ST_SetSRID(ST_MakePoint(:lng, :lat), 4326) AS geography),
-                :radius
+                :radius,
+                false
             )
             AND COALESCE(active, true) = true
     """, nativeQuery = true)
@@ -65,10 +118,124 @@ public interface TaxiRankRepository extends JpaRepository<TaxiRank, UUID> {
             @Param("radius") Double radius
     );
 
-    @Query("SELECT t FROM TaxiRank t WHERE COALESCE(t.active, true) = true AND (" +
-            "LOWER(t.name) LIKE LOWER(CONCAT('%', :query, '%')) " +
-            "OR LOWER(t.address) LIKE LOWER(CONCAT('%', :query, '%')) " +
-            "OR LOWER(CAST(t.routesServed as string)) LIKE LOWER(CONCAT('%', :query, '%')) " +
-            "OR LOWER(t.district) LIKE LOWER(CONCAT('%', :query, '%')))")
-    List<TaxiRank> searchByNameOrAddressOrRoutesOrDistrict(@Param("query") String query);
+    // Spherical distance (use_spheroid = false) so the order matches RankSpatialIndex's haversine
+    @Query(value = """
+            SELECT * FROM taxi_ranks
+            WHERE ST_DWithin(
+                CAST(location AS geography),
+                CAST(ST_SetSRID(ST_MakePoint(:lng, :lat), 4326) AS geography),
+                :radius,
+                false
+            )
+            AND COALESCE(active, true) = true
+            ORDER BY ST_Distance(
+                CAST(location AS geography),
+                CAST(ST_SetSRID(ST_MakePoint(:lng, :lat), 4326) AS geography),
+                false
+            ), id
+            """,
+            countQuery = """
+            SELECT COUNT(*) FROM taxi_ranks
+            WHERE ST_DWithin(
+                CAST(location AS geography),
+                CAST(ST_SetSRID(ST_MakePoint(:lng, :lat), 4326) AS geography),
+                :radius,
+                false
+            )
+            AND COALESCE(active, true) = true
+            """,
+            nativeQuery = true)
+    Page<TaxiRank> findNearbyPage(
+            @Param("lat") Double lat,
+            @Param("lng") Double lng,
+            @Param("radius") Double radius,
+            Pageable pageable
+    );
+
+    // Keyset page on (distance, id): the ranks that sort after :afterId
+    @Query(value = """
+            SELECT * FROM (
+                SELECT t.*, ST_Distance(
+                    CAST(t.location AS geography),
+                    CAST(ST_SetSRID(ST_MakePoint(:lng, :lat), 4326) AS geography),
+                    false
+                ) AS distance_meters
+                FROM taxi_ranks t
+                WHERE ST_DWithin(
+                    CAST(t.location AS geography),
+                    CAST(ST_SetSRID(ST_MakePoint(:lng, :lat), 4326) AS geography),
+                    :radius,
+                    false
+                )
+                AND COALESCE(t.active, true) = true
+            ) nearby
+            WHERE (nearby.distance_meters, nearby.id) > (
+                (SELECT ST_Distance(
+                    CAST(a.location AS geography),
+                    CAST(ST_SetSRID(ST_MakePoint(:lng, :lat), 4326) AS geography),
+                    false
+                ) FROM taxi_ranks a WHERE a.id = :afterId),
+                :afterId
+            )
+            ORDER BY nearby.distance_meters, nearby.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<TaxiRank> findNearbyAfter(
+            @Param("lat") Double lat,
+            @Param("lng") Double lng,
+            @Param("radius") Double radius,
+            @Param("afterId") UUID afterId,
+            @Param("limit") int limit
+    );
+
+    // KNN ordering on the geometry GIST index; planar degrees, so callers re-rank by true distance
+    @Query(value = """
+            SELECT * FROM taxi_ranks
+            WHERE location IS NOT NULL
+            AND COALESCE(active, true) = true
+            ORDER BY location <-> ST_SetSRID(ST_MakePoint(:lng, :lat), 4326)
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<TaxiRank> findNearest(
+            @Param("lat") Double lat,
+            @Param("lng") Double lng,
+            @Param("limit") int limit
+    );
+
+    // Full-text match or substring match (trigram index), best matches first
+    @Query(value = """
+            SELECT t.* FROM taxi_ranks t
+            WHERE COALESCE(t.active, true) = true
+            AND (
+                t.search_vector @@ plainto_tsquery('simple', :query)
+                OR t.search_text LIKE :pattern
+            )
+            ORDER BY ts_rank(t.search_vector, plainto_tsquery('simple', :query)) DESC,
+                     similarity(lower(t.name), lower(:query)) DESC,
+                     t.name, t.id
+            """,
+            countQuery = """
+            SELECT COUNT(*) FROM taxi_ranks t
+            WHERE COALESCE(t.active, true) = true
+            AND (
+                t.search_vector @@ plainto_tsquery('simple', :query)
+                OR t.search_text LIKE :pattern
+            )
+            """,
+            nativeQuery = true)
+    Page<TaxiRank> searchRanked(
+            @Param("query") String query,
+            @Param("pattern") String pattern,
+            Pageable pageable
+    );
+
+    // Matches any of several terms in one query; :tsQuery is a to_tsquery expression such as 'bree:* | soweto:*'
+    @Query(value = """
+            SELECT t.* FROM taxi_ranks t
+            WHERE COALESCE(t.active, true) = true
+            AND t.search_vector @@ to_tsquery('simple', :tsQuery)
+            ORDER BY ts_rank(t.search_vector, to_tsquery('simple', :tsQuery)) DESC, t.name, t.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<TaxiRank> searchAnyTerm(@Param("tsQuery") String tsQuery, @Param("limit") int limit);
 }
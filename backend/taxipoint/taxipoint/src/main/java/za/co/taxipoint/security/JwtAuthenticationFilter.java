@@ -4,6 +4,8 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.*;
 import org.springframework.security.authentication.*;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
@@ -14,6 +16,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
 
 // The @Component annotation is what tells Spring to manage this class as a bean.
 @Component
@@ -23,10 +27,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsServiceImpl userDetailsService;
+    private final TokenRevocationList revocationList;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsServiceImpl userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsServiceImpl userDetailsService,
+                                   TokenRevocationList revocationList) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.revocationList = revocationList;
     }
 
     @Override
@@ -42,17 +49,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         boolean protectedDiagnosticRequest = request.getRequestURI().equals("/api/ai/chat")
                 || request.getRequestURI().equals("/api/submissions/mine");
-        boolean validToken = token != null && jwtUtil.validateToken(token);
+        // Parsed and verified once; the claims carry everything needed below
+        Optional<Claims> claims = token == null ? Optional.empty() : jwtUtil.parseVerified(token);
+        // In-memory check; revoked tokens are treated like any other invalid token
+        claims = claims.filter(verified -> !revocationList.isRevoked(verified));
         if (protectedDiagnosticRequest) {
-            logger.info("JWT check for {}: bearerPresent={}, tokenValid={}", request.getRequestURI(), token != null, validToken);
+            logger.info("JWT check for {}: bearerPresent={}, tokenValid={}", request.getRequestURI(), token != null, claims.isPresent());
         }
 
-        if (validToken && SecurityContextHolder.getContext().getAuthentication() == null) {
-            String email = jwtUtil.getUsernameFromToken(token);
-            var userDetails = userDetailsService.loadUserByUsername(email);
+        if (claims.isPresent() && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String email = claims.get().getSubject();
+            String role = claims.get().get("role", String.class);
+            List<? extends GrantedAuthority> authorities = role != null
+                    ? List.of(new SimpleGrantedAuthority(role))
+                    // Tokens issued without a role claim still fall back to the users table
+                    : List.copyOf(userDetailsService.loadUserByUsername(email).getAuthorities());
 
             UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                    userDetails, null, userDetails.getAuthorities()
+                    email, null, authorities
             );
             auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(auth);
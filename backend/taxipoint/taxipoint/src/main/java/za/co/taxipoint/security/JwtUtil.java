@@ -1,48 +1,121 @@
 // za.co.taxipoint.security.JwtUtil
 package za.co.taxipoint.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
 
     private final Key key;
     private final long jwtExpirationMs;
-    
+    // Immutable and thread-safe, so one instance serves every request
+    private final JwtParser parser;
+    // Recently verified tokens keyed by their signature segment
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    private record VerifiedToken(String token, Claims claims) {
+    }
 
     public JwtUtil(@Value("${jwt.secret}") String secret,
-                   @Value("${jwt.expiration_ms:3600000}") long jwtExpirationMs) {
+                   @Value("${jwt.expiration-ms:900000}") long jwtExpirationMs,
+                   @Value("${jwt.cache.max-size:10000}") long cacheMaxSize,
+                   @Value("${jwt.cache.max-ttl-seconds:300}") long cacheMaxTtlSeconds) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.jwtExpirationMs = jwtExpirationMs;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        long maxTtlNanos = Duration.ofSeconds(cacheMaxTtlSeconds).toNanos();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String signature, VerifiedToken verified, long currentTime) {
+                        // Never serve a token from the cache past its own expiry
+                        Date expiration = verified.claims().getExpiration();
+                        if (expiration == null) {
+                            return maxTtlNanos;
+                        }
+                        long untilExpiry = Duration.ofMillis(expiration.getTime() - System.currentTimeMillis()).toNanos();
+                        return Math.max(0, Math.min(maxTtlNanos, untilExpiry));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String signature, VerifiedToken verified, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String signature, VerifiedToken verified, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     public String generateToken(String username, String role) {
         return Jwts.builder()
                 .setSubject(username)                       // we store email as subject
                 .claim("role", role)
+                .setId(UUID.randomUUID().toString())         // lets a single token be revoked
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public boolean validateToken(String token) {
+    public long getExpirationMs() {
+        return jwtExpirationMs;
+    }
+
+    /**
+     * Verifies the token once and returns its claims, or empty when it is
+     * malformed, badly signed or expired. Tokens seen recently are answered
+     * from the cache without recomputing the HMAC.
+     */
+    public Optional<Claims> parseVerified(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int lastDot = token.lastIndexOf('.');
+        if (lastDot < 0 || lastDot == token.length() - 1) {
+            return Optional.empty();
+        }
+        String signature = token.substring(lastDot + 1);
+
+        VerifiedToken cached = verifiedTokens.getIfPresent(signature);
+        // The whole token must match, not just the signature segment
+        if (cached != null && cached.token().equals(token)) {
+            return Optional.of(cached.claims());
+        }
+
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            verifiedTokens.put(signature, new VerifiedToken(token, claims));
+            return Optional.of(claims);
         } catch (JwtException | IllegalArgumentException ex) {
-            return false;
+            return Optional.empty();
         }
     }
 
+    public boolean validateToken(String token) {
+        return parseVerified(token).isPresent();
+    }
+
     public Claims getClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public String getUsernameFromToken(String token) {
@@ -0,0 +1,64 @@
+package za.co.taxipoint.security;
+
+import io.github.bucket4j.ConsumptionProbe;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import za.co.taxipoint.config.RateLimitProperties;
+import za.co.taxipoint.service.RateLimitingService;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the configured per-route limits before a request reaches security
+ * or a controller. Requests matching no policy pass straight through.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitProperties properties;
+    private final RateLimitingService rateLimitingService;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimitFilter(RateLimitProperties properties, RateLimitingService rateLimitingService) {
+        this.properties = properties;
+        this.rateLimitingService = rateLimitingService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Map.Entry<String, RateLimitProperties.Policy> entry : properties.getPolicies().entrySet()) {
+            RateLimitProperties.Policy policy = entry.getValue();
+            if (!policy.getMethod().equalsIgnoreCase(request.getMethod()) || !pathMatcher.match(policy.getPath(), path)) {
+                continue;
+            }
+
+            ConsumptionProbe probe = rateLimitingService.tryConsume(entry.getKey(), policy, request.getRemoteAddr());
+            response.setHeader("X-RateLimit-Remaining", String.valueOf(probe.getRemainingTokens()));
+            if (!probe.isConsumed()) {
+                long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill()) + 1);
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+                response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+                response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+                response.getWriter().write(policy.getMessage());
+                return;
+            }
+            break;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -1,28 +1,53 @@
 package za.co.taxipoint.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     // By injecting the JwtAuthenticationFilter, we tell Spring to provide its bean
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter, RateLimitFilter rateLimitFilter) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
+    /**
+     * New hashes are written as {id}hash with the configured algorithm and
+     * cost; existing hashes keep verifying and are re-encoded on the next
+     * successful login (see UserService.loginUser), so changing either
+     * setting never forces a password reset.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${security.password.encoding:bcrypt}") String encodingId,
+            @Value("${security.password.bcrypt-strength:10}") int bcryptStrength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        // Needs BouncyCastle at runtime (bcprov-jdk18on, declared in pom.xml)
+        encoders.put("argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(encodingId, encoders);
+        // Hashes stored before the {id} prefix was introduced are plain BCrypt
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
     }
 
     @Bean
@@ -46,18 +71,28 @@ public class SecurityConfig {
                         // 1. PUBLIC: Anyone can use these
                         .requestMatchers(org.springframework.http.HttpMethod.POST, "/api/users/register").permitAll()
                         .requestMatchers(org.springframework.http.HttpMethod.POST, "/api/users/login").permitAll()
+                        .requestMatchers(org.springframework.http.HttpMethod.POST, "/api/users/refresh").permitAll()
+                        .requestMatchers(org.springframework.http.HttpMethod.POST, "/api/users/logout").permitAll()
                         .requestMatchers(org.springframework.http.HttpMethod.POST, "/api/users/forgot-password").permitAll()
                         .requestMatchers(org.springframework.http.HttpMethod.POST, "/api/users/reset-password").permitAll()
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/users/reset-password/validate").permitAll()
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/health").permitAll()
+                        .requestMatchers(org.springframework.http.HttpMethod.GET, "/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority("ROLE_ADMIN")
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/taxi-ranks").permitAll()
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/taxi-ranks/**").permitAll()
+                        .requestMatchers(org.springframework.http.HttpMethod.POST, "/api/taxi-ranks/*/fares").permitAll()
+                        .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/fares").permitAll()
+                        .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/tiles/**").permitAll()
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/incidents").permitAll()
                         .requestMatchers(org.springframework.http.HttpMethod.POST, "/api/ai/chat").authenticated()
                         .requestMatchers(org.springframework.http.HttpMethod.PUT, "/api/incidents/*/resolved").hasAuthority("ROLE_ADMIN")
                         .requestMatchers(org.springframework.http.HttpMethod.POST, "/api/submissions").authenticated()
                         .requestMatchers(org.springframework.http.HttpMethod.POST, "/api/submissions/*/vote").authenticated()
+                        .requestMatchers(org.springframework.http.HttpMethod.POST, "/api/submissions/votes").authenticated()
+                        .requestMatchers(org.springframework.http.HttpMethod.POST, "/api/submissions/reviews").hasAuthority("ROLE_ADMIN")
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/submissions/pending").hasAuthority("ROLE_ADMIN")
+                        .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/submissions/queue").hasAuthority("ROLE_ADMIN")
                         .requestMatchers(org.springframework.http.HttpMethod.PUT, "/api/submissions/*").hasAuthority("ROLE_ADMIN")
                         
                         // 2. ADMIN ONLY: Listing all users
@@ -68,6 +103,8 @@ public class SecurityConfig {
                 );
         
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        // Limited requests are turned away before any token parsing or password hashing
+        http.addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -84,7 +121,7 @@ public class SecurityConfig {
         
         configuration.setAllowedMethods(java.util.List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(java.util.List.of("*"));
-        configuration.setExposedHeaders(java.util.List.of("Authorization"));
+        configuration.setExposedHeaders(java.util.List.of("Authorization", "X-Next-Cursor", "X-Total-Count", "ETag", "Retry-After"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
         
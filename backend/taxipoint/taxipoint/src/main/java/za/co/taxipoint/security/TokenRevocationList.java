@@ -0,0 +1,168 @@
+package za.co.taxipoint.security;
+
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import za.co.taxipoint.model.RevokedToken;
+import za.co.taxipoint.repository.RevokedTokenRepository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Access tokens that must stop working before they expire. Entries live in
+ * the revoked_tokens table and in memory; a Bloom filter in front of the
+ * in-memory set answers the common "not revoked" case in O(1) without
+ * touching the map or the database. Each instance reloads the table on a
+ * schedule so revocations made elsewhere take effect within that interval.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    static final String TOKEN_PREFIX = "jti:";
+    static final String USER_PREFIX = "sub:";
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private record Entry(long revokedAtMillis, long expiresAtMillis) {
+    }
+
+    private final RevokedTokenRepository repository;
+    private final long accessTokenTtlMs;
+    private final int expectedEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+
+    public TokenRevocationList(RevokedTokenRepository repository,
+                               JwtUtil jwtUtil,
+                               @Value("${auth.revocation.expected-entries:10000}") int expectedEntries) {
+        this.repository = repository;
+        this.accessTokenTtlMs = jwtUtil.getExpirationMs();
+        this.expectedEntries = expectedEntries;
+        this.filter = new BloomFilter(expectedEntries, FALSE_POSITIVE_RATE);
+    }
+
+    @PostConstruct
+    void load() {
+        try {
+            reload();
+        } catch (Exception e) {
+            // An empty list only lets already-revoked tokens live until the next reload
+            logger.warn("Could not load revoked tokens: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Revokes a single access token, e.g. on logout.
+     */
+    @Transactional
+    public void revokeToken(String tokenId, Date expiresAt) {
+        if (tokenId == null) {
+            return;
+        }
+        long expiry = expiresAt != null ? expiresAt.getTime() : System.currentTimeMillis() + accessTokenTtlMs;
+        add(TOKEN_PREFIX + tokenId, System.currentTimeMillis(), expiry);
+    }
+
+    /**
+     * Revokes every access token issued to the user up to now. Tokens issued
+     * afterwards are unaffected, so a fresh login works straight away.
+     */
+    @Transactional
+    public void revokeAllForUser(String email) {
+        long now = System.currentTimeMillis();
+        add(USER_PREFIX + email, now, now + accessTokenTtlMs);
+    }
+
+    public boolean isRevoked(Claims claims) {
+        BloomFilter current = filter;
+
+        String tokenId = claims.getId();
+        if (tokenId != null && current.mightContain(TOKEN_PREFIX + tokenId)
+                && entries.containsKey(TOKEN_PREFIX + tokenId)) {
+            return true;
+        }
+
+        String userKey = USER_PREFIX + claims.getSubject();
+        if (current.mightContain(userKey)) {
+            Entry entry = entries.get(userKey);
+            // iat only has second precision, so a token from the same second as the cutoff counts as revoked
+            Date issuedAt = claims.getIssuedAt();
+            return entry != null && (issuedAt == null || issuedAt.getTime() <= entry.revokedAtMillis());
+        }
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocation.reload-interval-ms:30000}",
+            initialDelayString = "${auth.revocation.reload-interval-ms:30000}")
+    public void reload() {
+        long now = System.currentTimeMillis();
+        Map<String, Entry> loaded = new ConcurrentHashMap<>();
+        repository.findByExpiresAtAfter(toLocal(now)).forEach(row -> loaded.put(row.getTokenKey(),
+                new Entry(toMillis(row.getRevokedAt()), toMillis(row.getExpiresAt()))));
+        synchronized (this) {
+            // Keep recent local additions that may not be visible in this snapshot yet
+            entries.forEach((key, entry) -> {
+                if (entry.expiresAtMillis() > now) {
+                    loaded.merge(key, entry, (a, b) -> a.revokedAtMillis() >= b.revokedAtMillis() ? a : b);
+                }
+            });
+            entries.clear();
+            entries.putAll(loaded);
+            rebuildFilter();
+        }
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${auth.revocation.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        repository.deleteExpired(LocalDateTime.now());
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void add(String key, long revokedAtMillis, long expiresAtMillis) {
+        RevokedToken row = new RevokedToken();
+        row.setTokenKey(key);
+        row.setRevokedAt(toLocal(revokedAtMillis));
+        row.setExpiresAt(toLocal(expiresAtMillis));
+        repository.save(row);
+
+        synchronized (this) {
+            entries.put(key, new Entry(revokedAtMillis, expiresAtMillis));
+            if (entries.size() > expectedEntries) {
+                // Past its sizing the filter's false-positive rate climbs; rebuild larger
+                rebuildFilter();
+            } else {
+                filter.put(key);
+            }
+        }
+    }
+
+    // Callers hold the monitor so no put can land in a filter that is being replaced
+    private void rebuildFilter() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, entries.size() * 2), FALSE_POSITIVE_RATE);
+        entries.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+    }
+
+    private static LocalDateTime toLocal(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
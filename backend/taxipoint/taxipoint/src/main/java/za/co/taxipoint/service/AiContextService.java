@@ -8,7 +8,7 @@ import za.co.taxipoint.model.TaxiRank;
 import za.co.taxipoint.repository.IncidentRepository;
 import za.co.taxipoint.repository.TaxiRankRepository;
 
-import java.util.ArrayList;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -34,7 +34,7 @@ public class AiContextService {
 
     public String buildContext(String question) {
         List<TaxiRank> ranks = findRelevantRanks(question);
-        List<Incident> incidents = incidentRepository.findByResolvedFalseOrderByCreatedAtDesc()
+        List<Incident> incidents = incidentRepository.findActive(LocalDateTime.now())
                 .stream()
                 .limit(MAX_INCIDENTS)
                 .toList();
@@ -58,15 +58,12 @@ public class AiContextService {
             return taxiRankRepository.findActive(PageRequest.of(0, MAX_RANKS)).getContent();
         }
 
-        List<TaxiRank> matches = new ArrayList<>();
-        for (String term : terms) {
-            taxiRankRepository.searchByNameOrAddressOrRoutesOrDistrict(term).forEach(rank -> {
-                if (!matches.contains(rank) && matches.size() < MAX_RANKS) {
-                    matches.add(rank);
-                }
-            });
-            if (matches.size() >= MAX_RANKS) break;
-        }
+        // One indexed query for all terms; prefix matching tolerates plurals and partial names.
+        String tsQuery = terms.stream()
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" | "));
+        List<TaxiRank> matches = taxiRankRepository.searchAnyTerm(tsQuery, MAX_RANKS);
+
         // For broad questions such as rank counts, include a representative set of
         // active records even when the extracted words do not match a location.
         if (matches.isEmpty()) {
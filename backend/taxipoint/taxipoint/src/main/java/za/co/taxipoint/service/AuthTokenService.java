@@ -0,0 +1,143 @@
+package za.co.taxipoint.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import za.co.taxipoint.dto.AuthTokensDTO;
+import za.co.taxipoint.model.RefreshToken;
+import za.co.taxipoint.model.User;
+import za.co.taxipoint.repository.RefreshTokenRepository;
+import za.co.taxipoint.repository.UserRepository;
+import za.co.taxipoint.security.JwtUtil;
+import za.co.taxipoint.security.TokenRevocationList;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues access/refresh token pairs. Access tokens are short-lived JWTs that
+ * are checked without a database round-trip; refresh tokens are opaque,
+ * single use and rotated on every exchange. Presenting a refresh token that
+ * was already used revokes its whole family, since either the client or an
+ * attacker is holding a stolen copy.
+ */
+@Service
+public class AuthTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthTokenService.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationList revocationList;
+    private final long refreshTtlDays;
+    private final SecureRandom random = new SecureRandom();
+
+    public AuthTokenService(RefreshTokenRepository refreshTokenRepository,
+                            UserRepository userRepository,
+                            JwtUtil jwtUtil,
+                            TokenRevocationList revocationList,
+                            @Value("${jwt.refresh.expiration-days:30}") long refreshTtlDays) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.jwtUtil = jwtUtil;
+        this.revocationList = revocationList;
+        this.refreshTtlDays = refreshTtlDays;
+    }
+
+    @Transactional
+    public AuthTokensDTO issue(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchanges a refresh token for a new pair. The old token is consumed
+     * with a conditional update so two concurrent exchanges cannot both win.
+     */
+    @Transactional(noRollbackFor = IllegalArgumentException.class)
+    public AuthTokensDTO refresh(String rawRefreshToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(rawRefreshToken))
+                .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
+
+        LocalDateTime now = LocalDateTime.now();
+        if (current.getRevokedAt() != null || refreshTokenRepository.revokeIfActive(current.getId(), now) == 0) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            logger.warn("Refresh token reuse detected for {}; session family revoked", current.getEmail());
+            throw new IllegalArgumentException("Refresh token has already been used");
+        }
+        if (current.getExpiresAt().isBefore(now)) {
+            throw new IllegalArgumentException("Refresh token has expired");
+        }
+
+        // One lookup per refresh rather than per request picks up role changes and deleted accounts
+        User user = userRepository.findByEmail(current.getEmail())
+                .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
+        return issue(user, current.getFamilyId());
+    }
+
+    /**
+     * Ends one session: the presented access token stops working at once and
+     * its refresh token family can no longer be exchanged.
+     */
+    @Transactional
+    public void logout(String accessToken, String rawRefreshToken) {
+        if (accessToken != null) {
+            jwtUtil.parseVerified(accessToken)
+                    .ifPresent(claims -> revocationList.revokeToken(claims.getId(), claims.getExpiration()));
+        }
+        if (rawRefreshToken != null) {
+            refreshTokenRepository.findByTokenHash(hash(rawRefreshToken))
+                    .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * Signs the user out everywhere, e.g. after a password reset.
+     */
+    @Transactional
+    public void revokeAllForUser(String email) {
+        refreshTokenRepository.revokeAllForEmail(email, LocalDateTime.now());
+        revocationList.revokeAllForUser(email);
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${auth.refresh.purge-interval-ms:3600000}")
+    public void purgeExpiredRefreshTokens() {
+        refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private AuthTokensDTO issue(User user, String familyId) {
+        byte[] secret = new byte[32];
+        random.nextBytes(secret);
+        String rawRefreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(rawRefreshToken));
+        refreshToken.setEmail(user.getEmail());
+        refreshToken.setFamilyId(familyId);
+        refreshToken.setExpiresAt(LocalDateTime.now().plusDays(refreshTtlDays));
+        refreshTokenRepository.save(refreshToken);
+
+        String accessToken = jwtUtil.generateToken(user.getEmail(), user.getRole());
+        return new AuthTokensDTO(accessToken, rawRefreshToken, jwtUtil.getExpirationMs() / 1000);
+    }
+
+    // Refresh tokens are 256 random bits, so an unsalted fast hash is enough to keep the table useless if leaked
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package za.co.taxipoint.service;
+
+import za.co.taxipoint.dto.CorrectionReviewResultDTO;
+
+import java.util.List;
+
+/**
+ * Thrown when an all-or-nothing bulk review cannot apply every item. Rolls
+ * the batch back and carries the per-item report, which maps to 409.
+ */
+public class BulkReviewRejectedException extends RuntimeException {
+
+    private final List<CorrectionReviewResultDTO> results;
+
+    public BulkReviewRejectedException(List<CorrectionReviewResultDTO> results) {
+        super("Some submissions could not be reviewed; nothing was applied.");
+        this.results = results;
+    }
+
+    public List<CorrectionReviewResultDTO> getResults() {
+        return results;
+    }
+}
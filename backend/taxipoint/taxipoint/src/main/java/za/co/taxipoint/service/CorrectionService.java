@@ -5,12 +5,25 @@ import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import za.co.taxipoint.dto.CorrectionBulkReviewItem;
+import za.co.taxipoint.dto.CorrectionBulkReviewRequest;
 import za.co.taxipoint.dto.CorrectionReviewRequest;
+import za.co.taxipoint.dto.CorrectionReviewResultDTO;
 import za.co.taxipoint.dto.CorrectionSubmissionDTO;
 import za.co.taxipoint.dto.CorrectionSubmissionRequest;
+import za.co.taxipoint.dto.CorrectionVoteBatchItem;
+import za.co.taxipoint.dto.CorrectionVoteBatchRequest;
 import za.co.taxipoint.dto.CorrectionVoteRequest;
+import za.co.taxipoint.dto.CorrectionVoteResultDTO;
 import za.co.taxipoint.model.CorrectionStatus;
 import za.co.taxipoint.model.CorrectionSubmission;
 import za.co.taxipoint.model.CorrectionType;
@@ -20,12 +33,20 @@ import za.co.taxipoint.model.ReviewDecision;
 import za.co.taxipoint.model.TaxiRank;
 import za.co.taxipoint.model.User;
 import za.co.taxipoint.repository.CorrectionSubmissionRepository;
+import za.co.taxipoint.repository.CorrectionSubmissionSpecifications;
+import za.co.taxipoint.repository.CorrectionVoteBatchRepository;
+import za.co.taxipoint.repository.CorrectionVoteBatchRepository.VoteChange;
 import za.co.taxipoint.repository.CorrectionVoteRepository;
 import za.co.taxipoint.repository.TaxiRankRepository;
 import za.co.taxipoint.repository.UserRepository;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -41,8 +62,23 @@ public class CorrectionService {
     private final CorrectionVoteRepository voteRepository;
     private final UserRepository userRepository;
     private final TaxiRankRepository taxiRankRepository;
+    private final TaxiRankService taxiRankService;
+    private final CorrectionVoteBatchRepository voteBatchRepository;
+
+    // Queued offline votes older than this can no longer be recognised as replays
+    @Value("${corrections.vote-receipts.retention-days:7}")
+    private long voteReceiptRetentionDays;
+
+    // A MISSING_RANK within this distance whose name is at least this trigram-similar is an existing rank
+    @Value("${corrections.missing-rank.duplicate-radius-meters:150}")
+    private double duplicateRadiusMeters;
+
+    @Value("${corrections.missing-rank.name-similarity:0.5}")
+    private double duplicateNameSimilarity;
     private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
 
+    private static final List<CorrectionStatus> OPEN_STATUSES = List.of(CorrectionStatus.PENDING, CorrectionStatus.FLAGGED);
+
     public CorrectionSubmissionDTO submitCorrection(String email, CorrectionSubmissionRequest request) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
@@ -61,19 +97,21 @@ public class CorrectionService {
         return toDTO(submissionRepository.save(submission));
     }
 
+    /**
+     * Records or changes a vote in a fixed number of statements. The counters
+     * are moved by the difference between the voter's old and new vote, so
+     * the counts read back in the same transaction are exact when the
+     * thresholds are checked. The submission row is locked before the vote
+     * row, the same order as {@link #voteBatch}, so the two cannot deadlock.
+     */
     public CorrectionSubmissionDTO vote(UUID submissionId, String email, CorrectionVoteRequest request) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-        CorrectionSubmission submission = submissionRepository.findById(submissionId)
-                .orElseThrow(() -> new IllegalArgumentException("Correction submission not found"));
-
-        if (submission.getStatus() == CorrectionStatus.APPROVED || submission.getStatus() == CorrectionStatus.REJECTED) {
-            throw new IllegalStateException("This correction has already been finalized.");
-        }
-
-        CorrectionVote vote = voteRepository.findBySubmissionIdAndVoterUserId(submissionId, user.getId())
+        voteBatchRepository.lockSubmissions(java.util.Set.of(submissionId));
+        CorrectionVote vote = voteRepository.findForUpdate(submissionId, user.getId())
                 .orElseGet(CorrectionVote::new);
+        CorrectionVoteType previous = vote.getVoteType();
 
         vote.setSubmissionId(submissionId);
         vote.setVoterUserId(user.getId());
@@ -81,10 +119,99 @@ public class CorrectionService {
         vote.setVoteType(request.getVoteType());
         voteRepository.save(vote);
 
-        refreshVoteCounts(submission);
+        VoteChange change = new VoteChange(submissionId, previous, request.getVoteType());
+        int updated = submissionRepository.addVoteCounts(
+                submissionId,
+                change.confirmationDelta(),
+                change.rejectionDelta(),
+                java.time.LocalDateTime.now(),
+                OPEN_STATUSES
+        );
+        if (updated == 0) {
+            // Rolls back the vote written above
+            if (!submissionRepository.existsById(submissionId)) {
+                throw new IllegalArgumentException("Correction submission not found");
+            }
+            throw new IllegalStateException("This correction has already been finalized.");
+        }
+
+        CorrectionSubmission submission = submissionRepository.findById(submissionId)
+                .orElseThrow(() -> new IllegalArgumentException("Correction submission not found"));
+        // Only a status change dirties the entity; plain votes write nothing more
         applyAutomaticTransitions(submission);
+        return toDTO(submission);
+    }
 
-        return toDTO(submissionRepository.save(submission));
+    /**
+     * Applies many votes by one voter in a handful of set-based statements.
+     * Items whose idempotency key was seen before are skipped. Of several
+     * items for one submission the last one wins. Counters for all touched
+     * submissions move in one JDBC batch, and the auto-approve/flag rules run
+     * once per submission after every vote is in. The touched submissions
+     * are locked in id order before the voter's previous votes are read, so
+     * concurrent batches serialize instead of counting the same vote twice.
+     */
+    public List<CorrectionVoteResultDTO> voteBatch(String email, CorrectionVoteBatchRequest request) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        List<CorrectionVoteBatchItem> items = request.getVotes();
+        java.time.LocalDateTime now = java.time.LocalDateTime.now();
+
+        boolean[] fresh = voteBatchRepository.recordReceipts(
+                user.getId(), items.stream().map(CorrectionVoteBatchItem::getIdempotencyKey).toList(), now);
+
+        Map<UUID, CorrectionVoteType> finalVotes = new java.util.TreeMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (fresh[i]) {
+                finalVotes.put(items.get(i).getSubmissionId(), items.get(i).getVoteType());
+            }
+        }
+
+        java.util.Set<UUID> applied = new java.util.HashSet<>();
+        if (!finalVotes.isEmpty()) {
+            voteBatchRepository.lockSubmissions(finalVotes.keySet());
+            Map<UUID, CorrectionVoteType> previous = voteBatchRepository.findVotes(user.getId(), finalVotes.keySet());
+            List<VoteChange> changes = finalVotes.entrySet().stream()
+                    .map(entry -> new VoteChange(entry.getKey(), previous.get(entry.getKey()), entry.getValue()))
+                    .toList();
+
+            applied.addAll(voteBatchRepository.applyCounts(changes, now));
+            voteBatchRepository.upsertVotes(user.getId(), user.getEmail(),
+                    changes.stream().filter(change -> applied.contains(change.submissionId())).toList(), now);
+        }
+
+        java.util.Set<UUID> referenced = new java.util.HashSet<>();
+        items.forEach(item -> referenced.add(item.getSubmissionId()));
+        Map<UUID, CorrectionSubmission> submissions = new HashMap<>();
+        submissionRepository.findAllById(referenced).forEach(submission -> submissions.put(submission.getId(), submission));
+        // Counters were moved behind JPA's back; these rows were loaded afterwards, so they are current
+        applied.forEach(id -> applyAutomaticTransitions(submissions.get(id)));
+
+        List<CorrectionVoteResultDTO> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            CorrectionVoteBatchItem item = items.get(i);
+            CorrectionSubmission submission = submissions.get(item.getSubmissionId());
+            CorrectionVoteResultDTO.Outcome outcome;
+            if (!fresh[i]) {
+                outcome = CorrectionVoteResultDTO.Outcome.DUPLICATE;
+            } else if (submission == null) {
+                outcome = CorrectionVoteResultDTO.Outcome.NOT_FOUND;
+            } else if (applied.contains(item.getSubmissionId())) {
+                outcome = CorrectionVoteResultDTO.Outcome.APPLIED;
+            } else {
+                outcome = CorrectionVoteResultDTO.Outcome.FINALIZED;
+            }
+            boolean withSubmission = submission != null && (outcome == CorrectionVoteResultDTO.Outcome.APPLIED
+                    || outcome == CorrectionVoteResultDTO.Outcome.DUPLICATE);
+            results.add(new CorrectionVoteResultDTO(item.getIdempotencyKey(), item.getSubmissionId(), outcome,
+                    withSubmission ? toDTO(submission) : null));
+        }
+        return results;
+    }
+
+    @Scheduled(fixedDelayString = "${corrections.vote-receipts.purge-interval-ms:3600000}")
+    public void purgeVoteReceipts() {
+        voteBatchRepository.deleteReceiptsBefore(java.time.LocalDateTime.now().minusDays(voteReceiptRetentionDays));
     }
 
     public List<CorrectionSubmissionDTO> getPendingSubmissions() {
@@ -94,6 +221,101 @@ public class CorrectionService {
                 .toList();
     }
 
+    /**
+     * One page of open submissions for moderators. Pages are chained with a
+     * keyset cursor, so deep pages cost the same as the first. {@link QueueSort#PRIORITY}
+     * puts flagged and near-threshold submissions first.
+     */
+    public Slice<CorrectionSubmission> getModerationQueue(QueueFilter filter, QueueSort sort, QueueCursor after, int limit) {
+        Specification<CorrectionSubmission> spec = Specification.where(
+                CorrectionSubmissionSpecifications.statusIn(filter.status() != null ? List.of(filter.status()) : OPEN_STATUSES));
+        if (filter.type() != null) {
+            spec = spec.and(CorrectionSubmissionSpecifications.ofType(filter.type()));
+        }
+        if (filter.rankId() != null) {
+            spec = spec.and(CorrectionSubmissionSpecifications.forRank(filter.rankId()));
+        }
+        if (filter.district() != null && !filter.district().isBlank()) {
+            spec = spec.and(CorrectionSubmissionSpecifications.inDistrict(filter.district()));
+        }
+        if (filter.minRejectionRatio() != null) {
+            spec = spec.and(CorrectionSubmissionSpecifications.rejectionRatioAtLeast(filter.minRejectionRatio()));
+        }
+        if (filter.maxRejectionRatio() != null) {
+            spec = spec.and(CorrectionSubmissionSpecifications.rejectionRatioAtMost(filter.maxRejectionRatio()));
+        }
+
+        Sort order = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+        if (sort == QueueSort.PRIORITY) {
+            order = Sort.by(Sort.Order.desc("reviewPriority")).and(order);
+        }
+        if (after != null) {
+            spec = spec.and(sort == QueueSort.PRIORITY
+                    ? CorrectionSubmissionSpecifications.beforeByPriority(after.priority(), after.createdAt(), after.id())
+                    : CorrectionSubmissionSpecifications.before(after.createdAt(), after.id()));
+        }
+
+        Sort finalOrder = order;
+        List<CorrectionSubmission> rows = submissionRepository.findBy(spec, query -> query
+                .sortBy(finalOrder)
+                .limit(limit + 1)
+                .all());
+        boolean hasNext = rows.size() > limit;
+        return new SliceImpl<>(hasNext ? rows.subList(0, limit) : rows, PageRequest.of(0, limit), hasNext);
+    }
+
+    public enum QueueSort {
+        NEWEST,
+        PRIORITY
+    }
+
+    /**
+     * Optional moderation queue filters; null means unfiltered. Rejection ratios
+     * are the share of rejections among votes cast, from 0 to 1.
+     */
+    public record QueueFilter(CorrectionStatus status, CorrectionType type, UUID rankId, String district,
+                              Double minRejectionRatio, Double maxRejectionRatio) {
+
+        public QueueFilter {
+            if (status != null && !OPEN_STATUSES.contains(status)) {
+                throw new IllegalArgumentException("The moderation queue only holds PENDING and FLAGGED submissions");
+            }
+            if (outOfRange(minRejectionRatio) || outOfRange(maxRejectionRatio)) {
+                throw new IllegalArgumentException("Rejection ratios must be between 0 and 1");
+            }
+        }
+
+        private static boolean outOfRange(Double ratio) {
+            return ratio != null && (ratio < 0 || ratio > 1);
+        }
+    }
+
+    /**
+     * Position after the last submission of a page. The priority is carried
+     * for the priority sort and ignored otherwise. Serialized as an opaque
+     * URL-safe token for the X-Next-Cursor header.
+     */
+    public record QueueCursor(int priority, LocalDateTime createdAt, UUID id) {
+
+        public static QueueCursor of(CorrectionSubmission submission) {
+            return new QueueCursor(submission.getReviewPriority(), submission.getCreatedAt(), submission.getId());
+        }
+
+        public String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((priority + "|" + createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static QueueCursor decode(String token) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+                return new QueueCursor(Integer.parseInt(parts[0]), LocalDateTime.parse(parts[1]), UUID.fromString(parts[2]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid moderation queue cursor", e);
+            }
+        }
+    }
+
     public List<CorrectionSubmissionDTO> getMySubmissions(String email) {
         return submissionRepository.findBySubmittedByEmailOrderByCreatedAtDesc(email)
                 .stream()
@@ -109,7 +331,8 @@ public class CorrectionService {
         User admin = userRepository.findByEmail(adminEmail)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-        CorrectionSubmission submission = submissionRepository.findById(id)
+        // Locked so a concurrent vote cannot slip a counter change under the full-row save below
+        CorrectionSubmission submission = submissionRepository.findLockedById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Correction submission not found"));
 
         if (submission.getStatus() == CorrectionStatus.APPROVED || submission.getStatus() == CorrectionStatus.REJECTED) {
@@ -132,12 +355,99 @@ public class CorrectionService {
         return toDTO(submissionRepository.save(submission));
     }
 
-    private void refreshVoteCounts(CorrectionSubmission submission) {
-        long confirmations = voteRepository.countBySubmissionIdAndVoteType(submission.getId(), CorrectionVoteType.CONFIRM);
-        long rejections = voteRepository.countBySubmissionIdAndVoteType(submission.getId(), CorrectionVoteType.REJECT);
+    /**
+     * Reviews many submissions in one transaction. Approved patches are grouped
+     * by rank and applied oldest first, so each rank is loaded and saved once
+     * and later corrections win as they would one at a time. Status changes
+     * are left to dirty checking and go out as one batch of UPDATEs at commit.
+     * In {@link CorrectionBulkReviewRequest.Mode#ALL_OR_NOTHING} mode a missing
+     * or finalized submission cancels the batch with {@link BulkReviewRejectedException}.
+     */
+    public List<CorrectionReviewResultDTO> reviewBatch(String adminEmail, CorrectionBulkReviewRequest request) {
+        User admin = userRepository.findByEmail(adminEmail)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+        Map<UUID, CorrectionBulkReviewItem> items = new LinkedHashMap<>();
+        for (CorrectionBulkReviewItem item : request.getReviews()) {
+            if (items.put(item.getSubmissionId(), item) != null) {
+                throw new IllegalArgumentException("Submission " + item.getSubmissionId() + " is listed more than once");
+            }
+        }
+
+        Map<UUID, CorrectionSubmission> submissions = new HashMap<>();
+        submissionRepository.findAllLockedByIdIn(items.keySet())
+                .forEach(submission -> submissions.put(submission.getId(), submission));
+
+        Map<UUID, CorrectionReviewResultDTO.Outcome> refused = new HashMap<>();
+        List<CorrectionSubmission> approved = new ArrayList<>();
+        items.forEach((id, item) -> {
+            CorrectionSubmission submission = submissions.get(id);
+            if (submission == null) {
+                refused.put(id, CorrectionReviewResultDTO.Outcome.NOT_FOUND);
+            } else if (!OPEN_STATUSES.contains(submission.getStatus())) {
+                refused.put(id, CorrectionReviewResultDTO.Outcome.FINALIZED);
+            } else if (item.getDecision() == ReviewDecision.APPROVE) {
+                approved.add(submission);
+            }
+        });
+
+        if (!refused.isEmpty() && request.getMode() == CorrectionBulkReviewRequest.Mode.ALL_OR_NOTHING) {
+            throw new BulkReviewRejectedException(items.keySet().stream()
+                    .map(id -> new CorrectionReviewResultDTO(id,
+                            refused.getOrDefault(id, CorrectionReviewResultDTO.Outcome.SKIPPED), null))
+                    .toList());
+        }
+
+        applyCorrections(approved);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<CorrectionReviewResultDTO> results = new ArrayList<>(items.size());
+        items.forEach((id, item) -> {
+            if (refused.containsKey(id)) {
+                results.add(new CorrectionReviewResultDTO(id, refused.get(id), null));
+                return;
+            }
+            CorrectionSubmission submission = submissions.get(id);
+            boolean approve = item.getDecision() == ReviewDecision.APPROVE;
+            submission.setStatus(approve ? CorrectionStatus.APPROVED : CorrectionStatus.REJECTED);
+            submission.setReviewedByUserId(admin.getId());
+            submission.setReviewedByEmail(admin.getEmail());
+            submission.setReviewedAt(now);
+            submission.setReviewNotes(item.getReviewNotes());
+            submission.setAutoApproved(false);
+            results.add(new CorrectionReviewResultDTO(id,
+                    approve ? CorrectionReviewResultDTO.Outcome.APPROVED : CorrectionReviewResultDTO.Outcome.REJECTED,
+                    toDTO(submission)));
+        });
+        return results;
+    }
+
+    private void applyCorrections(List<CorrectionSubmission> approved) {
+        Map<UUID, List<CorrectionSubmission>> byRank = new java.util.TreeMap<>();
+        approved.stream()
+                .sorted(Comparator.comparing(CorrectionSubmission::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(CorrectionSubmission::getId))
+                .forEach(submission -> {
+                    if (submission.getCorrectionType() == CorrectionType.MISSING_RANK) {
+                        createOrUpdateMissingRank(submission);
+                    } else if (submission.getRankId() != null) {
+                        byRank.computeIfAbsent(submission.getRankId(), id -> new ArrayList<>()).add(submission);
+                    }
+                });
+        if (byRank.isEmpty()) {
+            return;
+        }
 
-        submission.setConfirmationsCount((int) confirmations);
-        submission.setRejectionsCount((int) rejections);
+        Map<UUID, TaxiRank> ranks = new HashMap<>();
+        taxiRankRepository.findAllById(byRank.keySet()).forEach(rank -> ranks.put(rank.getId(), rank));
+        byRank.forEach((rankId, corrections) -> {
+            TaxiRank rank = ranks.get(rankId);
+            if (rank == null) {
+                return;
+            }
+            corrections.forEach(correction -> patchRank(rank, correction));
+            taxiRankService.save(rank);
+        });
     }
 
     private void applyAutomaticTransitions(CorrectionSubmission submission) {
@@ -177,9 +487,14 @@ public class CorrectionService {
             return;
         }
 
+        patchRank(rank, submission);
+        taxiRankService.save(rank);
+    }
+
+    private void patchRank(TaxiRank rank, CorrectionSubmission submission) {
         Map<String, Object> details = safeDetails(submission.getDetails());
 
-        switch (type) {
+        switch (submission.getCorrectionType()) {
             case WRONG_FARE -> applyWrongFare(rank, details);
             case MISSING_ROUTE -> applyMissingRoute(rank, details);
             case WRONG_ROUTE_NUMBER, ROUTE_CHANGE -> applyRouteChange(rank, details);
@@ -188,8 +503,6 @@ public class CorrectionService {
                 // No automatic patching for generic corrections.
             }
         }
-
-        taxiRankRepository.save(rank);
     }
 
     private void applyWrongFare(TaxiRank rank, Map<String, Object> details) {
@@ -284,12 +597,17 @@ public class CorrectionService {
             return;
         }
 
-        TaxiRank rank = taxiRankRepository.findAll().stream()
-                .filter(existing -> existing.getName() != null && existing.getName().equalsIgnoreCase(name))
-                .findFirst()
-                .orElseGet(TaxiRank::new);
+        // Same name ignoring case, else a similarly named rank close by; both are index lookups.
+        // A nearby match keeps its established name and position and only takes the submitted details.
+        Optional<TaxiRank> sameName = taxiRankRepository.findByNameIgnoreCase(name);
+        Optional<TaxiRank> nearbyDuplicate = sameName.isPresent() ? Optional.empty()
+                : taxiRankRepository.findSimilarNearby(name, latitude, longitude,
+                        duplicateRadiusMeters, duplicateNameSimilarity);
+        TaxiRank rank = sameName.or(() -> nearbyDuplicate).orElseGet(TaxiRank::new);
 
-        rank.setName(name);
+        if (nearbyDuplicate.isEmpty()) {
+            rank.setName(name);
+        }
         rank.setAddress(address);
         rank.setDistrict(district);
         rank.setDescription(firstNonBlank(resolveString(details, "description"), submission.getDescription()));
@@ -325,11 +643,13 @@ public class CorrectionService {
             rank.setCurrency(currency.trim().toUpperCase());
         }
 
-        Point location = geometryFactory.createPoint(new Coordinate(longitude, latitude));
-        location.setSRID(4326);
-        rank.setLocation(location);
+        if (nearbyDuplicate.isEmpty()) {
+            Point location = geometryFactory.createPoint(new Coordinate(longitude, latitude));
+            location.setSRID(4326);
+            rank.setLocation(location);
+        }
 
-        taxiRankRepository.save(rank);
+        taxiRankService.save(rank);
     }
 
     private Map<String, Object> safeDetails(Map<String, Object> details) {
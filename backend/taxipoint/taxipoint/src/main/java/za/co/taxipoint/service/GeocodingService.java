@@ -1,5 +1,13 @@
 package za.co.taxipoint.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -7,38 +15,142 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
+import za.co.taxipoint.geo.GeoHash;
+import za.co.taxipoint.model.GeocodeCacheEntry;
+import za.co.taxipoint.repository.GeocodeCacheRepository;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Reverse geocoding through Nominatim, fronted by a two-tier cache.
+ * Coordinates are snapped to geohash cells; lookups hit a bounded in-memory
+ * cache first, then the geocode_cache table, and only then the network.
+ * Network calls share one global rate limit to respect Nominatim's usage policy.
+ */
 @Service
 public class GeocodingService {
 
+    private static final Logger logger = LoggerFactory.getLogger(GeocodingService.class);
+
     private static final String NOMINATIM_URL = "https://nominatim.openstreetmap.org/reverse";
+    private static final String NOT_FOUND = "Location not found";
+
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final GeocodeCacheRepository cacheRepository;
+    private final Cache<String, String> memoryCache;
+    private final Bucket nominatimLimiter;
+    private final Duration ttl;
+    private final int precision;
+
+    public GeocodingService(
+            GeocodeCacheRepository cacheRepository,
+            @Value("${geocoding.cache.max-size:10000}") long maxSize,
+            @Value("${geocoding.cache.ttl-days:30}") long ttlDays,
+            @Value("${geocoding.cache.precision:8}") int precision,
+            @Value("${geocoding.nominatim.requests-per-second:1}") int requestsPerSecond
+    ) {
+        this.cacheRepository = cacheRepository;
+        this.ttl = Duration.ofDays(ttlDays);
+        this.precision = precision;
+        this.memoryCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(this.ttl)
+                .build();
+        this.nominatimLimiter = Bucket.builder()
+                .addLimit(Bandwidth.classic(requestsPerSecond, Refill.intervally(requestsPerSecond, Duration.ofSeconds(1))))
+                .build();
+    }
+
+    public String reverseGeocode(double latitude, double longitude) {
+        return resolveAddress(latitude, longitude).orElse(NOT_FOUND);
+    }
 
-public String reverseGeocode(double latitude, double longitude) {
-    try {
-        RestTemplate restTemplate = new RestTemplate();
-        String url = UriComponentsBuilder.fromHttpUrl(NOMINATIM_URL)
-                .queryParam("lat", latitude)
-                .queryParam("lon", longitude)
-                .queryParam("format", "json")
-                .queryParam("zoom", 18)
-                .toUriString();
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("User-Agent", "TaxiPoint/1.0 (contact@taxipoint.com)");
-
-        HttpEntity<String> entity = new HttpEntity<>(headers);
-        ResponseEntity<NominatimResponse> responseEntity = 
-            restTemplate.exchange(url, HttpMethod.GET, entity, NominatimResponse.class);
-
-        NominatimResponse response = responseEntity.getBody();
-        if (response != null && response.getDisplayName() != null) {
-            return response.getDisplayName();
+    /**
+     * Resolves an address, going to Nominatim only when neither cache tier
+     * holds a fresh entry for the coordinate's cell. A cache miss blocks the
+     * calling thread until the rate limiter admits the request, so this is
+     * meant for background workers rather than request threads.
+     */
+    public Optional<String> resolveAddress(double latitude, double longitude) {
+        String cellKey = cellKey(latitude, longitude);
+        Optional<String> cached = findCached(cellKey);
+        if (cached.isPresent()) {
+            return cached;
         }
-    } catch (Exception e) {
-        System.err.println("Geocoding failed for [" + latitude + "," + longitude + "]: " + e.getMessage());
+
+        Optional<String> resolved = fetchFromNominatim(latitude, longitude);
+        resolved.ifPresent(address -> store(cellKey, address));
+        return resolved;
+    }
+
+    /**
+     * Cache-only lookup. Never reaches the network, so it is safe on read paths.
+     */
+    public Optional<String> findCachedAddress(double latitude, double longitude) {
+        return findCached(cellKey(latitude, longitude));
+    }
+
+    public String cellKey(double latitude, double longitude) {
+        return GeoHash.encode(latitude, longitude, precision);
+    }
+
+    private Optional<String> findCached(String cellKey) {
+        String address = memoryCache.getIfPresent(cellKey);
+        if (address != null) {
+            return Optional.of(address);
+        }
+
+        Optional<String> persisted = cacheRepository.findById(cellKey)
+                .filter(entry -> entry.getResolvedAt().isAfter(LocalDateTime.now().minus(ttl)))
+                .map(GeocodeCacheEntry::getFormattedAddress);
+        persisted.ifPresent(value -> memoryCache.put(cellKey, value));
+        return persisted;
+    }
+
+    private void store(String cellKey, String address) {
+        memoryCache.put(cellKey, address);
+        try {
+            GeocodeCacheEntry entry = new GeocodeCacheEntry();
+            entry.setCellKey(cellKey);
+            entry.setFormattedAddress(address);
+            entry.setResolvedAt(LocalDateTime.now());
+            cacheRepository.save(entry);
+        } catch (Exception e) {
+            // The in-memory tier still serves this cell; persisting is best effort.
+            logger.warn("Failed to persist geocode cache entry for cell {}: {}", cellKey, e.getMessage());
+        }
+    }
+
+    private Optional<String> fetchFromNominatim(double latitude, double longitude) {
+        try {
+            nominatimLimiter.asBlocking().consume(1);
+            String url = UriComponentsBuilder.fromHttpUrl(NOMINATIM_URL)
+                    .queryParam("lat", latitude)
+                    .queryParam("lon", longitude)
+                    .queryParam("format", "json")
+                    .queryParam("zoom", 18)
+                    .toUriString();
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.set("User-Agent", "TaxiPoint/1.0 (contact@taxipoint.com)");
+
+            HttpEntity<String> entity = new HttpEntity<>(headers);
+            ResponseEntity<NominatimResponse> responseEntity =
+                    restTemplate.exchange(url, HttpMethod.GET, entity, NominatimResponse.class);
+
+            NominatimResponse response = responseEntity.getBody();
+            if (response != null && response.getDisplayName() != null) {
+                return Optional.of(response.getDisplayName());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.warn("Geocoding failed for [{},{}]: {}", latitude, longitude, e.getMessage());
+        }
+        return Optional.empty();
     }
-    return "Location not found";
-}
 
     // Inner class to map the JSON response from Nominatim
     static class NominatimResponse {
@@ -52,4 +164,4 @@ public String reverseGeocode(double latitude, double longitude) {
             this.display_name = display_name;
         }
     }
-}
\ No newline at end of file
+}
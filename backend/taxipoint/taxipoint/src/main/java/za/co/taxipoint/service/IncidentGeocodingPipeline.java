@@ -0,0 +1,189 @@
+package za.co.taxipoint.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import za.co.taxipoint.event.IncidentChangedEvent;
+import za.co.taxipoint.model.Incident;
+import za.co.taxipoint.repository.IncidentRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves incident addresses off the request path. New incidents are queued
+ * on a bounded queue and drained by virtual-thread workers; Nominatim calls are
+ * throttled globally inside {@link GeocodingService}. Resolved addresses are
+ * written to the incident row and pushed to STOMP subscribers. Failed lookups
+ * are retried by the backfill sweep with exponential backoff until the
+ * attempt limit, after which the incident is left without an address.
+ */
+@Service
+public class IncidentGeocodingPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(IncidentGeocodingPipeline.class);
+
+    public static final String ADDRESS_TOPIC = "/topic/incidents/addresses";
+
+    private final IncidentRepository incidentRepository;
+    private final GeocodingService geocodingService;
+    private final IncidentService incidentService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final LiveUpdatePublisher liveUpdatePublisher;
+    private final BlockingQueue<Long> queue;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final int workerCount;
+    private final int maxAttempts;
+    private final Duration retryBase;
+    private final Duration retryMax;
+    private final List<Thread> workers = new ArrayList<>();
+
+    public IncidentGeocodingPipeline(
+            IncidentRepository incidentRepository,
+            GeocodingService geocodingService,
+            IncidentService incidentService,
+            SimpMessagingTemplate messagingTemplate,
+            LiveUpdatePublisher liveUpdatePublisher,
+            @Value("${geocoding.pipeline.queue-capacity:1000}") int queueCapacity,
+            @Value("${geocoding.pipeline.workers:2}") int workerCount,
+            @Value("${geocoding.pipeline.max-attempts:6}") int maxAttempts,
+            @Value("${geocoding.pipeline.retry-base-ms:300000}") long retryBaseMs,
+            @Value("${geocoding.pipeline.retry-max-ms:86400000}") long retryMaxMs
+    ) {
+        this.incidentRepository = incidentRepository;
+        this.geocodingService = geocodingService;
+        this.incidentService = incidentService;
+        this.messagingTemplate = messagingTemplate;
+        this.liveUpdatePublisher = liveUpdatePublisher;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workerCount = workerCount;
+        this.maxAttempts = maxAttempts;
+        this.retryBase = Duration.ofMillis(retryBaseMs);
+        this.retryMax = Duration.ofMillis(retryMaxMs);
+    }
+
+    @PostConstruct
+    void start() {
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(Thread.ofVirtual().name("incident-geocoder-" + i).start(this::drain));
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        workers.forEach(Thread::interrupt);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIncidentChanged(IncidentChangedEvent event) {
+        Incident incident = event.incident();
+        if (event.change() == IncidentChangedEvent.Change.CREATED && incident.getFormattedAddress() == null) {
+            enqueue(incident.getId());
+        }
+    }
+
+    /**
+     * Picks up incidents that were dropped because the queue was full or whose
+     * lookup failed, e.g. after a Nominatim outage or a restart. Incidents
+     * still backing off or out of attempts are skipped so they do not use up
+     * the Nominatim budget that new incidents need.
+     */
+    @Scheduled(fixedDelayString = "${geocoding.pipeline.backfill-interval-ms:60000}")
+    public void backfillMissingAddresses() {
+        int capacity = queue.remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        incidentRepository.findUnresolvedIdsMissingAddress(
+                        LocalDateTime.now(), maxAttempts, PageRequest.of(0, Math.min(capacity, 100)))
+                .forEach(this::enqueue);
+    }
+
+    public boolean enqueue(Long incidentId) {
+        if (incidentId == null || !pending.add(incidentId)) {
+            return false;
+        }
+        if (!queue.offer(incidentId)) {
+            pending.remove(incidentId);
+            logger.warn("Geocoding queue full; incident {} will be retried by the backfill sweep", incidentId);
+            return false;
+        }
+        return true;
+    }
+
+    private void drain() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Long incidentId;
+            try {
+                incidentId = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            try {
+                geocode(incidentId);
+            } catch (Exception e) {
+                logger.warn("Geocoding incident {} failed: {}", incidentId, e.getMessage());
+            } finally {
+                pending.remove(incidentId);
+            }
+        }
+    }
+
+    void geocode(Long incidentId) {
+        Incident incident = incidentRepository.findById(incidentId).orElse(null);
+        if (incident == null || incident.getLocation() == null || incident.getFormattedAddress() != null) {
+            return;
+        }
+
+        Optional<String> address = geocodingService.resolveAddress(
+                incident.getLocation().getY(),
+                incident.getLocation().getX()
+        );
+        if (address.isEmpty()) {
+            recordFailure(incident);
+            return;
+        }
+        if (incidentRepository.updateFormattedAddress(incidentId, address.get()) == 0) {
+            return;
+        }
+
+        incident.setFormattedAddress(address.get());
+        messagingTemplate.convertAndSend(ADDRESS_TOPIC, incidentService.toDto(incident));
+        liveUpdatePublisher.publishIncident(incident);
+    }
+
+    private void recordFailure(Incident incident) {
+        int attempts = incident.getGeocodeAttempts() == null ? 0 : incident.getGeocodeAttempts();
+        LocalDateTime retryAt = LocalDateTime.now().plus(retryDelay(attempts + 1));
+        incidentRepository.recordGeocodeFailure(incident.getId(), retryAt);
+        if (attempts + 1 >= maxAttempts) {
+            logger.info("Giving up geocoding incident {} after {} attempts", incident.getId(), attempts + 1);
+        }
+    }
+
+    /**
+     * Delay before the next attempt: the base delay doubled per failure so
+     * far, capped at the maximum.
+     */
+    Duration retryDelay(int failedAttempts) {
+        int shift = Math.min(Math.max(failedAttempts - 1, 0), 30);
+        Duration delay = retryBase.multipliedBy(1L << shift);
+        return delay.compareTo(retryMax) > 0 ? retryMax : delay;
+    }
+}
@@ -5,45 +5,197 @@ import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.transaction.annotation.Transactional;
+import za.co.taxipoint.dto.IncidentDto;
+import za.co.taxipoint.config.IncidentProperties;
+import za.co.taxipoint.event.IncidentChangedEvent;
 import za.co.taxipoint.model.Incident;
+import za.co.taxipoint.model.IncidentCategory;
 import za.co.taxipoint.repository.IncidentRepository;
+import za.co.taxipoint.repository.IncidentSpecifications;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class IncidentService {
 
     private final IncidentRepository incidentRepository;
+    private final GeocodingService geocodingService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IncidentProperties incidentProperties;
     private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
 
-    public Incident createIncident(String description, String reporter, double latitude, double longitude) {
+    public Incident createIncident(String description, String reporter, double latitude, double longitude,
+                                   IncidentCategory category) {
         Point point = geometryFactory.createPoint(new Coordinate(longitude, latitude));
+        IncidentCategory resolvedCategory = category == null ? IncidentCategory.GENERAL : category;
 
+        // Only a cache hit is used here; misses are resolved by the background geocoding pipeline.
         Incident incident = Incident.builder()
                 .description(description)
                 .reporter(reporter)
                 .location(point)
+                .category(resolvedCategory)
+                .expiresAt(LocalDateTime.now().plus(incidentProperties.ttlFor(resolvedCategory)))
+                .formattedAddress(geocodingService.findCachedAddress(latitude, longitude).orElse(null))
                 .build();
 
-        return incidentRepository.save(incident);
+        Incident saved = incidentRepository.save(incident);
+        eventPublisher.publishEvent(new IncidentChangedEvent(saved, IncidentChangedEvent.Change.CREATED));
+        return saved;
     }
 
+    /**
+     * Marks expired incidents resolved in a single UPDATE. Reads already
+     * exclude expired incidents, so this only keeps the resolved flag tidy and
+     * never needs to run on a request path. The expired rows are read first,
+     * through the partial expiry index, only so listeners can be told which
+     * incidents went away.
+     */
     @Transactional
-    @Scheduled(fixedRate = 300000L)
+    @Scheduled(fixedDelayString = "${incidents.expiry-sweep-interval-ms:300000}")
     public int autoResolveExpiredIncidents() {
-        LocalDateTime cutoff = LocalDateTime.now().minusHours(48);
-        var expiredIncidents = incidentRepository.findByResolvedFalseAndCreatedAtBefore(cutoff);
-
-        if (expiredIncidents.isEmpty()) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Incident> expiring = incidentRepository.findExpired(now);
+        if (expiring.isEmpty()) {
             return 0;
         }
 
-        expiredIncidents.forEach(incident -> incident.setResolved(true));
-        incidentRepository.saveAll(expiredIncidents);
-        return expiredIncidents.size();
+        int expired = incidentRepository.resolveExpired(now);
+        // Detached by resolveExpired: the flag is set for the event payload only, not written row by row
+        expiring.forEach(incident -> {
+            incident.setResolved(true);
+            eventPublisher.publishEvent(new IncidentChangedEvent(incident, IncidentChangedEvent.Change.EXPIRED));
+        });
+        return expired;
+    }
+
+    /**
+     * One page of incidents, newest first. Pages are chained with a keyset
+     * cursor on (created_at, id), so deep pages cost the same as the first.
+     */
+    public Slice<Incident> listIncidents(boolean includeResolved, LocalDateTime since, Cursor after,
+                                         Bounds bounds, int limit) {
+        Specification<Incident> filter = Specification.where(
+                includeResolved ? null : IncidentSpecifications.active(LocalDateTime.now()));
+        if (since != null) {
+            filter = filter.and(IncidentSpecifications.createdSince(since));
+        }
+        if (after != null) {
+            filter = filter.and(IncidentSpecifications.before(after.createdAt(), after.id()));
+        }
+        if (bounds != null) {
+            filter = filter.and(IncidentSpecifications.withinBounds(
+                    bounds.minLat(), bounds.minLng(), bounds.maxLat(), bounds.maxLng()));
+        }
+
+        List<Incident> rows = incidentRepository.findBy(filter, query -> query
+                .sortBy(Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")))
+                .limit(limit + 1)
+                .all());
+        boolean hasNext = rows.size() > limit;
+        return new SliceImpl<>(hasNext ? rows.subList(0, limit) : rows, PageRequest.of(0, limit), hasNext);
+    }
+
+    /**
+     * Position after the last incident of a page. Serialized as an opaque
+     * URL-safe token for the X-Next-Cursor header.
+     */
+    public record Cursor(LocalDateTime createdAt, long id) {
+
+        public static Cursor of(Incident incident) {
+            return new Cursor(incident.getCreatedAt(), incident.getId());
+        }
+
+        public String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static Cursor decode(String token) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+                return new Cursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid incident cursor", e);
+            }
+        }
+    }
+
+    public record Bounds(double minLat, double minLng, double maxLat, double maxLng) {
+
+        /**
+         * Parses {@code minLng,minLat,maxLng,maxLat}, the usual bbox order of map libraries.
+         */
+        public static Bounds parse(String bbox) {
+            String[] parts = bbox.split(",");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("bbox needs minLng,minLat,maxLng,maxLat");
+            }
+            Bounds bounds = new Bounds(Double.parseDouble(parts[1].trim()), Double.parseDouble(parts[0].trim()),
+                    Double.parseDouble(parts[3].trim()), Double.parseDouble(parts[2].trim()));
+            if (bounds.minLat() > bounds.maxLat() || bounds.minLng() > bounds.maxLng()) {
+                throw new IllegalArgumentException("bbox minimum exceeds maximum");
+            }
+            return bounds;
+        }
+    }
+
+    public boolean isActive(Incident incident) {
+        return !Boolean.TRUE.equals(incident.getResolved())
+                && (incident.getExpiresAt() == null || incident.getExpiresAt().isAfter(LocalDateTime.now()));
+    }
+
+    @Transactional
+    public Optional<Incident> updateResolved(Long id, boolean resolved) {
+        return incidentRepository.findById(id).map(incident -> {
+            incident.setResolved(resolved);
+            if (!resolved) {
+                // A reopened incident gets a fresh lifetime, otherwise it could still read as expired
+                incident.setExpiresAt(LocalDateTime.now().plus(incidentProperties.ttlFor(incident.getCategory())));
+            }
+            Incident saved = incidentRepository.save(incident);
+            eventPublisher.publishEvent(new IncidentChangedEvent(saved,
+                    resolved ? IncidentChangedEvent.Change.RESOLVED : IncidentChangedEvent.Change.REOPENED));
+            return saved;
+        });
+    }
+
+    public IncidentDto toDto(Incident incident) {
+        double latitude = 0.0;
+        double longitude = 0.0;
+        String formattedAddress = "Location not available";
+
+        if (incident.getLocation() != null) {
+            latitude = incident.getLocation().getY();
+            longitude = incident.getLocation().getX();
+            formattedAddress = incident.getFormattedAddress() != null
+                    ? incident.getFormattedAddress()
+                    : geocodingService.findCachedAddress(latitude, longitude).orElse(formattedAddress);
+        }
+
+        return new IncidentDto(
+                incident.getId(),
+                incident.getDescription(),
+                incident.getReporter(),
+                latitude,
+                longitude,
+                formattedAddress,
+                incident.getCreatedAt(),
+                !isActive(incident)
+        );
     }
 }
@@ -0,0 +1,94 @@
+package za.co.taxipoint.service;
+
+import org.locationtech.jts.geom.Point;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import za.co.taxipoint.event.IncidentChangedEvent;
+import za.co.taxipoint.event.TaxiRankChangedEvent;
+import za.co.taxipoint.geo.GeoHash;
+import za.co.taxipoint.model.Incident;
+import za.co.taxipoint.model.TaxiRank;
+
+/**
+ * Pushes committed incident and rank changes to STOMP subscribers, so map
+ * clients can stop polling. Every change goes to the geohash cell of its
+ * location, e.g. {@code /topic/incidents/cell/ke7hu}, letting a client
+ * subscribe only to the cells covering its screen. Incidents are also sent
+ * to {@value #INCIDENTS_TOPIC} for existing clients that follow everything.
+ */
+@Service
+public class LiveUpdatePublisher {
+
+    public static final String INCIDENTS_TOPIC = "/topic/incidents";
+    public static final String INCIDENT_CELL_TOPIC_PREFIX = "/topic/incidents/cell/";
+    public static final String RANKS_TOPIC = "/topic/ranks";
+    public static final String RANK_CELL_TOPIC_PREFIX = "/topic/ranks/cell/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final IncidentService incidentService;
+    private final TaxiRankService taxiRankService;
+    private final int cellPrecision;
+
+    public LiveUpdatePublisher(
+            SimpMessagingTemplate messagingTemplate,
+            IncidentService incidentService,
+            TaxiRankService taxiRankService,
+            @Value("${realtime.cell-precision:5}") int cellPrecision
+    ) {
+        this.messagingTemplate = messagingTemplate;
+        this.incidentService = incidentService;
+        this.taxiRankService = taxiRankService;
+        this.cellPrecision = cellPrecision;
+    }
+
+    /**
+     * Payload is the usual incident DTO; {@code resolved} is true for resolved
+     * and expired incidents, which clients should drop.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIncidentChanged(IncidentChangedEvent event) {
+        publishIncident(event.incident());
+    }
+
+    public void publishIncident(Incident incident) {
+        Object payload = incidentService.toDto(incident);
+        messagingTemplate.convertAndSend(INCIDENTS_TOPIC, payload);
+        if (incident.getLocation() != null) {
+            messagingTemplate.convertAndSend(
+                    INCIDENT_CELL_TOPIC_PREFIX + cellOf(incident.getLocation()),
+                    payload);
+        }
+    }
+
+    /**
+     * Payload is the rank DTO; {@code active} is false when the rank was
+     * deactivated. A rank that moved to another cell is announced in both, so
+     * clients watching only the old cell see it leave.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaxiRankChanged(TaxiRankChangedEvent event) {
+        TaxiRank rank = event.rank();
+        Object payload = taxiRankService.toDTO(rank);
+        messagingTemplate.convertAndSend(RANKS_TOPIC, payload);
+        String cell = rank.getLocation() == null ? null : cellOf(rank.getLocation());
+        if (cell != null) {
+            messagingTemplate.convertAndSend(RANK_CELL_TOPIC_PREFIX + cell, payload);
+        }
+        if (event.previousLocation() != null) {
+            String previousCell = cellOf(event.previousLocation());
+            if (!previousCell.equals(cell)) {
+                messagingTemplate.convertAndSend(RANK_CELL_TOPIC_PREFIX + previousCell, payload);
+            }
+        }
+    }
+
+    public String cellOf(double latitude, double longitude) {
+        return GeoHash.encode(latitude, longitude, cellPrecision);
+    }
+
+    private String cellOf(Point location) {
+        return cellOf(location.getY(), location.getX());
+    }
+}
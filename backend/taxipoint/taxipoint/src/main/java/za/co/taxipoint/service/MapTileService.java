@@ -0,0 +1,221 @@
+package za.co.taxipoint.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.locationtech.jts.geom.Point;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import za.co.taxipoint.dto.MapTileDTO;
+import za.co.taxipoint.dto.TileFeatureDTO;
+import za.co.taxipoint.event.IncidentChangedEvent;
+import za.co.taxipoint.event.TaxiRankChangedEvent;
+import za.co.taxipoint.geo.TileMath;
+import za.co.taxipoint.index.RankSpatialIndex;
+import za.co.taxipoint.model.Incident;
+import za.co.taxipoint.model.TaxiRank;
+import za.co.taxipoint.repository.IncidentRepository;
+import za.co.taxipoint.repository.MapTileRepository;
+import za.co.taxipoint.repository.TaxiRankRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Map tiles of active ranks and unresolved incidents. Up to
+ * {@code tiles.cluster-max-zoom} points are merged on a coarse grid inside
+ * each tile, counted in Postgres rather than loaded row by row; closer in,
+ * every point is returned. Built tiles are cached and dropped when a rank
+ * or incident inside them is written.
+ */
+@Service
+public class MapTileService {
+
+    private final RankSpatialIndex spatialIndex;
+    private final TaxiRankRepository taxiRankRepository;
+    private final IncidentRepository incidentRepository;
+    private final MapTileRepository mapTileRepository;
+    private final Cache<String, MapTileDTO> tiles;
+    private final int clusterMaxZoom;
+    private final int clusterGrid;
+
+    public MapTileService(
+            RankSpatialIndex spatialIndex,
+            TaxiRankRepository taxiRankRepository,
+            IncidentRepository incidentRepository,
+            MapTileRepository mapTileRepository,
+            @Value("${tiles.cache.max-size:5000}") long maxSize,
+            @Value("${tiles.cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${tiles.cluster-max-zoom:13}") int clusterMaxZoom,
+            @Value("${tiles.cluster-grid:8}") int clusterGrid
+    ) {
+        this.spatialIndex = spatialIndex;
+        this.taxiRankRepository = taxiRankRepository;
+        this.incidentRepository = incidentRepository;
+        this.mapTileRepository = mapTileRepository;
+        this.clusterMaxZoom = clusterMaxZoom;
+        this.clusterGrid = clusterGrid;
+        this.tiles = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public MapTileDTO getTile(int z, int x, int y) {
+        return tiles.get(key(z, x, y), key -> buildTile(z, x, y));
+    }
+
+    public boolean isClustered(int z) {
+        return z <= clusterMaxZoom;
+    }
+
+    // A rank that moved is dropped from the tiles it left as well as those it entered
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaxiRankChanged(TaxiRankChangedEvent event) {
+        invalidateTilesAt(event.rank().getLocation());
+        if (event.moved()) {
+            invalidateTilesAt(event.previousLocation());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIncidentChanged(IncidentChangedEvent event) {
+        invalidateTilesAt(event.incident().getLocation());
+    }
+
+    private void invalidateTilesAt(Point location) {
+        if (location == null) {
+            return;
+        }
+        double latitude = location.getY();
+        double longitude = location.getX();
+        List<String> keys = new ArrayList<>();
+        for (int z = 0; z <= TileMath.MAX_ZOOM; z++) {
+            keys.add(key(z, (int) TileMath.longitudeToTileX(longitude, z), (int) TileMath.latitudeToTileY(latitude, z)));
+        }
+        tiles.invalidateAll(keys);
+    }
+
+    private MapTileDTO buildTile(int z, int x, int y) {
+        double minLng = TileMath.tileToLongitude(x, z);
+        double maxLng = TileMath.tileToLongitude(x + 1, z);
+        double maxLat = TileMath.tileToLatitude(y, z);
+        double minLat = TileMath.tileToLatitude(y + 1, z);
+
+        if (isClustered(z)) {
+            return new MapTileDTO(z, x, y, true, buildClusters(z, x, y, minLat, minLng, maxLat, maxLng));
+        }
+
+        List<TaxiRank> ranks = spatialIndex.isReady()
+                ? spatialIndex.findInBounds(minLat, minLng, maxLat, maxLng)
+                : taxiRankRepository.findActiveInBounds(minLat, minLng, maxLat, maxLng);
+        List<Incident> incidents = incidentRepository.findUnresolvedInBounds(
+                minLat, minLng, maxLat, maxLng, LocalDateTime.now());
+
+        List<TileFeatureDTO> points = new ArrayList<>(ranks.size() + incidents.size());
+        ranks.stream().filter(rank -> rank.getLocation() != null).forEach(rank -> points.add(point(
+                "RANK", rank.getId().toString(), rank.getName(),
+                rank.getLocation().getY(), rank.getLocation().getX())));
+        incidents.forEach(incident -> points.add(point(
+                "INCIDENT", String.valueOf(incident.getId()), incident.getDescription(),
+                incident.getLocation().getY(), incident.getLocation().getX())));
+        return new MapTileDTO(z, x, y, false, points);
+    }
+
+    /**
+     * Merges points falling in the same cell of a {@code clusterGrid} square
+     * grid laid over the tile; lone points are kept as they are. Incidents,
+     * and ranks while the spatial index is cold, are counted per cell in
+     * Postgres, so low zooms never load the rows themselves.
+     */
+    private List<TileFeatureDTO> buildClusters(int z, int x, int y,
+                                               double minLat, double minLng, double maxLat, double maxLng) {
+        Map<Integer, Cell> cells = new HashMap<>();
+        if (spatialIndex.isReady()) {
+            for (TaxiRank rank : spatialIndex.findInBounds(minLat, minLng, maxLat, maxLng)) {
+                double latitude = rank.getLocation().getY();
+                double longitude = rank.getLocation().getX();
+                int col = cell(TileMath.longitudeToTileX(longitude, z) - x);
+                int row = cell(TileMath.latitudeToTileY(latitude, z) - y);
+                cells.computeIfAbsent(row * clusterGrid + col, key -> new Cell())
+                        .add(true, 1, latitude, longitude,
+                                () -> point("RANK", rank.getId().toString(), rank.getName(), latitude, longitude));
+            }
+        } else {
+            mapTileRepository.countActiveRanks(z, x, y, clusterGrid, minLat, minLng, maxLat, maxLng)
+                    .forEach(tileCell -> addCell(cells, tileCell, "RANK"));
+        }
+        mapTileRepository.countUnresolvedIncidents(z, x, y, clusterGrid, minLat, minLng, maxLat, maxLng,
+                        LocalDateTime.now())
+                .forEach(tileCell -> addCell(cells, tileCell, "INCIDENT"));
+
+        return cells.values().stream().map(Cell::toFeature).toList();
+    }
+
+    private void addCell(Map<Integer, Cell> cells, MapTileRepository.TileCell tileCell, String type) {
+        cells.computeIfAbsent(tileCell.row() * clusterGrid + tileCell.col(), key -> new Cell())
+                .add("RANK".equals(type), tileCell.count(), tileCell.latitude(), tileCell.longitude(),
+                        () -> point(type, tileCell.id(), tileCell.label(), tileCell.latitude(), tileCell.longitude()));
+    }
+
+    private int cell(double offsetInTile) {
+        return Math.min(clusterGrid - 1, Math.max(0, (int) (offsetInTile * clusterGrid)));
+    }
+
+    private TileFeatureDTO point(String type, String id, String label, double latitude, double longitude) {
+        TileFeatureDTO feature = new TileFeatureDTO();
+        feature.setType(type);
+        feature.setId(id);
+        feature.setLabel(label);
+        feature.setLatitude(latitude);
+        feature.setLongitude(longitude);
+        return feature;
+    }
+
+    private String key(int z, int x, int y) {
+        return z + "/" + x + "/" + y;
+    }
+
+    /**
+     * Running totals for one grid cell; the point itself is kept only while
+     * the cell holds a single one.
+     */
+    private static final class Cell {
+        private int rankCount;
+        private int incidentCount;
+        private double latitudeSum;
+        private double longitudeSum;
+        private TileFeatureDTO single;
+
+        void add(boolean rank, int count, double latitude, double longitude, Supplier<TileFeatureDTO> point) {
+            boolean wasEmpty = rankCount + incidentCount == 0;
+            if (rank) {
+                rankCount += count;
+            } else {
+                incidentCount += count;
+            }
+            latitudeSum += latitude * count;
+            longitudeSum += longitude * count;
+            single = wasEmpty && count == 1 ? point.get() : null;
+        }
+
+        TileFeatureDTO toFeature() {
+            if (single != null) {
+                return single;
+            }
+            int total = rankCount + incidentCount;
+            TileFeatureDTO cluster = new TileFeatureDTO();
+            cluster.setType("CLUSTER");
+            cluster.setLatitude(latitudeSum / total);
+            cluster.setLongitude(longitudeSum / total);
+            cluster.setRankCount(rankCount);
+            cluster.setIncidentCount(incidentCount);
+            return cluster;
+        }
+    }
+}
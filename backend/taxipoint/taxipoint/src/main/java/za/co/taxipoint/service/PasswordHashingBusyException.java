@@ -0,0 +1,19 @@
+package za.co.taxipoint.service;
+
+/**
+ * Thrown when the password hashing executor has no queue space left. Maps
+ * to 503 with a Retry-After header rather than letting logins pile up.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingBusyException(long retryAfterSeconds) {
+        super("Too many sign-ins in progress. Please try again shortly.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -33,6 +33,9 @@ public class PasswordResetService {
     @Autowired
     private SendGridEmailService emailService;
 
+    @Autowired
+    private AuthTokenService authTokenService;
+
     @Transactional
     public void requestPasswordReset(ForgotPasswordRequest request) {
         String email = request.getEmail();
@@ -110,6 +113,9 @@ public class PasswordResetService {
         resetToken.setUsed(true);
         tokenRepository.save(resetToken);
 
+        // Sessions opened with the old password end now rather than when their tokens expire
+        authTokenService.revokeAllForUser(user.getEmail());
+
         // Clean up expired tokens (optional cleanup)
         tokenRepository.deleteExpiredTokens(LocalDateTime.now());
     }
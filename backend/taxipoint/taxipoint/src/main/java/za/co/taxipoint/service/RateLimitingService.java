@@ -1,31 +1,92 @@
 package za.co.taxipoint.service;
 
-import io.github.bucket4j.Bucket;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
 import io.github.bucket4j.Refill;
+import io.github.bucket4j.distributed.jdbc.BucketTableSettings;
+import io.github.bucket4j.distributed.jdbc.SQLProxyConfigurationBuilder;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.postgresql.PostgreSQLadvisoryLockBasedProxyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
+import za.co.taxipoint.config.RateLimitProperties;
 
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Token buckets per (policy, client). The LOCAL store keeps them in a
+ * bounded Caffeine cache; a bucket left idle for a whole period has refilled
+ * completely, so evicting it then loses nothing. The POSTGRES store keeps
+ * bucket state in one table so every instance draws from the same budget.
+ */
 @Service
 public class RateLimitingService {
 
-    // Cache to store buckets for different IPs/users
-    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitingService.class);
 
-    // Create a bucket for a specific key (e.g., IP address)
-    // Limits to 5 requests per 10 minutes (generous for login/reset)
-    public Bucket resolveBucket(String key) {
-        return buckets.computeIfAbsent(key, this::createNewBucket);
-    }
+    static final String BUCKET_TABLE = "rate_limit_buckets";
 
-    private Bucket createNewBucket(String key) {
-        // Refill 5 tokens every 10 minutes
-        Bandwidth limit = Bandwidth.classic(5, Refill.intervally(5, Duration.ofMinutes(10)));
-        return Bucket.builder()
-                .addLimit(limit)
+    private final Cache<String, Bucket> localBuckets;
+    private final ProxyManager<Long> sharedBuckets;
+
+    public RateLimitingService(RateLimitProperties properties, ObjectProvider<DataSource> dataSource) {
+        Duration longestPeriod = properties.getPolicies().values().stream()
+                .map(RateLimitProperties.Policy::getPeriod)
+                .max(Duration::compareTo)
+                .orElse(Duration.ofMinutes(10));
+        this.localBuckets = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheMaxSize())
+                .expireAfterAccess(longestPeriod)
                 .build();
+        this.sharedBuckets = properties.getStore() == RateLimitProperties.Store.POSTGRES
+                ? new PostgreSQLadvisoryLockBasedProxyManager(SQLProxyConfigurationBuilder.builder()
+                        .withTableSettings(BucketTableSettings.customSettings(BUCKET_TABLE, "id", "state"))
+                        .build(dataSource.getObject()))
+                : null;
+    }
+
+    /**
+     * Takes one token for the client under the given policy. The probe says
+     * whether it was granted and, if not, how long until one is available.
+     */
+    public ConsumptionProbe tryConsume(String policyName, RateLimitProperties.Policy policy, String clientKey) {
+        String key = policyName + ':' + clientKey;
+        if (sharedBuckets == null) {
+            return localBuckets.get(key, k -> Bucket.builder().addLimit(bandwidth(policy)).build())
+                    .tryConsumeAndReturnRemaining(1);
+        }
+
+        try {
+            return sharedBuckets.builder()
+                    .build(hashKey(key), () -> BucketConfiguration.builder().addLimit(bandwidth(policy)).build())
+                    .tryConsumeAndReturnRemaining(1);
+        } catch (Exception e) {
+            // The shared store being down must not lock everyone out; fall back to this instance's buckets
+            logger.warn("Shared rate-limit store unavailable, using local bucket: {}", e.getMessage());
+            return localBuckets.get(key, k -> Bucket.builder().addLimit(bandwidth(policy)).build())
+                    .tryConsumeAndReturnRemaining(1);
+        }
+    }
+
+    private static Bandwidth bandwidth(RateLimitProperties.Policy policy) {
+        return Bandwidth.classic(policy.getCapacity(), Refill.intervally(policy.getCapacity(), policy.getPeriod()));
+    }
+
+    // The Postgres backend keys rows by BIGINT; 64 bits of FNV-1a keep collisions negligible
+    static long hashKey(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
     }
 }
@@ -4,14 +4,15 @@ import za.co.taxipoint.dto.*;
 import za.co.taxipoint.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
 @Service
 public class StatsService {
     @Autowired
     private UserRepository userRepository;
     @Autowired
     private IncidentRepository incidentRepository;
-    @Autowired
-    private IncidentService incidentService;
     /**
      * Get total user count from User table
      * Counts all rows in the users table
@@ -21,11 +22,10 @@ public class StatsService {
     }
     /**
      * Get active (unresolved) incidents count
-     * Counts incidents where resolved = false
+     * Counts incidents where resolved = false and that have not expired yet
      */
     public long getActiveIncidentsCount() {
-        incidentService.autoResolveExpiredIncidents();
-        return incidentRepository.countByResolvedFalse();
+        return incidentRepository.countActive(LocalDateTime.now());
         
         // Alternative if using status field:
         // return incidentRepository.countByStatus("ACTIVE");
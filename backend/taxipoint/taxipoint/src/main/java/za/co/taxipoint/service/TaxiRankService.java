@@ -3,16 +3,32 @@ package za.co.taxipoint.service;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import za.co.taxipoint.dto.CatalogueRankDTO;
+import za.co.taxipoint.dto.DestinationFareDTO;
+import za.co.taxipoint.dto.RankCatalogueDTO;
+import za.co.taxipoint.dto.RankSuggestionDTO;
 import za.co.taxipoint.dto.TaxiFareQuoteDTO;
 import za.co.taxipoint.dto.TaxiRankDTO;
+import za.co.taxipoint.event.TaxiRankChangedEvent;
+import za.co.taxipoint.geo.GeoUtils;
+import za.co.taxipoint.index.DestinationIndex;
+import za.co.taxipoint.index.RankDistance;
+import za.co.taxipoint.index.RankFareIndex;
+import za.co.taxipoint.index.RankFares;
+import za.co.taxipoint.index.RankSpatialIndex;
+import za.co.taxipoint.index.RankSuggestIndex;
 import za.co.taxipoint.model.TaxiRank;
+import za.co.taxipoint.repository.RankCatalogueVersionRepository;
 import za.co.taxipoint.repository.TaxiRankRepository;
 import org.locationtech.jts.geom.Point;
 
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -22,6 +38,18 @@ public class TaxiRankService {
 
     @Autowired
     private TaxiRankRepository taxiRankRepository;
+    @Autowired
+    private RankSpatialIndex spatialIndex;
+    @Autowired
+    private RankSuggestIndex suggestIndex;
+    @Autowired
+    private RankFareIndex fareIndex;
+    @Autowired
+    private DestinationIndex destinationIndex;
+    @Autowired
+    private RankCatalogueVersionRepository catalogueVersionRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
      private final GeometryFactory geometryFactory = new GeometryFactory();
 
     public Page<TaxiRank> listTaxiRanks(Optional<String> district, boolean includeInactive, int page, int size) {
@@ -36,15 +64,39 @@ public class TaxiRankService {
                 : taxiRankRepository.findActive(pageable);
     }
 
- public List<TaxiRank> searchByText(String query) {
-    return taxiRankRepository.searchByNameOrAddressOrRoutesOrDistrict(query);
-}
+    /**
+     * Relevance-ranked text search over name, address, district and routes,
+     * paged in the database.
+     */
+    public Page<TaxiRank> searchByText(String query, int page, int size) {
+        String trimmed = query.trim();
+        String pattern = "%" + escapeLike(trimmed.toLowerCase()) + "%";
+        return taxiRankRepository.searchRanked(trimmed, pattern, PageRequest.of(page, size));
+    }
+
+    /**
+     * Autocomplete suggestions. Answered only from the in-memory index; until
+     * it has loaded the list is simply empty rather than falling back to SQL.
+     */
+    public List<RankSuggestionDTO> suggest(String query, int limit) {
+        return suggestIndex.suggest(query, limit);
+    }
+
+    private String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 
 
 
 
     public List<TaxiRank> findNearby(Double lat, Double lng, Double radiusMeters) {
-        // The repository now handles the sorting, so we can just call this method.
+        if (spatialIndex.isReady()) {
+            return spatialIndex.findWithinRadius(lat, lng, radiusMeters)
+                    .stream()
+                    .map(RankDistance::rank)
+                    .toList();
+        }
+        // Cold start: the index has not loaded yet, so ask PostGIS.
         return taxiRankRepository.findNearby(lat, lng, radiusMeters);
     }
 
@@ -53,10 +105,76 @@ public class TaxiRankService {
                 .filter(rank -> rank.getActive() == null || Boolean.TRUE.equals(rank.getActive()));
     }
 
+    @Transactional
     public TaxiRank createTaxiRank(TaxiRank taxiRank) {
-        return taxiRankRepository.save(taxiRank);
+        return save(taxiRank);
+    }
+
+    public long getCatalogueVersion() {
+        return catalogueVersionRepository.current();
+    }
+
+    /**
+     * The rank catalogue as of {@code version}: everything when the client has
+     * no usable version, otherwise only ranks written since {@code since}.
+     * Deactivated ranks are reported by id so clients can drop them.
+     */
+    public RankCatalogueDTO getCatalogue(Long since, long version) {
+        if (since == null || since <= 0 || since > version) {
+            List<CatalogueRankDTO> ranks = taxiRankRepository.findActiveUpTo(version).stream()
+                    .map(this::toCatalogueDTO)
+                    .toList();
+            return new RankCatalogueDTO(version, true, ranks, List.of());
+        }
+
+        List<CatalogueRankDTO> changed = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        for (TaxiRank rank : taxiRankRepository.findChangedBetween(since, version)) {
+            if (rank.getActive() == null || Boolean.TRUE.equals(rank.getActive())) {
+                changed.add(toCatalogueDTO(rank));
+            } else {
+                removed.add(rank.getId().toString());
+            }
+        }
+        return new RankCatalogueDTO(version, false, changed, removed);
     }
 
+    private CatalogueRankDTO toCatalogueDTO(TaxiRank rank) {
+        CatalogueRankDTO dto = new CatalogueRankDTO();
+        dto.setId(rank.getId().toString());
+        dto.setName(rank.getName());
+        dto.setAddress(rank.getAddress());
+        if (rank.getLocation() != null) {
+            dto.setLatitude(rank.getLocation().getY());
+            dto.setLongitude(rank.getLocation().getX());
+        }
+        dto.setDistrict(rank.getDistrict());
+        dto.setRoutesServed(rank.getRoutesServed());
+        dto.setRouteFares(rank.getRouteFares());
+        dto.setHours(rank.getHours());
+        dto.setPhone(rank.getPhone());
+        dto.setCurrency(rank.getCurrency());
+        dto.setFacilities(rank.getFacilities());
+        return dto;
+    }
+
+    /**
+     * Persists a rank and notifies the in-memory indexes. All rank writes,
+     * including approved corrections, should go through here: each one takes
+     * the next catalogue version in the same transaction, so versions follow
+     * commit order and delta syncs pick every write up.
+     */
+    @Transactional
+    public TaxiRank save(TaxiRank rank) {
+        Point previousLocation = rank.getStoredLocation();
+        rank.setChangeSeq(catalogueVersionRepository.next());
+        TaxiRank saved = taxiRankRepository.save(rank);
+        saved.setStoredLocation(saved.getLocation());
+        eventPublisher.publishEvent(new TaxiRankChangedEvent(saved, previousLocation));
+        return saved;
+    }
+
+@Transactional
 public TaxiRank updateTaxiRank(UUID id, TaxiRankDTO dto) {
     return taxiRankRepository.findById(id).map(rank -> {
         rank.setName(dto.getName());
@@ -97,7 +215,7 @@ public TaxiRank updateTaxiRank(UUID id, TaxiRankDTO dto) {
             rank.setLocation(location);
         }
 
-        return taxiRankRepository.save(rank);
+        return save(rank);
     }).orElseThrow(() -> new RuntimeException("TaxiRank not found"));
 }
   
@@ -159,61 +277,101 @@ public TaxiRank updateTaxiRank(UUID id, TaxiRankDTO dto) {
             return Optional.empty();
         }
 
-        final String requestedDestination = destination.trim();
-        final String normalizedDestination = requestedDestination.toLowerCase();
+        return findFares(rankId)
+                .filter(fares -> !fares.isEmpty())
+                .flatMap(fares -> fares.match(destination)
+                        .map(match -> toFareQuote(fares, destination.trim(), match)));
+    }
+
+    /**
+     * Quotes several destinations from one rank in a single lookup. The result
+     * follows the order of the request; destinations without a fare come back
+     * with a null fare. Empty when the rank does not exist or is inactive.
+     */
+    public Optional<List<TaxiFareQuoteDTO>> findFareQuotes(UUID rankId, List<String> destinations) {
+        return findFares(rankId).map(fares -> destinations.stream()
+                .map(destination -> {
+                    String requested = destination == null ? "" : destination.trim();
+                    return fares.match(requested)
+                            .map(match -> toFareQuote(fares, requested, match))
+                            .orElseGet(() -> toFareQuote(fares, requested, null));
+                })
+                .toList());
+    }
+
+    /**
+     * Active ranks serving a destination with their fare for it. Sorted by
+     * distance from the origin when one is given, then by fare.
+     */
+    public List<DestinationFareDTO> findRanksForDestination(String destination, Double lat, Double lng, int limit) {
+        List<DestinationIndex.Match> matches;
+        if (destinationIndex.isReady()) {
+            matches = destinationIndex.findServing(destination);
+        } else {
+            // Cold start: narrow with the full-text search, then apply the same route matching
+            DestinationIndex candidates = new DestinationIndex();
+            candidates.rebuild(searchByText(destination, 0, 200).getContent());
+            matches = candidates.findServing(destination);
+        }
+
+        return matches.stream()
+                .map(match -> toDestinationFare(match, lat, lng))
+                .sorted(Comparator
+                        .comparing(DestinationFareDTO::getDistanceMeters, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(DestinationFareDTO::getFare, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(DestinationFareDTO::getRankName, Comparator.nullsLast(Comparator.naturalOrder())))
+                .limit(limit)
+                .toList();
+    }
+
+    private DestinationFareDTO toDestinationFare(DestinationIndex.Match match, Double lat, Double lng) {
+        TaxiRank rank = match.rank();
+        DestinationFareDTO dto = new DestinationFareDTO();
+        dto.setRankId(rank.getId().toString());
+        dto.setRankName(rank.getName());
+        dto.setAddress(rank.getAddress());
+        dto.setDistrict(rank.getDistrict());
+        dto.setCurrency(match.fares().getCurrency());
+        dto.setMatchedDestination(match.route());
+        // Price the route the index matched; re-running the loose tiers could pick a different one
+        match.fares().fareFor(match.route()).ifPresent(fare -> dto.setFare(fare.fare()));
+        if (rank.getLocation() != null) {
+            dto.setLatitude(rank.getLocation().getY());
+            dto.setLongitude(rank.getLocation().getX());
+            if (lat != null && lng != null) {
+                dto.setDistanceMeters(GeoUtils.haversineMeters(lat, lng, dto.getLatitude(), dto.getLongitude()));
+            }
+        }
+        return dto;
+    }
 
-        return taxiRankRepository.findById(rankId)
+    private Optional<RankFares> findFares(UUID rankId) {
+        // Ranks the index has not seen yet (cold start, another instance's write) are compiled once and cached
+        return fareIndex.get(rankId).or(() -> taxiRankRepository.findById(rankId)
                 .filter(rank -> rank.getActive() == null || Boolean.TRUE.equals(rank.getActive()))
-                .flatMap(rank -> {
-                    Map<String, Double> routeFares = rank.getRouteFares();
-                    if (routeFares == null || routeFares.isEmpty()) {
-                        return Optional.empty();
-                    }
-
-                    Map.Entry<String, Double> matchedFare = routeFares.entrySet().stream()
-                            .filter(entry -> entry.getKey() != null && entry.getValue() != null)
-                            .filter(entry -> {
-                                String routeName = entry.getKey().trim().toLowerCase();
-                                return routeName.equals(normalizedDestination)
-                                        || routeName.contains(normalizedDestination)
-                                        || normalizedDestination.contains(routeName);
-                            })
-                            .findFirst()
-                            .orElse(null);
-
-                    if (matchedFare == null) {
-                        return Optional.empty();
-                    }
-
-                    TaxiFareQuoteDTO quote = new TaxiFareQuoteDTO();
-                    quote.setRankId(rank.getId().toString());
-                    quote.setRankName(rank.getName());
-                    quote.setRequestedDestination(requestedDestination);
-                    quote.setMatchedDestination(matchedFare.getKey());
-                    quote.setFare(matchedFare.getValue());
-                    quote.setCurrency(Optional.ofNullable(rank.getCurrency()).orElse("ZAR"));
-                    return Optional.of(quote);
-                });
-    }
-
-    // Inside TaxiRankService
-private double distance(double lat1, double lon1, double lat2, double lon2) {
-    final int R = 6371000; // Earth radius in meters
-    double latRad1 = Math.toRadians(lat1);
-    double latRad2 = Math.toRadians(lat2);
-    double deltaLat = Math.toRadians(lat2 - lat1);
-    double deltaLon = Math.toRadians(lon2 - lon1);
-
-    double a = Math.sin(deltaLat / 2) * Math.sin(deltaLat / 2) +
-               Math.cos(latRad1) * Math.cos(latRad2) *
-               Math.sin(deltaLon / 2) * Math.sin(deltaLon / 2);
-    double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-    return R * c; // Distance in meters
-}
+                .map(fareIndex::cache));
+    }
 
+    private TaxiFareQuoteDTO toFareQuote(RankFares fares, String requestedDestination, RankFares.FareMatch match) {
+        TaxiFareQuoteDTO quote = new TaxiFareQuoteDTO();
+        quote.setRankId(fares.getRankId().toString());
+        quote.setRankName(fares.getRankName());
+        quote.setRequestedDestination(requestedDestination);
+        quote.setCurrency(fares.getCurrency());
+        if (match != null) {
+            quote.setMatchedDestination(match.route());
+            quote.setFare(match.fare());
+            quote.setMatchType(match.matchType().name());
+        }
+        return quote;
+    }
 
     public List<TaxiRankDTO> findNearbyWithDistance(Double lat, Double lng, Double radiusMeters) {
-    // Call repository method that fetches all within radius
+    if (spatialIndex.isReady()) {
+        return toDistanceDTOs(spatialIndex.findWithinRadius(lat, lng, radiusMeters));
+    }
+
+    // Cold start: fetch all within radius from PostGIS
     List<TaxiRank> nearbyRanks = taxiRankRepository.findNearby(lat, lng, radiusMeters);
 
     // Map to DTO and calculate distance
@@ -221,7 +379,7 @@ private double distance(double lat1, double lon1, double lat2, double lon2) {
             .map(rank -> {
                 TaxiRankDTO dto = toDTO(rank);
                 if (dto.getLatitude() != null && dto.getLongitude() != null) {
-                    double dist = distance(lat, lng, dto.getLatitude(), dto.getLongitude());
+                    double dist = GeoUtils.haversineMeters(lat, lng, dto.getLatitude(), dto.getLongitude());
                     dto.setDistanceMeters(dist);
                 }
                 return dto;
@@ -230,4 +388,88 @@ private double distance(double lat1, double lon1, double lat2, double lon2) {
             .toList();
 }
 
+    public List<TaxiRankDTO> findNearest(double lat, double lng, int k) {
+        List<RankDistance> nearest;
+        if (spatialIndex.isReady()) {
+            nearest = spatialIndex.findNearest(lat, lng, k);
+        } else {
+            // Cold start: over-fetch from the KNN index and re-rank, since <-> orders by planar degrees
+            nearest = taxiRankRepository.findNearest(lat, lng, k * 2).stream()
+                    .map(rank -> new RankDistance(rank, GeoUtils.haversineMeters(
+                            lat, lng, rank.getLocation().getY(), rank.getLocation().getX())))
+                    .sorted(Comparator.comparingDouble(RankDistance::distanceMeters))
+                    .limit(k)
+                    .toList();
+        }
+
+        return toDistanceDTOs(nearest);
+    }
+
+    /**
+     * One page of ranks within the radius, closest first. Served from the
+     * spatial index when warm; otherwise PostGIS applies LIMIT/OFFSET and
+     * counts matches without loading them. Both paths order by spherical
+     * distance and then id, so they return the same sequence.
+     */
+    public Page<TaxiRankDTO> findNearbyPage(double lat, double lng, double radiusMeters, Pageable pageable) {
+        if (spatialIndex.isReady()) {
+            int total = spatialIndex.countWithinRadius(lat, lng, radiusMeters);
+            int start = (int) Math.min(pageable.getOffset(), total);
+            int end = Math.min(start + pageable.getPageSize(), total);
+            List<RankDistance> upToPage = spatialIndex.findWithinRadius(lat, lng, radiusMeters, null, end);
+            return new PageImpl<>(toDistanceDTOs(upToPage.subList(Math.min(start, upToPage.size()), upToPage.size())),
+                    pageable, total);
+        }
+
+        return taxiRankRepository.findNearbyPage(lat, lng, radiusMeters, pageable)
+                .map(rank -> toDistanceDTO(rank, lat, lng));
+    }
+
+    /**
+     * Keyset page: up to {@code size} ranks that sort after {@code afterId} by
+     * (distance, id). Unlike offsets, deep pages cost the same as the first.
+     */
+    public Slice<TaxiRankDTO> findNearbyAfter(double lat, double lng, double radiusMeters, UUID afterId, int size) {
+        Pageable pageable = PageRequest.of(0, size);
+        List<TaxiRankDTO> content;
+        if (spatialIndex.isReady()) {
+            RankDistance cursor = spatialIndex.distanceTo(afterId, lat, lng)
+                    .or(() -> taxiRankRepository.findById(afterId)
+                            .filter(rank -> rank.getLocation() != null)
+                            .map(rank -> new RankDistance(rank, GeoUtils.haversineMeters(
+                                    lat, lng, rank.getLocation().getY(), rank.getLocation().getX()))))
+                    .orElse(null);
+            if (cursor == null) {
+                return new SliceImpl<>(List.of(), pageable, false);
+            }
+            content = toDistanceDTOs(spatialIndex.findWithinRadius(lat, lng, radiusMeters, cursor, size + 1));
+        } else {
+            content = taxiRankRepository.findNearbyAfter(lat, lng, radiusMeters, afterId, size + 1)
+                    .stream()
+                    .map(rank -> toDistanceDTO(rank, lat, lng))
+                    .toList();
+        }
+
+        boolean hasNext = content.size() > size;
+        return new SliceImpl<>(hasNext ? content.subList(0, size) : content, pageable, hasNext);
+    }
+
+    private List<TaxiRankDTO> toDistanceDTOs(List<RankDistance> matches) {
+        return matches.stream()
+                .map(match -> {
+                    TaxiRankDTO dto = toDTO(match.rank());
+                    dto.setDistanceMeters(match.distanceMeters());
+                    return dto;
+                })
+                .toList();
+    }
+
+    private TaxiRankDTO toDistanceDTO(TaxiRank rank, double lat, double lng) {
+        TaxiRankDTO dto = toDTO(rank);
+        if (dto.getLatitude() != null && dto.getLongitude() != null) {
+            dto.setDistanceMeters(GeoUtils.haversineMeters(lat, lng, dto.getLatitude(), dto.getLongitude()));
+        }
+        return dto;
+    }
+
 }
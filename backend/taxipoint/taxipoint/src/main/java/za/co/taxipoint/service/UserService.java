@@ -1,8 +1,7 @@
 package za.co.taxipoint.service;
 
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import za.co.taxipoint.security.JwtUtil;
+import za.co.taxipoint.dto.AuthTokensDTO;
 import za.co.taxipoint.dto.UserDTO;
 import za.co.taxipoint.dto.UserLoginDTO;
 import za.co.taxipoint.dto.UserRegisterDTO;
@@ -17,15 +16,16 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
-    private final JwtUtil jwtUtil;
+    private final PasswordHashingService passwordHashing;
+    private final AuthTokenService authTokenService;
 
     // The constructor is now correctly configured for dependency injection.
     // Spring will automatically provide the beans for these parameters.
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtUtil jwtUtil) {
+    public UserService(UserRepository userRepository, PasswordHashingService passwordHashing,
+                       AuthTokenService authTokenService) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
-        this.jwtUtil = jwtUtil;
+        this.passwordHashing = passwordHashing;
+        this.authTokenService = authTokenService;
     }
 
     public UserDTO registerUser(UserRegisterDTO dto) {
@@ -37,7 +37,7 @@ public class UserService {
         user.setName(dto.getName());
         user.setSurname(dto.getSurname());
         user.setEmail(dto.getEmail());
-        user.setPasswordHash(passwordEncoder.encode(dto.getPassword()));
+        user.setPasswordHash(passwordHashing.encode(dto.getPassword()));
 
         if ("mbongeniroyce@gmail.com".equalsIgnoreCase(dto.getEmail())) {
             user.setRole("ROLE_ADMIN");
@@ -63,7 +63,7 @@ public class UserService {
     }
 
     if (dto.getPassword() != null && !dto.getPassword().isEmpty()) {
-        user.setPasswordHash(passwordEncoder.encode(dto.getPassword()));
+        user.setPasswordHash(passwordHashing.encode(dto.getPassword()));
     }
 
     if (dto.getNotifications() != null) user.setNotifications(dto.getNotifications());
@@ -80,11 +80,11 @@ public void updatePassword(Long id, String oldPassword, String newPassword) {
     User user = userRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-    if (!passwordEncoder.matches(oldPassword, user.getPasswordHash())) {
+    if (!passwordHashing.matches(oldPassword, user.getPasswordHash())) {
         throw new IllegalArgumentException("Old password is incorrect");
     }
 
-    user.setPasswordHash(passwordEncoder.encode(newPassword));
+    user.setPasswordHash(passwordHashing.encode(newPassword));
     userRepository.save(user);
 }
 
@@ -95,18 +95,29 @@ public void updatePassword(Long id, String oldPassword, String newPassword) {
                 .orElseThrow(() -> new IllegalArgumentException("Invalid credentials"));
 
         System.out.println("User found: " + user.getEmail());
-        boolean matches = passwordEncoder.matches(dto.getPassword(), user.getPasswordHash());
+        boolean matches = passwordHashing.matches(dto.getPassword(), user.getPasswordHash());
         System.out.println("Password matches? " + matches);
 
         if (!matches) {
             throw new IllegalArgumentException("Invalid credentials");
         }
 
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole());
-       // System.out.println("Generated token: " + token);
+        // Re-hash with the current algorithm and cost while the plain password is at hand
+        if (passwordHashing.needsUpgrade(user.getPasswordHash())) {
+            try {
+                user.setPasswordHash(passwordHashing.encode(dto.getPassword()));
+                user = userRepository.save(user);
+            } catch (PasswordHashingBusyException e) {
+                // The old hash still works; the upgrade is retried on the next login
+            }
+        }
+
+        AuthTokensDTO tokens = authTokenService.issue(user);
 
         UserDTO userDTO = toDTO(user);
-        userDTO.setToken(token);
+        userDTO.setToken(tokens.getToken());
+        userDTO.setRefreshToken(tokens.getRefreshToken());
+        userDTO.setTokenExpiresIn(tokens.getExpiresIn());
 
         return userDTO;
     }
@@ -4,3 +4,155 @@ ALTER TABLE IF EXISTS taxi_ranks
 UPDATE taxi_ranks
 SET active = TRUE
 WHERE active IS NULL;
+
+-- KNN (<->) ordering for /api/taxi-ranks/nearest
+CREATE INDEX IF NOT EXISTS idx_taxi_ranks_location
+    ON taxi_ranks USING GIST (location);
+
+-- ST_DWithin/ST_Distance on CAST(location AS geography) for radius queries and their pagination
+CREATE INDEX IF NOT EXISTS idx_taxi_ranks_location_geography
+    ON taxi_ranks USING GIST ((location::geography));
+
+-- Ranked text search for /api/taxi-ranks/search and the assistant context.
+-- search_vector drives full-text matching and relevance; search_text backs
+-- substring matches through a trigram index. Both are maintained by Postgres.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE IF EXISTS taxi_ranks
+    ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(district, '')), 'B') ||
+        setweight(to_tsvector('simple', coalesce(routes_served::text, '')), 'B') ||
+        setweight(to_tsvector('simple', coalesce(address, '')), 'C')
+    ) STORED;
+
+ALTER TABLE IF EXISTS taxi_ranks
+    ADD COLUMN IF NOT EXISTS search_text TEXT GENERATED ALWAYS AS (
+        lower(coalesce(name, '') || ' ' || coalesce(address, '') || ' ' ||
+              coalesce(district, '') || ' ' || coalesce(routes_served::text, ''))
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_taxi_ranks_search_vector
+    ON taxi_ranks USING GIN (search_vector);
+
+CREATE INDEX IF NOT EXISTS idx_taxi_ranks_search_text_trgm
+    ON taxi_ranks USING GIN (search_text gin_trgm_ops);
+
+-- Case-insensitive name lookup when a MISSING_RANK correction is approved.
+-- Not unique: existing case variants must not stop the index being built.
+DROP INDEX IF EXISTS uk_taxi_ranks_lower_name;
+
+CREATE INDEX IF NOT EXISTS idx_taxi_ranks_lower_name
+    ON taxi_ranks (lower(name));
+
+-- Catalogue versioning for /api/taxi-ranks/catalogue. Every rank write bumps
+-- the single version row in its own transaction and stamps the rank's
+-- change_seq with it; the row lock makes versions follow commit order.
+ALTER TABLE IF EXISTS taxi_ranks
+    ADD COLUMN IF NOT EXISTS change_seq BIGINT;
+
+CREATE TABLE IF NOT EXISTS taxi_rank_catalogue_version (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    version BIGINT NOT NULL
+);
+
+INSERT INTO taxi_rank_catalogue_version (id, version)
+SELECT 1, COALESCE(MAX(change_seq), 0) FROM taxi_ranks
+ON CONFLICT (id) DO NOTHING;
+
+-- Rows written outside the application get one fresh version together
+UPDATE taxi_rank_catalogue_version
+SET version = version + 1
+WHERE id = 1 AND EXISTS (SELECT 1 FROM taxi_ranks WHERE change_seq IS NULL);
+
+UPDATE taxi_ranks
+SET change_seq = (SELECT version FROM taxi_rank_catalogue_version WHERE id = 1)
+WHERE change_seq IS NULL;
+
+DROP SEQUENCE IF EXISTS taxi_rank_change_seq;
+
+CREATE INDEX IF NOT EXISTS idx_taxi_ranks_change_seq
+    ON taxi_ranks (change_seq);
+
+-- Bounding-box lookups of unresolved incidents for /api/tiles
+CREATE INDEX IF NOT EXISTS idx_incidents_location
+    ON incidents USING GIST (location);
+
+-- Geocoding retries. Existing rows start with no failed attempts; the partial
+-- index serves the backfill sweep over incidents still missing an address.
+ALTER TABLE IF EXISTS incidents
+    ADD COLUMN IF NOT EXISTS geocode_attempts INTEGER DEFAULT 0;
+
+ALTER TABLE IF EXISTS incidents
+    ADD COLUMN IF NOT EXISTS geocode_retry_at TIMESTAMP;
+
+UPDATE incidents
+SET geocode_attempts = 0
+WHERE geocode_attempts IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_incidents_missing_address_retry_at
+    ON incidents (geocode_retry_at)
+    WHERE resolved = false AND formatted_address IS NULL;
+
+-- Incident expiry. Rows from before expires_at existed get the old fixed 48h
+-- lifetime; the partial index serves both the read predicate and the sweep.
+ALTER TABLE IF EXISTS incidents
+    ADD COLUMN IF NOT EXISTS category VARCHAR(20);
+
+ALTER TABLE IF EXISTS incidents
+    ADD COLUMN IF NOT EXISTS expires_at TIMESTAMP;
+
+UPDATE incidents
+SET expires_at = created_at + INTERVAL '48 hours'
+WHERE expires_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_incidents_unresolved_expires_at
+    ON incidents (expires_at)
+    WHERE resolved = false;
+
+-- Keyset pagination of /api/incidents on (created_at, id), with and without the resolved filter
+CREATE INDEX IF NOT EXISTS idx_incidents_resolved_created_at
+    ON incidents (resolved, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_incidents_created_at
+    ON incidents (created_at DESC, id DESC);
+
+-- Refresh-token family revocation (reuse detection, logout) and per-user revocation on password reset
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family_id
+    ON refresh_tokens (family_id);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_email
+    ON refresh_tokens (email)
+    WHERE revoked_at IS NULL;
+
+-- Reload of live revocations and purging of expired ones
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires_at
+    ON revoked_tokens (expires_at);
+
+-- Shared rate-limit buckets for ratelimit.store=postgres (Bucket4j serialized state)
+CREATE TABLE IF NOT EXISTS rate_limit_buckets (
+    id BIGINT PRIMARY KEY,
+    state BYTEA
+);
+
+-- Idempotency keys of batched votes, so replayed offline queues are applied once
+CREATE TABLE IF NOT EXISTS correction_vote_receipts (
+    voter_user_id BIGINT NOT NULL,
+    idempotency_key VARCHAR(64) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (voter_user_id, idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_correction_vote_receipts_created_at
+    ON correction_vote_receipts (created_at);
+
+-- Moderation queue: keyset pages on (created_at, id) per status, and the
+-- priority sort on the same expression as CorrectionSubmission.reviewPriority
+CREATE INDEX IF NOT EXISTS idx_correction_submissions_status_created_at
+    ON correction_submissions (status, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_correction_submissions_status_priority
+    ON correction_submissions (status, GREATEST(confirmations_count * 3, rejections_count * 10) DESC, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_correction_submissions_rank_id
+    ON correction_submissions (rank_id);
@@ -0,0 +1,89 @@
+package za.co.taxipoint.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import za.co.taxipoint.dto.TaxiRankDTO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactRankCodecTest {
+
+    private ObjectMapper objectMapper;
+    private CompactRankCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        codec = new CompactRankCodec(objectMapper);
+    }
+
+    @Test
+    void testEncode_RoundTripsListPayload() {
+        // Given a page of ranks with every field populated
+        List<TaxiRankDTO> ranks = CompactRankSamples.ranks(20, new Random(7));
+        List<CompactRank> expected = ranks.stream().map(CompactRank::from).toList();
+
+        // When encoded and decoded
+        CompactRankCodec.Payload decoded = codec.decode(codec.encode(
+                new CompactRankCodec.Payload(CompactRankCodec.Kind.LIST, 0, false, true, expected, List.of())));
+
+        // Then nothing is lost beyond the documented precision
+        assertTrue(decoded.hasNext());
+        assertEquals(expected, decoded.ranks());
+    }
+
+    @Test
+    void testEncode_CatalogueCarriesVersionAndRemovedIds() {
+        String removed = UUID.randomUUID().toString();
+        CompactRankCodec.Payload decoded = codec.decode(codec.encode(
+                new CompactRankCodec.Payload(CompactRankCodec.Kind.CATALOGUE, 42, false, false, List.of(), List.of(removed))));
+
+        assertEquals(CompactRankCodec.Kind.CATALOGUE, decoded.kind());
+        assertEquals(42, decoded.version());
+        assertEquals(List.of(removed), decoded.removed());
+    }
+
+    @Test
+    void testIsSelectedFor_FollowsJsonFirstNegotiation() {
+        assertTrue(CompactRankHttpMessageConverter.isSelectedFor(CompactRankCodec.MEDIA_TYPE));
+        assertTrue(CompactRankHttpMessageConverter.isSelectedFor(CompactRankCodec.MEDIA_TYPE + ", application/json;q=0.5"));
+        assertFalse(CompactRankHttpMessageConverter.isSelectedFor("application/json, " + CompactRankCodec.MEDIA_TYPE));
+        assertFalse(CompactRankHttpMessageConverter.isSelectedFor("*/*"));
+        assertFalse(CompactRankHttpMessageConverter.isSelectedFor(null));
+    }
+
+    /**
+     * Size comparison against the JSON the rank list endpoints return today,
+     * raw and gzipped. Encode timings live in CompactRankCodecBenchmark
+     * (mvn -Pbenchmark test-compile exec:exec).
+     */
+    @Test
+    void testEncode_SmallerThanJson() throws IOException {
+        List<TaxiRankDTO> ranks = CompactRankSamples.ranks(500, new Random(42));
+        CompactRankCodec.Payload payload = new CompactRankCodec.Payload(CompactRankCodec.Kind.LIST, 0, false, false,
+                ranks.stream().map(CompactRank::from).toList(), List.of());
+
+        byte[] json = objectMapper.writeValueAsBytes(ranks);
+        byte[] compact = codec.encode(payload);
+
+        assertTrue(compact.length * 2 < json.length);
+        assertTrue(gzip(compact).length < gzip(json).length);
+    }
+
+    private byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,62 @@
+package za.co.taxipoint.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.BindException;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.NestedExceptionUtils;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitPropertiesTest {
+
+    @Test
+    void testPolicies_DefaultsWithoutConfiguration() {
+        RateLimitProperties properties = bind(Map.of());
+
+        RateLimitProperties.Policy login = properties.getPolicies().get("login");
+        assertEquals("POST", login.getMethod());
+        assertEquals("/api/users/login", login.getPath());
+        assertEquals(5, login.getCapacity());
+        assertEquals(4, properties.getPolicies().size());
+        assertFalse(properties.getPolicies().containsKey("register"));
+    }
+
+    @Test
+    void testPolicies_PartialOverrideKeepsOtherFields() {
+        RateLimitProperties properties = bind(Map.of("ratelimit.policies.login.capacity", "10"));
+
+        RateLimitProperties.Policy login = properties.getPolicies().get("login");
+        assertEquals(10, login.getCapacity());
+        assertEquals("POST", login.getMethod());
+        assertEquals("/api/users/login", login.getPath());
+        assertEquals(Duration.ofMinutes(10), login.getPeriod());
+        assertEquals("Too many login attempts. Please try again later.", login.getMessage());
+        assertEquals(30, properties.getPolicies().get("refresh").getCapacity());
+    }
+
+    @Test
+    void testPolicies_NewPolicyNeedsEveryField() {
+        RateLimitProperties properties = bind(Map.of(
+                "ratelimit.policies.incidents.method", "POST",
+                "ratelimit.policies.incidents.path", "/api/incidents",
+                "ratelimit.policies.incidents.capacity", "20",
+                "ratelimit.policies.incidents.period", "1m"));
+
+        RateLimitProperties.Policy incidents = properties.getPolicies().get("incidents");
+        assertEquals(20, incidents.getCapacity());
+        assertEquals("Too many requests. Please try again later.", incidents.getMessage());
+
+        BindException error = assertThrows(BindException.class,
+                () -> bind(Map.of("ratelimit.policies.incidents.capacity", "20")));
+        assertTrue(NestedExceptionUtils.getMostSpecificCause(error).getMessage().contains("ratelimit.policies.incidents"));
+    }
+
+    private RateLimitProperties bind(Map<String, String> values) {
+        return new Binder(new MapConfigurationPropertySource(values))
+                .bindOrCreate("ratelimit", RateLimitProperties.class);
+    }
+}
@@ -0,0 +1,64 @@
+package za.co.taxipoint.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.core.env.SystemEnvironmentPropertySource;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebSocketConfigTest {
+
+    private final WebApplicationContextRunner contextRunner = new WebApplicationContextRunner()
+            .withUserConfiguration(WebSocketConfig.class);
+
+    @Test
+    void testConfigureMessageBroker_SimpleByDefault() {
+        contextRunner.run(context -> {
+            assertTrue(context.getBean("simpleBrokerMessageHandler") instanceof SimpleBrokerMessageHandler);
+            assertFalse(context.getBean("stompBrokerRelayMessageHandler") instanceof StompBrokerRelayMessageHandler);
+        });
+    }
+
+    @Test
+    void testConfigureMessageBroker_RelayFromComposeEnvironment() {
+        Map<String, Object> environment = Map.of(
+                "REALTIME_BROKER_MODE", "relay",
+                "REALTIME_BROKER_RELAY_HOST", "broker",
+                "REALTIME_BROKER_RELAY_PORT", "61699",
+                "REALTIME_BROKER_LOGIN", "artemis",
+                "REALTIME_BROKER_PASSCODE", "secret");
+        contextRunner
+                .withInitializer(context -> context.getEnvironment().getPropertySources()
+                        .addFirst(new SystemEnvironmentPropertySource("compose", environment)))
+                .run(context -> {
+                    StompBrokerRelayMessageHandler relay =
+                            context.getBean("stompBrokerRelayMessageHandler", StompBrokerRelayMessageHandler.class);
+                    assertEquals("broker", relay.getRelayHost());
+                    assertEquals(61699, relay.getRelayPort());
+                    assertEquals("artemis", relay.getClientLogin());
+                    assertEquals("secret", relay.getClientPasscode());
+                    assertEquals("artemis", relay.getSystemLogin());
+                    assertEquals("secret", relay.getSystemPasscode());
+                    assertFalse(context.getBean("simpleBrokerMessageHandler") instanceof SimpleBrokerMessageHandler);
+                });
+    }
+
+    @Test
+    void testConfigureMessageBroker_SeparateClientCredentialsWin() {
+        contextRunner
+                .withPropertyValues(
+                        "realtime.broker.mode=relay",
+                        "realtime.broker.login=artemis",
+                        "realtime.broker.client-login=browser")
+                .run(context -> {
+                    StompBrokerRelayMessageHandler relay =
+                            context.getBean("stompBrokerRelayMessageHandler", StompBrokerRelayMessageHandler.class);
+                    assertEquals("browser", relay.getClientLogin());
+                    assertEquals("artemis", relay.getSystemLogin());
+                });
+    }
+}
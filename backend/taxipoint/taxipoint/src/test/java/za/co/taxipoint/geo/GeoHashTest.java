@@ -0,0 +1,29 @@
+package za.co.taxipoint.geo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoHashTest {
+
+    @Test
+    void testEncode_KnownReferencePoint() {
+        assertEquals("u4pruydqqvj", GeoHash.encode(57.64911, 10.40744, 11));
+    }
+
+    @Test
+    void testEncode_NearbyPointsShareCell() {
+        // Two points a few metres apart near Bree Street taxi rank, Johannesburg
+        String first = GeoHash.encode(-26.200010, 28.040010, 8);
+        String second = GeoHash.encode(-26.200030, 28.040030, 8);
+
+        assertEquals(first, second);
+        assertEquals(8, first.length());
+    }
+
+    @Test
+    void testEncode_InvalidPrecision() {
+        assertThrows(IllegalArgumentException.class, () -> GeoHash.encode(0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> GeoHash.encode(0, 0, 13));
+    }
+}
@@ -0,0 +1,35 @@
+package za.co.taxipoint.geo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TileMathTest {
+
+    @Test
+    void testPointToTile_Johannesburg() {
+        assertEquals(591, (int) TileMath.longitudeToTileX(28.0473, 10));
+        assertEquals(589, (int) TileMath.latitudeToTileY(-26.2041, 10));
+    }
+
+    @Test
+    void testTileBounds_ContainTheirPoints() {
+        // Given the zoom 10 tile holding Johannesburg
+        double west = TileMath.tileToLongitude(591, 10);
+        double east = TileMath.tileToLongitude(592, 10);
+        double north = TileMath.tileToLatitude(589, 10);
+        double south = TileMath.tileToLatitude(590, 10);
+
+        // Then the point lies inside its bounds
+        assertTrue(west <= 28.0473 && 28.0473 < east);
+        assertTrue(south <= -26.2041 && -26.2041 < north);
+    }
+
+    @Test
+    void testIsValid_RejectsOutOfRangeTiles() {
+        assertTrue(TileMath.isValid(0, 0, 0));
+        assertFalse(TileMath.isValid(0, 1, 0));
+        assertFalse(TileMath.isValid(-1, 0, 0));
+        assertFalse(TileMath.isValid(TileMath.MAX_ZOOM + 1, 0, 0));
+    }
+}
@@ -0,0 +1,62 @@
+package za.co.taxipoint.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import za.co.taxipoint.model.TaxiRank;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DestinationIndexTest {
+
+    private DestinationIndex index;
+    private TaxiRank bree;
+    private TaxiRank noord;
+
+    @BeforeEach
+    void setUp() {
+        bree = rank("Bree Taxi Rank", List.of("Soweto", "Randburg"), Map.of("Soweto", 15.0));
+        noord = rank("Noord Taxi Rank", List.of("Soweto via Baragwanath", "Alexandra"), Map.of());
+
+        index = new DestinationIndex();
+        index.rebuild(List.of(bree, noord));
+    }
+
+    @Test
+    void testFindServing_MatchesRoutesContainingEveryWord() {
+        List<DestinationIndex.Match> matches = index.findServing("soweto");
+
+        assertEquals(2, matches.size());
+        assertEquals(15.0, matches.stream()
+                .filter(match -> match.rank() == bree)
+                .findFirst().orElseThrow()
+                .fares().match("soweto").orElseThrow().fare());
+    }
+
+    @Test
+    void testFindServing_WordsMustShareOneRoute() {
+        // "Randburg" and "Soweto" are both served by Bree, but not by a single route
+        assertTrue(index.findServing("Soweto Randburg").isEmpty());
+        assertEquals(1, index.findServing("Baragwanath Soweto").size());
+    }
+
+    @Test
+    void testUpsert_DropsRoutesNoLongerServed() {
+        noord.setRoutesServed(List.of("Alexandra"));
+        index.upsert(noord);
+
+        assertEquals(List.of(bree), index.findServing("soweto").stream().map(DestinationIndex.Match::rank).toList());
+    }
+
+    private TaxiRank rank(String name, List<String> routes, Map<String, Double> fares) {
+        TaxiRank rank = new TaxiRank();
+        rank.setId(UUID.randomUUID());
+        rank.setName(name);
+        rank.setRoutesServed(routes);
+        rank.setRouteFares(fares);
+        return rank;
+    }
+}
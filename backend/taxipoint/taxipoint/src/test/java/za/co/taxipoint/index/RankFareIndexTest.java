@@ -0,0 +1,41 @@
+package za.co.taxipoint.index;
+
+import org.junit.jupiter.api.Test;
+import za.co.taxipoint.model.TaxiRank;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankFareIndexTest {
+
+    @Test
+    void testCache_KeepsCompiledFaresUntilRankChanges() {
+        RankFareIndex index = new RankFareIndex();
+        TaxiRank rank = rank(Map.of("Soweto", 15.0));
+
+        RankFares cached = index.cache(rank);
+
+        assertSame(cached, index.get(rank.getId()).orElseThrow());
+        assertSame(cached, index.cache(rank(rank.getId(), Map.of("Soweto", 99.0))));
+
+        index.upsert(rank(rank.getId(), Map.of("Soweto", 16.0)));
+        assertEquals(16.0, index.get(rank.getId()).orElseThrow().match("soweto").orElseThrow().fare());
+
+        index.remove(rank.getId());
+        assertTrue(index.get(rank.getId()).isEmpty());
+    }
+
+    private TaxiRank rank(Map<String, Double> routeFares) {
+        return rank(UUID.randomUUID(), routeFares);
+    }
+
+    private TaxiRank rank(UUID id, Map<String, Double> routeFares) {
+        TaxiRank rank = new TaxiRank();
+        rank.setId(id);
+        rank.setName("Bree Taxi Rank");
+        rank.setRouteFares(routeFares);
+        return rank;
+    }
+}
@@ -0,0 +1,71 @@
+package za.co.taxipoint.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import za.co.taxipoint.model.TaxiRank;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankFaresTest {
+
+    private RankFares fares;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, Double> routeFares = new LinkedHashMap<>();
+        routeFares.put(" Soweto ", 15.0);
+        routeFares.put("Soweto via Baragwanath", 17.5);
+        routeFares.put("Alexandra", 14.0);
+
+        TaxiRank rank = new TaxiRank();
+        rank.setId(UUID.randomUUID());
+        rank.setName("Bree Taxi Rank");
+        rank.setRouteFares(routeFares);
+        fares = RankFares.compile(rank);
+    }
+
+    @Test
+    void testMatch_ExactIgnoresCaseAndWhitespace() {
+        RankFares.FareMatch match = fares.match("SOWETO").orElseThrow();
+
+        assertEquals(15.0, match.fare());
+        assertEquals(RankFares.MatchType.EXACT, match.matchType());
+        assertEquals("ZAR", fares.getCurrency());
+    }
+
+    @Test
+    void testMatch_TokenOverlapPrefersClosestRoute() {
+        // Given a destination that names both words of the longer route
+        RankFares.FareMatch match = fares.match("Baragwanath, Soweto").orElseThrow();
+
+        // Then the route sharing the most words wins over plain "Soweto"
+        assertEquals("Soweto via Baragwanath", match.route());
+        assertEquals(RankFares.MatchType.TOKENS, match.matchType());
+    }
+
+    @Test
+    void testMatch_FuzzyAbsorbsTypos() {
+        RankFares.FareMatch match = fares.match("Alexnadra").orElseThrow();
+
+        assertEquals(14.0, match.fare());
+        assertEquals(RankFares.MatchType.FUZZY, match.matchType());
+    }
+
+    @Test
+    void testFareFor_OnlyTheNamedRoute() {
+        assertEquals(17.5, fares.fareFor("soweto via BARAGWANATH").orElseThrow().fare());
+        // match() would fall through to a looser tier here; fareFor must not
+        assertTrue(fares.match("Soweto Baragwanath").isPresent());
+        assertTrue(fares.fareFor("Soweto Baragwanath").isEmpty());
+    }
+
+    @Test
+    void testMatch_NoFareForUnknownDestination() {
+        assertTrue(fares.match("Durban").isEmpty());
+        assertTrue(fares.match("   ").isEmpty());
+    }
+}
@@ -0,0 +1,176 @@
+package za.co.taxipoint.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import za.co.taxipoint.model.TaxiRank;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankSpatialIndexTest {
+
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+
+    private RankSpatialIndex index;
+    private TaxiRank bree;
+    private TaxiRank noord;
+    private TaxiRank pretoria;
+
+    @BeforeEach
+    void setUp() {
+        bree = rank("Bree Taxi Rank", -26.2005, 28.0380);
+        noord = rank("Noord Taxi Rank", -26.1985, 28.0480);
+        pretoria = rank("Bloed Street Taxi Rank", -25.7420, 28.1900);
+
+        index = new RankSpatialIndex();
+        index.rebuild(List.of(bree, noord, pretoria));
+    }
+
+    @Test
+    void testIsReady_OnlyAfterRebuild() {
+        assertFalse(new RankSpatialIndex().isReady());
+        assertTrue(index.isReady());
+    }
+
+    @Test
+    void testFindWithinRadius_SortedByDistance() {
+        // Given a point right next to Bree
+        List<RankDistance> matches = index.findWithinRadius(-26.2000, 28.0390, 5000);
+
+        // Then both Johannesburg ranks match, closest first, and Pretoria is excluded
+        assertEquals(2, matches.size());
+        assertEquals(bree.getId(), matches.get(0).rank().getId());
+        assertEquals(noord.getId(), matches.get(1).rank().getId());
+        assertTrue(matches.get(0).distanceMeters() < matches.get(1).distanceMeters());
+    }
+
+    @Test
+    void testFindWithinRadius_LargeRadiusScansOccupiedCells() {
+        List<RankDistance> matches = index.findWithinRadius(-26.2000, 28.0390, 100000);
+
+        assertEquals(3, matches.size());
+        assertEquals(pretoria.getId(), matches.get(2).rank().getId());
+    }
+
+    @Test
+    void testUpsert_MovesRankBetweenCells() {
+        // When Noord is moved to Pretoria
+        noord.setLocation(geometryFactory.createPoint(new Coordinate(28.1910, -25.7430)));
+        index.upsert(noord);
+
+        // Then it is no longer found in Johannesburg
+        List<RankDistance> matches = index.findWithinRadius(-26.2000, 28.0390, 5000);
+        assertEquals(1, matches.size());
+        assertEquals(bree.getId(), matches.get(0).rank().getId());
+    }
+
+    @Test
+    void testRemove_DropsRank() {
+        index.remove(bree.getId());
+
+        List<RankDistance> matches = index.findWithinRadius(-26.2000, 28.0390, 5000);
+        assertEquals(1, matches.size());
+        assertEquals(noord.getId(), matches.get(0).rank().getId());
+    }
+
+    @Test
+    void testFindNearest_ReturnsKClosest() {
+        List<RankDistance> nearest = index.findNearest(-26.2000, 28.0390, 2);
+
+        assertEquals(2, nearest.size());
+        assertEquals(bree.getId(), nearest.get(0).rank().getId());
+        assertEquals(noord.getId(), nearest.get(1).rank().getId());
+    }
+
+    @Test
+    void testFindNearest_FewerRanksThanK() {
+        // Pretoria is ~50 km away, far beyond the first rings, and must still be found
+        List<RankDistance> nearest = index.findNearest(-26.2000, 28.0390, 10);
+
+        assertEquals(3, nearest.size());
+        assertEquals(pretoria.getId(), nearest.get(2).rank().getId());
+    }
+
+    @Test
+    void testFindWithinRadius_KeysetPagesMatchFullOrder() {
+        Random random = new Random(7);
+        List<TaxiRank> ranks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            ranks.add(rank("Rank " + i, -26.3 + random.nextDouble() * 0.2, 27.9 + random.nextDouble() * 0.2));
+        }
+        index.rebuild(ranks);
+
+        List<RankDistance> expected = index.findWithinRadius(-26.2, 28.0, 8000);
+        List<RankDistance> paged = new ArrayList<>();
+        RankDistance cursor = null;
+        List<RankDistance> page;
+        do {
+            page = index.findWithinRadius(-26.2, 28.0, 8000, cursor, 7);
+            paged.addAll(page);
+            cursor = page.isEmpty() ? null : index.distanceTo(page.get(page.size() - 1).rank().getId(), -26.2, 28.0).orElseThrow();
+        } while (page.size() == 7);
+
+        assertEquals(expected.stream().map(match -> match.rank().getId()).toList(),
+                paged.stream().map(match -> match.rank().getId()).toList());
+        assertEquals(expected.size(), index.countWithinRadius(-26.2, 28.0, 8000));
+    }
+
+    @Test
+    void testCompareUuids_UnsignedLikePostgres() {
+        UUID low = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        UUID high = UUID.fromString("ffffffff-0000-0000-0000-000000000000");
+
+        assertTrue(RankSpatialIndex.compareUuids(low, high) < 0);
+        assertTrue(low.toString().compareTo(high.toString()) < 0);
+    }
+
+    @Test
+    void testFindNearest_MatchesBruteForce() {
+        Random random = new Random(42);
+        List<TaxiRank> ranks = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            ranks.add(rank("Rank " + i, -26.5 + random.nextDouble(), 27.5 + random.nextDouble()));
+        }
+        index.rebuild(ranks);
+
+        for (int query = 0; query < 20; query++) {
+            double lat = -26.5 + random.nextDouble();
+            double lng = 27.5 + random.nextDouble();
+
+            List<Double> expected = index.findWithinRadius(lat, lng, 500000).stream()
+                    .map(RankDistance::distanceMeters)
+                    .sorted(Comparator.naturalOrder())
+                    .limit(5)
+                    .toList();
+            List<Double> actual = index.findNearest(lat, lng, 5).stream()
+                    .map(RankDistance::distanceMeters)
+                    .toList();
+
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void testFindNearest_EmptyIndex() {
+        RankSpatialIndex empty = new RankSpatialIndex();
+        empty.rebuild(List.of());
+
+        assertTrue(empty.findNearest(-26.2, 28.0, 5).isEmpty());
+    }
+
+    private TaxiRank rank(String name, double latitude, double longitude) {
+        TaxiRank rank = new TaxiRank();
+        rank.setId(UUID.randomUUID());
+        rank.setName(name);
+        rank.setLocation(geometryFactory.createPoint(new Coordinate(longitude, latitude)));
+        return rank;
+    }
+}
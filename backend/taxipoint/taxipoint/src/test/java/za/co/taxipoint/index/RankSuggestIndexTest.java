@@ -0,0 +1,82 @@
+package za.co.taxipoint.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import za.co.taxipoint.dto.RankSuggestionDTO;
+import za.co.taxipoint.model.TaxiRank;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankSuggestIndexTest {
+
+    private RankSuggestIndex index;
+    private TaxiRank bree;
+    private TaxiRank noord;
+
+    @BeforeEach
+    void setUp() {
+        bree = rank("Bree Taxi Rank", "Johannesburg CBD", List.of("Soweto", "Braamfontein"), Map.of("Soweto", 15.0));
+        noord = rank("Noord Taxi Rank", "Johannesburg CBD", List.of("Soweto", "Alexandra"), Map.of());
+
+        index = new RankSuggestIndex();
+        index.rebuild(List.of(bree, noord));
+    }
+
+    @Test
+    void testSuggest_PrefixMatchesRouteSharedByRanks() {
+        // When typing the start of a destination served by both ranks
+        List<RankSuggestionDTO> suggestions = index.suggest("sow", 5);
+
+        // Then the route is suggested once, counting both ranks
+        assertEquals(1, suggestions.size());
+        assertEquals("ROUTE", suggestions.get(0).getType());
+        assertEquals("Soweto", suggestions.get(0).getText());
+        assertEquals(2, suggestions.get(0).getRankCount());
+    }
+
+    @Test
+    void testSuggest_EveryWordMustMatch() {
+        List<RankSuggestionDTO> suggestions = index.suggest("taxi no", 5);
+
+        assertEquals(1, suggestions.size());
+        assertEquals(noord.getId().toString(), suggestions.get(0).getRankId());
+    }
+
+    @Test
+    void testSuggest_IgnoresCaseAndAccents() {
+        assertEquals("Bree Taxi Rank", index.suggest("BRÉE", 5).get(0).getText());
+    }
+
+    @Test
+    void testUpsert_ReplacesOldTerms() {
+        // Given Bree stops serving Braamfontein
+        bree.setRoutesServed(List.of("Soweto"));
+        index.upsert(bree);
+
+        // Then the route disappears, while the shared Soweto route keeps both ranks
+        assertTrue(index.suggest("braam", 5).isEmpty());
+        assertEquals(2, index.suggest("soweto", 5).get(0).getRankCount());
+    }
+
+    @Test
+    void testRemove_DropsTermsOnlyUsedByThatRank() {
+        index.remove(noord.getId());
+
+        assertTrue(index.suggest("alex", 5).isEmpty());
+        assertEquals(1, index.suggest("soweto", 5).get(0).getRankCount());
+    }
+
+    private TaxiRank rank(String name, String district, List<String> routes, Map<String, Double> fares) {
+        TaxiRank rank = new TaxiRank();
+        rank.setId(UUID.randomUUID());
+        rank.setName(name);
+        rank.setDistrict(district);
+        rank.setRoutesServed(routes);
+        rank.setRouteFares(fares);
+        return rank;
+    }
+}
@@ -0,0 +1,103 @@
+package za.co.taxipoint.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import za.co.taxipoint.event.TaxiRankChangedEvent;
+import za.co.taxipoint.model.TaxiRank;
+import za.co.taxipoint.repository.TaxiRankRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TaxiRankIndexerTest {
+
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+
+    private TaxiRankRepository taxiRankRepository;
+    private RankSpatialIndex index;
+    private TaxiRankIndexer indexer;
+    private UUID bree;
+
+    @BeforeEach
+    void setUp() {
+        taxiRankRepository = mock(TaxiRankRepository.class);
+        index = new RankSpatialIndex();
+        indexer = new TaxiRankIndexer(taxiRankRepository, List.of(index));
+        bree = UUID.randomUUID();
+    }
+
+    @Test
+    void testReload_ReplaysChangesCommittedDuringSnapshot() {
+        // Given the rank moves while the reload is still reading the old row
+        TaxiRank stale = rank(bree, 1L, -26.2005, 28.0380);
+        TaxiRank moved = rank(bree, 2L, -25.7420, 28.1900);
+        when(taxiRankRepository.findAllActive()).thenAnswer(invocation -> {
+            indexer.onTaxiRankChanged(new TaxiRankChangedEvent(moved, stale.getLocation()));
+            return List.of(stale);
+        });
+
+        indexer.reload();
+
+        // Then the index keeps the moved location rather than the snapshot's
+        assertTrue(index.findWithinRadius(-26.2005, 28.0380, 1000).isEmpty());
+        assertEquals(1, index.findWithinRadius(-25.7420, 28.1900, 1000).size());
+    }
+
+    @Test
+    void testReload_ReplaysDeactivationDuringSnapshot() {
+        TaxiRank stale = rank(bree, 1L, -26.2005, 28.0380);
+        TaxiRank deactivated = rank(bree, 2L, -26.2005, 28.0380);
+        deactivated.setActive(false);
+        when(taxiRankRepository.findAllActive()).thenAnswer(invocation -> {
+            indexer.onTaxiRankChanged(new TaxiRankChangedEvent(deactivated, deactivated.getLocation()));
+            return List.of(stale);
+        });
+
+        indexer.reload();
+
+        assertTrue(index.distanceTo(bree, -26.2005, 28.0380).isEmpty());
+    }
+
+    @Test
+    void testReload_SkipsChangesOlderThanSnapshot() {
+        // Given another instance wrote a newer version that the snapshot already holds
+        TaxiRank older = rank(bree, 1L, -26.2005, 28.0380);
+        TaxiRank newer = rank(bree, 2L, -25.7420, 28.1900);
+        when(taxiRankRepository.findAllActive()).thenAnswer(invocation -> {
+            indexer.onTaxiRankChanged(new TaxiRankChangedEvent(older, null));
+            return List.of(newer);
+        });
+
+        indexer.reload();
+
+        assertEquals(1, index.findWithinRadius(-25.7420, 28.1900, 1000).size());
+        assertTrue(index.findWithinRadius(-26.2005, 28.0380, 1000).isEmpty());
+    }
+
+    @Test
+    void testOnTaxiRankChanged_AppliedImmediatelyOutsideReload() {
+        indexer.onTaxiRankChanged(new TaxiRankChangedEvent(rank(bree, 1L, -26.2005, 28.0380), null));
+
+        assertTrue(index.distanceTo(bree, -26.2005, 28.0380).isPresent());
+    }
+
+    private TaxiRank rank(UUID id, Long changeSeq, double latitude, double longitude) {
+        TaxiRank rank = new TaxiRank();
+        rank.setId(id);
+        rank.setName("Bree Taxi Rank");
+        rank.setChangeSeq(changeSeq);
+        rank.setLocation(point(latitude, longitude));
+        return rank;
+    }
+
+    private Point point(double latitude, double longitude) {
+        return geometryFactory.createPoint(new Coordinate(longitude, latitude));
+    }
+}
@@ -0,0 +1,115 @@
+package za.co.taxipoint.repository;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Geometry;
+import za.co.taxipoint.model.Incident;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings("unchecked")
+class IncidentSpecificationsTest {
+
+    private final LocalDateTime now = LocalDateTime.of(2024, 5, 1, 8, 0);
+
+    private Root<Incident> root;
+    private CriteriaQuery<?> query;
+    private CriteriaBuilder cb;
+    private Path<Object> resolved;
+    private Path<Object> expiresAt;
+    private Path<Object> createdAt;
+    private Path<Object> id;
+    private Path<Object> location;
+
+    @BeforeEach
+    void setUp() {
+        root = mock(Root.class);
+        query = mock(CriteriaQuery.class);
+        cb = mock(CriteriaBuilder.class);
+        resolved = mock(Path.class);
+        expiresAt = mock(Path.class);
+        createdAt = mock(Path.class);
+        id = mock(Path.class);
+        location = mock(Path.class);
+        doReturn(resolved).when(root).get("resolved");
+        doReturn(expiresAt).when(root).get("expiresAt");
+        doReturn(createdAt).when(root).get("createdAt");
+        doReturn(id).when(root).get("id");
+        doReturn(location).when(root).get("location");
+    }
+
+    @Test
+    void testActive_UnresolvedAndNotExpired() {
+        Predicate unresolved = mock(Predicate.class);
+        Predicate noExpiry = mock(Predicate.class);
+        Predicate notYetExpired = mock(Predicate.class);
+        Predicate either = mock(Predicate.class);
+        Predicate both = mock(Predicate.class);
+        doReturn(unresolved).when(cb).isFalse(any());
+        when(cb.isNull(expiresAt)).thenReturn(noExpiry);
+        doReturn(notYetExpired).when(cb).greaterThan(any(Expression.class), eq(now));
+        when(cb.or(noExpiry, notYetExpired)).thenReturn(either);
+        when(cb.and(unresolved, either)).thenReturn(both);
+
+        assertSame(both, IncidentSpecifications.active(now).toPredicate(root, query, cb));
+        verify(cb).isFalse((Expression<Boolean>) (Expression<?>) resolved);
+        verify(cb).greaterThan((Expression<LocalDateTime>) (Expression<?>) expiresAt, now);
+    }
+
+    @Test
+    void testCreatedSince_InclusiveLowerBound() {
+        Predicate since = mock(Predicate.class);
+        doReturn(since).when(cb).greaterThanOrEqualTo(any(Expression.class), eq(now));
+
+        assertSame(since, IncidentSpecifications.createdSince(now).toPredicate(root, query, cb));
+        verify(cb).greaterThanOrEqualTo((Expression<LocalDateTime>) (Expression<?>) createdAt, now);
+    }
+
+    @Test
+    void testBefore_OlderOrSameTimeWithLowerId() {
+        Predicate older = mock(Predicate.class);
+        Predicate sameTime = mock(Predicate.class);
+        Predicate lowerId = mock(Predicate.class);
+        Predicate tieBreak = mock(Predicate.class);
+        Predicate after = mock(Predicate.class);
+        doReturn(older).when(cb).lessThan(any(Expression.class), eq(now));
+        when(cb.equal(createdAt, now)).thenReturn(sameTime);
+        doReturn(lowerId).when(cb).lessThan(any(Expression.class), eq(981L));
+        when(cb.and(sameTime, lowerId)).thenReturn(tieBreak);
+        when(cb.or(older, tieBreak)).thenReturn(after);
+
+        assertSame(after, IncidentSpecifications.before(now, 981).toPredicate(root, query, cb));
+        verify(cb).lessThan((Expression<LocalDateTime>) (Expression<?>) createdAt, now);
+        verify(cb).lessThan((Expression<Long>) (Expression<?>) id, 981L);
+    }
+
+    @Test
+    void testWithinBounds_EnvelopeInLngLatOrder() {
+        Expression<Geometry> envelope = mock(Expression.class);
+        Expression<Boolean> intersects = mock(Expression.class);
+        Predicate inside = mock(Predicate.class);
+        doAnswer(invocation -> mock(Expression.class)).when(cb).literal(any());
+        when(cb.function(eq("ST_MakeEnvelope"), eq(Geometry.class), any(Expression[].class))).thenReturn(envelope);
+        when(cb.function(eq("ST_Intersects"), eq(Boolean.class), any(Expression[].class))).thenReturn(intersects);
+        when(cb.isTrue(intersects)).thenReturn(inside);
+
+        assertSame(inside, IncidentSpecifications.withinBounds(-26.3, 27.9, -26.1, 28.1).toPredicate(root, query, cb));
+        var order = inOrder(cb);
+        order.verify(cb).literal(27.9);
+        order.verify(cb).literal(-26.3);
+        order.verify(cb).literal(28.1);
+        order.verify(cb).literal(-26.1);
+        order.verify(cb).literal(4326);
+        verify(cb).function("ST_Intersects", Boolean.class, location, envelope);
+    }
+}
@@ -0,0 +1,46 @@
+package za.co.taxipoint.security;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "a_long_32_character_default_secret_for_local_dev";
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, 3600000, 100, 300);
+
+    @Test
+    void testParseVerified_ReturnsSubjectAndRole() {
+        String token = jwtUtil.generateToken("thandi@example.com", "ROLE_ADMIN");
+
+        Claims claims = jwtUtil.parseVerified(token).orElseThrow();
+
+        assertEquals("thandi@example.com", claims.getSubject());
+        assertEquals("ROLE_ADMIN", claims.get("role", String.class));
+    }
+
+    @Test
+    void testParseVerified_CachedSignatureDoesNotVouchForOtherPayload() {
+        // Given a verified, now cached token
+        String token = jwtUtil.generateToken("thandi@example.com", "ROLE_USER");
+        assertTrue(jwtUtil.parseVerified(token).isPresent());
+
+        // When its payload is swapped while keeping the signature
+        String[] parts = token.split("\\.");
+        String forged = parts[0] + "." + jwtUtil.generateToken("x@example.com", "ROLE_ADMIN").split("\\.")[1] + "." + parts[2];
+
+        // Then the forgery is still rejected
+        assertTrue(jwtUtil.parseVerified(forged).isEmpty());
+    }
+
+    @Test
+    void testParseVerified_RejectsOtherKeysAndGarbage() {
+        JwtUtil other = new JwtUtil("another_32_character_secret_value_for_tests", 3600000, 100, 300);
+
+        assertTrue(jwtUtil.parseVerified(other.generateToken("a@example.com", "ROLE_USER")).isEmpty());
+        assertTrue(jwtUtil.parseVerified("not.a.token").isEmpty());
+        assertTrue(jwtUtil.parseVerified("").isEmpty());
+    }
+}
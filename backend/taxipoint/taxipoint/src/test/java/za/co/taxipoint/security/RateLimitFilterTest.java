@@ -0,0 +1,66 @@
+package za.co.taxipoint.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import za.co.taxipoint.config.RateLimitProperties;
+import za.co.taxipoint.service.RateLimitingService;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class RateLimitFilterTest {
+
+    @Test
+    void testLogin_RejectedOnceCapacityIsUsed() throws Exception {
+        // Given a login policy of two attempts per minute
+        RateLimitFilter filter = filterWith(2);
+
+        // When the same client tries three times
+        assertEquals(200, post(filter, "/api/users/login", "10.0.0.1").getStatus());
+        assertEquals(200, post(filter, "/api/users/login", "10.0.0.1").getStatus());
+        MockHttpServletResponse limited = post(filter, "/api/users/login", "10.0.0.1");
+
+        // Then the third is refused with a retry hint
+        assertEquals(429, limited.getStatus());
+        assertNotNull(limited.getHeader("Retry-After"));
+        assertTrue(Long.parseLong(limited.getHeader("Retry-After")) > 0);
+        assertEquals("Too many login attempts. Please try again later.", limited.getContentAsString());
+    }
+
+    @Test
+    void testPolicies_AreIndependentPerClientAndRoute() throws Exception {
+        // Given one client has used up its login budget
+        RateLimitFilter filter = filterWith(1);
+        post(filter, "/api/users/login", "10.0.0.1");
+        assertEquals(429, post(filter, "/api/users/login", "10.0.0.1").getStatus());
+
+        // Then other clients, other limited routes and unlimited routes still pass
+        assertEquals(200, post(filter, "/api/users/login", "10.0.0.2").getStatus());
+        assertEquals(200, post(filter, "/api/users/forgot-password", "10.0.0.1").getStatus());
+        assertEquals(200, post(filter, "/api/incidents", "10.0.0.1").getStatus());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RateLimitFilter filterWith(long loginCapacity) {
+        RateLimitProperties properties = new RateLimitProperties();
+        RateLimitProperties.Policy login = properties.getPolicies().get("login");
+        login.setCapacity(loginCapacity);
+        login.setPeriod(Duration.ofMinutes(1));
+        RateLimitingService service = new RateLimitingService(properties, mock(ObjectProvider.class));
+        return new RateLimitFilter(properties, service);
+    }
+
+    private static MockHttpServletResponse post(RateLimitFilter filter, String path, String clientIp) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr(clientIp);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
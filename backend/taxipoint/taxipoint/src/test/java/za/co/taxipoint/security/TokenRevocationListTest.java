@@ -0,0 +1,96 @@
+package za.co.taxipoint.security;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import za.co.taxipoint.model.RevokedToken;
+import za.co.taxipoint.repository.RevokedTokenRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationListTest {
+
+    private static final String SECRET = "a_long_32_character_default_secret_for_local_dev";
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, 900000, 100, 300);
+    private RevokedTokenRepository repository;
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RevokedTokenRepository.class);
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of());
+        revocationList = new TokenRevocationList(repository, jwtUtil, 16);
+        revocationList.load();
+    }
+
+    @Test
+    void testIsRevoked_SingleTokenOnly() {
+        // Given two sessions for the same user
+        Claims first = claimsFor("thandi@example.com");
+        Claims second = claimsFor("thandi@example.com");
+
+        // When one of them logs out
+        revocationList.revokeToken(first.getId(), first.getExpiration());
+
+        // Then only that token is rejected
+        assertTrue(revocationList.isRevoked(first));
+        assertFalse(revocationList.isRevoked(second));
+        verify(repository).save(any(RevokedToken.class));
+    }
+
+    @Test
+    void testIsRevoked_UserCutoffSparesLaterTokens() throws InterruptedException {
+        // Given a token issued before a password reset
+        Claims before = claimsFor("sipho@example.com");
+        revocationList.revokeAllForUser("sipho@example.com");
+
+        // iat has second precision, so the next login must land in a later second
+        Thread.sleep(1100);
+        Claims after = claimsFor("sipho@example.com");
+
+        // Then the old token is rejected, the new one and other users are not
+        assertTrue(revocationList.isRevoked(before));
+        assertFalse(revocationList.isRevoked(after));
+        assertFalse(revocationList.isRevoked(claimsFor("lerato@example.com")));
+    }
+
+    @Test
+    void testReload_PicksUpRevocationsFromOtherInstances() {
+        // Given a revocation written by another instance
+        Claims claims = claimsFor("thandi@example.com");
+        RevokedToken row = new RevokedToken();
+        row.setTokenKey(TokenRevocationList.TOKEN_PREFIX + claims.getId());
+        row.setRevokedAt(LocalDateTime.now());
+        row.setExpiresAt(LocalDateTime.now().plusMinutes(15));
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of(row));
+
+        // When the table is reloaded
+        revocationList.reload();
+
+        // Then
+        assertTrue(revocationList.isRevoked(claims));
+    }
+
+    @Test
+    void testRevoke_GrowsPastExpectedEntries() {
+        // Given more revocations than the filter was sized for
+        List<Claims> revoked = java.util.stream.IntStream.range(0, 40)
+                .mapToObj(i -> claimsFor("user" + i + "@example.com"))
+                .toList();
+        revoked.forEach(claims -> revocationList.revokeToken(claims.getId(), claims.getExpiration()));
+
+        // Then none of them slip through after the filter is rebuilt
+        assertEquals(40, revocationList.size());
+        revoked.forEach(claims -> assertTrue(revocationList.isRevoked(claims)));
+    }
+
+    private Claims claimsFor(String email) {
+        return jwtUtil.parseVerified(jwtUtil.generateToken(email, "ROLE_USER")).orElseThrow();
+    }
+}
@@ -0,0 +1,326 @@
+package za.co.taxipoint.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import za.co.taxipoint.dto.CorrectionBulkReviewItem;
+import za.co.taxipoint.dto.CorrectionBulkReviewRequest;
+import za.co.taxipoint.dto.CorrectionReviewResultDTO;
+import za.co.taxipoint.dto.CorrectionVoteBatchItem;
+import za.co.taxipoint.dto.CorrectionVoteBatchRequest;
+import za.co.taxipoint.dto.CorrectionVoteRequest;
+import za.co.taxipoint.dto.CorrectionVoteResultDTO;
+import za.co.taxipoint.model.CorrectionStatus;
+import za.co.taxipoint.model.CorrectionSubmission;
+import za.co.taxipoint.model.CorrectionType;
+import za.co.taxipoint.model.CorrectionVote;
+import za.co.taxipoint.model.CorrectionVoteType;
+import za.co.taxipoint.model.ReviewDecision;
+import za.co.taxipoint.model.TaxiRank;
+import za.co.taxipoint.model.User;
+import za.co.taxipoint.repository.CorrectionSubmissionRepository;
+import za.co.taxipoint.repository.CorrectionVoteBatchRepository;
+import za.co.taxipoint.repository.CorrectionVoteBatchRepository.VoteChange;
+import za.co.taxipoint.repository.CorrectionVoteRepository;
+import za.co.taxipoint.repository.TaxiRankRepository;
+import za.co.taxipoint.repository.UserRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CorrectionServiceTest {
+
+    @Mock
+    private CorrectionSubmissionRepository submissionRepository;
+
+    @Mock
+    private CorrectionVoteRepository voteRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TaxiRankRepository taxiRankRepository;
+
+    @Mock
+    private TaxiRankService taxiRankService;
+
+    @Mock
+    private CorrectionVoteBatchRepository voteBatchRepository;
+
+    @InjectMocks
+    private CorrectionService correctionService;
+
+    private final UUID submissionId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        User voter = new User();
+        voter.setId(7L);
+        voter.setEmail("voter@example.com");
+        when(userRepository.findByEmail("voter@example.com")).thenReturn(Optional.of(voter));
+    }
+
+    @Test
+    void testVote_ChangedVoteMovesBothCounters() {
+        // Given the voter previously confirmed
+        CorrectionVote existing = new CorrectionVote();
+        existing.setVoteType(CorrectionVoteType.CONFIRM);
+        when(voteRepository.findForUpdate(submissionId, 7L)).thenReturn(Optional.of(existing));
+        when(submissionRepository.addVoteCounts(eq(submissionId), anyInt(), anyInt(), any(), anyCollection())).thenReturn(1);
+        when(submissionRepository.findById(submissionId)).thenReturn(Optional.of(submission(3, 1)));
+
+        // When they switch to reject
+        correctionService.vote(submissionId, "voter@example.com", request(CorrectionVoteType.REJECT));
+
+        // Then one confirmation moves to the rejections, without recounting
+        verify(submissionRepository).addVoteCounts(eq(submissionId), eq(-1), eq(1), any(), anyCollection());
+        verify(submissionRepository, never()).save(any());
+    }
+
+    @Test
+    void testVote_LocksSubmissionBeforeVoteRow() {
+        when(voteRepository.findForUpdate(submissionId, 7L)).thenReturn(Optional.empty());
+        when(submissionRepository.addVoteCounts(eq(submissionId), anyInt(), anyInt(), any(), anyCollection())).thenReturn(1);
+        when(submissionRepository.findById(submissionId)).thenReturn(Optional.of(submission(1, 0)));
+
+        correctionService.vote(submissionId, "voter@example.com", request(CorrectionVoteType.CONFIRM));
+
+        // Same order as voteBatch, so a single and a batched vote by one user cannot deadlock
+        var order = inOrder(voteBatchRepository, voteRepository, submissionRepository);
+        order.verify(voteBatchRepository).lockSubmissions(java.util.Set.of(submissionId));
+        order.verify(voteRepository).findForUpdate(submissionId, 7L);
+        order.verify(voteRepository).save(any(CorrectionVote.class));
+        order.verify(submissionRepository).addVoteCounts(eq(submissionId), eq(1), eq(0), any(), anyCollection());
+    }
+
+    @Test
+    void testVote_ThirdRejectionFlagsSubmission() {
+        // Given a new voter and a submission that now holds three rejections
+        when(voteRepository.findForUpdate(submissionId, 7L)).thenReturn(Optional.empty());
+        when(submissionRepository.addVoteCounts(eq(submissionId), eq(0), eq(1), any(), anyCollection())).thenReturn(1);
+        when(submissionRepository.findById(submissionId)).thenReturn(Optional.of(submission(0, 3)));
+
+        // When
+        var result = correctionService.vote(submissionId, "voter@example.com", request(CorrectionVoteType.REJECT));
+
+        // Then
+        assertEquals(CorrectionStatus.FLAGGED, result.getStatus());
+        assertEquals(3, result.getRejectionsCount());
+    }
+
+    @Test
+    void testVote_FinalizedSubmissionIsRefused() {
+        // Given the conditional counter update matches no open submission
+        when(voteRepository.findForUpdate(submissionId, 7L)).thenReturn(Optional.empty());
+        when(submissionRepository.addVoteCounts(eq(submissionId), anyInt(), anyInt(), any(), anyCollection())).thenReturn(0);
+        when(submissionRepository.existsById(submissionId)).thenReturn(true);
+
+        // Then
+        assertThrows(IllegalStateException.class,
+                () -> correctionService.vote(submissionId, "voter@example.com", request(CorrectionVoteType.CONFIRM)));
+    }
+
+    @Test
+    void testVoteBatch_ReportsOutcomePerItem() {
+        // Given a replayed key, a vote that brings the first submission to three rejections
+        // and a vote on a submission that has since been finalized
+        UUID finalizedId = UUID.randomUUID();
+        CorrectionSubmission finalized = submission(finalizedId, 10, 0);
+        finalized.setStatus(CorrectionStatus.APPROVED);
+        when(voteBatchRepository.recordReceipts(eq(7L), anyList(), any())).thenReturn(new boolean[]{false, true, true});
+        when(voteBatchRepository.findVotes(eq(7L), anyCollection())).thenReturn(Map.of());
+        when(voteBatchRepository.applyCounts(anyList(), any())).thenReturn(List.of(submissionId));
+        when(submissionRepository.findAllById(anyCollection())).thenReturn(List.of(submission(0, 3), finalized));
+
+        CorrectionVoteBatchRequest request = new CorrectionVoteBatchRequest();
+        request.setVotes(List.of(
+                batchItem(submissionId, CorrectionVoteType.CONFIRM, "a"),
+                batchItem(submissionId, CorrectionVoteType.REJECT, "b"),
+                batchItem(finalizedId, CorrectionVoteType.CONFIRM, "c")));
+
+        // When
+        List<CorrectionVoteResultDTO> results = correctionService.voteBatch("voter@example.com", request);
+
+        // Then the replay changes nothing, and only the open submission's vote is stored
+        assertEquals(CorrectionVoteResultDTO.Outcome.DUPLICATE, results.get(0).getOutcome());
+        assertEquals(CorrectionVoteResultDTO.Outcome.APPLIED, results.get(1).getOutcome());
+        assertEquals(CorrectionStatus.FLAGGED, results.get(1).getSubmission().getStatus());
+        assertEquals(CorrectionVoteResultDTO.Outcome.FINALIZED, results.get(2).getOutcome());
+        assertNull(results.get(2).getSubmission());
+        verify(voteBatchRepository).upsertVotes(eq(7L), eq("voter@example.com"),
+                eq(List.of(new VoteChange(submissionId, null, CorrectionVoteType.REJECT))), any());
+    }
+
+    @Test
+    void testVoteBatch_LocksSubmissionsBeforeReadingPreviousVotes() {
+        // Given a first vote, where there is no vote row yet that could be locked
+        when(voteBatchRepository.recordReceipts(eq(7L), anyList(), any())).thenReturn(new boolean[]{true});
+        when(voteBatchRepository.findVotes(eq(7L), anyCollection())).thenReturn(Map.of());
+        when(voteBatchRepository.applyCounts(anyList(), any())).thenReturn(List.of(submissionId));
+        when(submissionRepository.findAllById(anyCollection())).thenReturn(List.of(submission(0, 0)));
+
+        CorrectionVoteBatchRequest request = new CorrectionVoteBatchRequest();
+        request.setVotes(List.of(batchItem(submissionId, CorrectionVoteType.CONFIRM, "a")));
+
+        // When
+        correctionService.voteBatch("voter@example.com", request);
+
+        // Then a concurrent batch waits on the submission row before it can see the vote as new
+        var order = inOrder(voteBatchRepository);
+        order.verify(voteBatchRepository).lockSubmissions(java.util.Set.of(submissionId));
+        order.verify(voteBatchRepository).findVotes(7L, java.util.Set.of(submissionId));
+        order.verify(voteBatchRepository).applyCounts(anyList(), any());
+    }
+
+    @Test
+    void testVote_ApprovedMissingRankMergesIntoNearbyDuplicate() {
+        // Given a tenth confirmation for a missing rank that is a respelling of a rank 40 m away
+        CorrectionSubmission missing = submission(10, 0);
+        missing.setCorrectionType(CorrectionType.MISSING_RANK);
+        missing.setDetails(new java.util.LinkedHashMap<>(Map.of(
+                "name", "Bree St Taxi Rank", "address", "Bree Street", "district", "Johannesburg CBD",
+                "latitude", -26.2003, "longitude", 28.0401)));
+        TaxiRank existing = new TaxiRank();
+        existing.setName("Bree Street Taxi Rank");
+        when(voteRepository.findForUpdate(submissionId, 7L)).thenReturn(Optional.empty());
+        when(submissionRepository.addVoteCounts(eq(submissionId), anyInt(), anyInt(), any(), anyCollection())).thenReturn(1);
+        when(submissionRepository.findById(submissionId)).thenReturn(Optional.of(missing));
+        when(taxiRankRepository.findByNameIgnoreCase("Bree St Taxi Rank")).thenReturn(Optional.empty());
+        when(taxiRankRepository.findSimilarNearby(eq("Bree St Taxi Rank"), eq(-26.2003), eq(28.0401), anyDouble(), anyDouble()))
+                .thenReturn(Optional.of(existing));
+
+        // When
+        var result = correctionService.vote(submissionId, "voter@example.com", request(CorrectionVoteType.CONFIRM));
+
+        // Then the existing rank is updated under its own name, without scanning the catalogue
+        assertEquals(CorrectionStatus.APPROVED, result.getStatus());
+        verify(taxiRankService).save(existing);
+        assertEquals("Bree Street Taxi Rank", existing.getName());
+        assertEquals("Johannesburg CBD", existing.getDistrict());
+        verify(taxiRankRepository, never()).findAll();
+    }
+
+    @Test
+    void testQueueCursor_RoundTripsThroughToken() {
+        CorrectionService.QueueCursor cursor = new CorrectionService.QueueCursor(
+                27, java.time.LocalDateTime.of(2024, 5, 1, 7, 45, 12, 345_000_000), submissionId);
+
+        assertEquals(cursor, CorrectionService.QueueCursor.decode(cursor.encode()));
+        assertThrows(IllegalArgumentException.class, () -> CorrectionService.QueueCursor.decode("not-a-cursor"));
+    }
+
+    @Test
+    void testQueueFilter_RejectsClosedStatusAndBadRatio() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CorrectionService.QueueFilter(CorrectionStatus.APPROVED, null, null, null, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CorrectionService.QueueFilter(null, null, null, null, 1.5, null));
+    }
+
+    @Test
+    void testReviewBatch_PatchesEachRankOnceInSubmissionOrder() {
+        // Given two fare corrections for one rank, the later one last, and an unknown submission
+        UUID rankId = UUID.randomUUID();
+        TaxiRank rank = new TaxiRank();
+        rank.setId(rankId);
+        CorrectionSubmission earlier = fareCorrection(rankId, 18.0, java.time.LocalDateTime.of(2024, 6, 1, 8, 0));
+        CorrectionSubmission later = fareCorrection(rankId, 20.0, java.time.LocalDateTime.of(2024, 6, 2, 8, 0));
+        UUID unknownId = UUID.randomUUID();
+        when(userRepository.findByEmail("admin@example.com")).thenReturn(Optional.of(new User()));
+        when(submissionRepository.findAllLockedByIdIn(anyCollection())).thenReturn(List.of(later, earlier));
+        when(taxiRankRepository.findAllById(anyCollection())).thenReturn(List.of(rank));
+
+        CorrectionBulkReviewRequest request = new CorrectionBulkReviewRequest();
+        request.setMode(CorrectionBulkReviewRequest.Mode.BEST_EFFORT);
+        request.setReviews(List.of(
+                reviewItem(later.getId()), reviewItem(unknownId), reviewItem(earlier.getId())));
+
+        // When
+        List<CorrectionReviewResultDTO> results = correctionService.reviewBatch("admin@example.com", request);
+
+        // Then the rank is written once with the newest fare, and the unknown item is reported
+        verify(taxiRankService, times(1)).save(rank);
+        assertEquals(20.0, rank.getRouteFares().get("Soweto"));
+        assertEquals(CorrectionReviewResultDTO.Outcome.APPROVED, results.get(0).getOutcome());
+        assertEquals(CorrectionReviewResultDTO.Outcome.NOT_FOUND, results.get(1).getOutcome());
+        assertEquals(CorrectionStatus.APPROVED, earlier.getStatus());
+        verify(submissionRepository, never()).save(any());
+    }
+
+    @Test
+    void testReviewBatch_AllOrNothingAppliesNothingOnFinalizedItem() {
+        // Given one open and one already rejected submission
+        CorrectionSubmission open = fareCorrection(UUID.randomUUID(), 18.0, java.time.LocalDateTime.now());
+        CorrectionSubmission closed = fareCorrection(UUID.randomUUID(), 25.0, java.time.LocalDateTime.now());
+        closed.setStatus(CorrectionStatus.REJECTED);
+        when(userRepository.findByEmail("admin@example.com")).thenReturn(Optional.of(new User()));
+        when(submissionRepository.findAllLockedByIdIn(anyCollection())).thenReturn(List.of(open, closed));
+
+        CorrectionBulkReviewRequest request = new CorrectionBulkReviewRequest();
+        request.setReviews(List.of(reviewItem(open.getId()), reviewItem(closed.getId())));
+
+        // When
+        BulkReviewRejectedException rejected = assertThrows(BulkReviewRejectedException.class,
+                () -> correctionService.reviewBatch("admin@example.com", request));
+
+        // Then
+        assertEquals(CorrectionReviewResultDTO.Outcome.SKIPPED, rejected.getResults().get(0).getOutcome());
+        assertEquals(CorrectionReviewResultDTO.Outcome.FINALIZED, rejected.getResults().get(1).getOutcome());
+        assertEquals(CorrectionStatus.PENDING, open.getStatus());
+        verifyNoInteractions(taxiRankService);
+    }
+
+    private static CorrectionSubmission fareCorrection(UUID rankId, double fare, java.time.LocalDateTime createdAt) {
+        CorrectionSubmission submission = submission(UUID.randomUUID(), 0, 0);
+        submission.setCorrectionType(CorrectionType.WRONG_FARE);
+        submission.setRankId(rankId);
+        submission.setCreatedAt(createdAt);
+        submission.setDetails(new java.util.LinkedHashMap<>(Map.of("route", "Soweto", "fare", fare)));
+        return submission;
+    }
+
+    private static CorrectionBulkReviewItem reviewItem(UUID id) {
+        CorrectionBulkReviewItem item = new CorrectionBulkReviewItem();
+        item.setSubmissionId(id);
+        item.setDecision(ReviewDecision.APPROVE);
+        return item;
+    }
+
+    private CorrectionSubmission submission(int confirmations, int rejections) {
+        return submission(submissionId, confirmations, rejections);
+    }
+
+    private static CorrectionSubmission submission(UUID id, int confirmations, int rejections) {
+        CorrectionSubmission submission = new CorrectionSubmission();
+        submission.setId(id);
+        submission.setCorrectionType(CorrectionType.OTHER);
+        submission.setStatus(CorrectionStatus.PENDING);
+        submission.setConfirmationsCount(confirmations);
+        submission.setRejectionsCount(rejections);
+        return submission;
+    }
+
+    private static CorrectionVoteBatchItem batchItem(UUID id, CorrectionVoteType voteType, String idempotencyKey) {
+        CorrectionVoteBatchItem item = new CorrectionVoteBatchItem();
+        item.setSubmissionId(id);
+        item.setVoteType(voteType);
+        item.setIdempotencyKey(idempotencyKey);
+        return item;
+    }
+
+    private static CorrectionVoteRequest request(CorrectionVoteType voteType) {
+        CorrectionVoteRequest request = new CorrectionVoteRequest();
+        request.setVoteType(voteType);
+        return request;
+    }
+}
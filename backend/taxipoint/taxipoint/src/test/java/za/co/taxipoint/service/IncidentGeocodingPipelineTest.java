@@ -0,0 +1,80 @@
+package za.co.taxipoint.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import za.co.taxipoint.model.Incident;
+import za.co.taxipoint.repository.IncidentRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IncidentGeocodingPipelineTest {
+
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+
+    private IncidentRepository incidentRepository;
+    private GeocodingService geocodingService;
+    private IncidentGeocodingPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        incidentRepository = mock(IncidentRepository.class);
+        geocodingService = mock(GeocodingService.class);
+        pipeline = new IncidentGeocodingPipeline(
+                incidentRepository,
+                geocodingService,
+                mock(IncidentService.class),
+                mock(SimpMessagingTemplate.class),
+                mock(LiveUpdatePublisher.class),
+                10, 0, 6, 300_000, 86_400_000
+        );
+    }
+
+    @Test
+    void testRetryDelay_DoublesUpToCap() {
+        assertEquals(Duration.ofMinutes(5), pipeline.retryDelay(1));
+        assertEquals(Duration.ofMinutes(10), pipeline.retryDelay(2));
+        assertEquals(Duration.ofMinutes(160), pipeline.retryDelay(6));
+        assertEquals(Duration.ofDays(1), pipeline.retryDelay(20));
+    }
+
+    @Test
+    void testGeocode_FailedLookupSchedulesRetry() {
+        Incident incident = incident(3);
+        when(incidentRepository.findById(7L)).thenReturn(Optional.of(incident));
+        when(geocodingService.resolveAddress(anyDouble(), anyDouble())).thenReturn(Optional.empty());
+
+        LocalDateTime before = LocalDateTime.now();
+        pipeline.geocode(7L);
+
+        ArgumentCaptor<LocalDateTime> retryAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(incidentRepository).recordGeocodeFailure(eq(7L), retryAt.capture());
+        assertFalse(retryAt.getValue().isBefore(before.plusMinutes(40)));
+        verify(incidentRepository, never()).updateFormattedAddress(anyLong(), anyString());
+    }
+
+    @Test
+    void testBackfill_SkipsIncidentsOutOfAttempts() {
+        pipeline.backfillMissingAddresses();
+
+        verify(incidentRepository).findUnresolvedIdsMissingAddress(any(LocalDateTime.class), eq(6), any());
+    }
+
+    private Incident incident(int attempts) {
+        Incident incident = new Incident();
+        incident.setId(7L);
+        incident.setLocation(geometryFactory.createPoint(new Coordinate(28.04, -26.2)));
+        incident.setGeocodeAttempts(attempts);
+        return incident;
+    }
+}
@@ -0,0 +1,136 @@
+package za.co.taxipoint.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.repository.Modifying;
+import za.co.taxipoint.config.IncidentProperties;
+import za.co.taxipoint.event.IncidentChangedEvent;
+import za.co.taxipoint.model.Incident;
+import za.co.taxipoint.model.IncidentCategory;
+import za.co.taxipoint.repository.IncidentRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IncidentServiceTest {
+
+    private IncidentRepository incidentRepository;
+    private GeocodingService geocodingService;
+    private ApplicationEventPublisher eventPublisher;
+    private IncidentProperties incidentProperties;
+    private IncidentService incidentService;
+
+    @BeforeEach
+    void setUp() {
+        incidentRepository = mock(IncidentRepository.class);
+        geocodingService = mock(GeocodingService.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        incidentProperties = new IncidentProperties();
+        incidentService = new IncidentService(incidentRepository, geocodingService, eventPublisher, incidentProperties);
+    }
+
+    @Test
+    void testIncidentProperties_DefaultTtlWithoutConfiguration() {
+        IncidentProperties unconfigured = new Binder(new MapConfigurationPropertySource(Map.of()))
+                .bindOrCreate("incidents", IncidentProperties.class);
+
+        assertEquals(Duration.ofHours(48), unconfigured.getDefaultTtl());
+        assertEquals(Duration.ofHours(48), unconfigured.ttlFor(IncidentCategory.ACCIDENT));
+    }
+
+    @Test
+    void testIncidentProperties_CategoryOverride() {
+        IncidentProperties configured = new Binder(new MapConfigurationPropertySource(Map.of(
+                "incidents.ttl.accident", "6h")))
+                .bindOrCreate("incidents", IncidentProperties.class);
+
+        assertEquals(Duration.ofHours(6), configured.ttlFor(IncidentCategory.ACCIDENT));
+        assertEquals(Duration.ofHours(48), configured.ttlFor(null));
+    }
+
+    @Test
+    void testCreateIncident_ExpiresAfterCategoryTtl() {
+        incidentProperties.getTtl().put(IncidentCategory.TRAFFIC, Duration.ofHours(2));
+        when(geocodingService.findCachedAddress(anyDouble(), anyDouble())).thenReturn(Optional.empty());
+        when(incidentRepository.save(any(Incident.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        LocalDateTime before = LocalDateTime.now();
+        Incident incident = incidentService.createIncident("Gridlock", "a@b.c", -26.2, 28.04, IncidentCategory.TRAFFIC);
+
+        assertFalse(incident.getExpiresAt().isBefore(before.plusHours(2)));
+        assertTrue(incident.getExpiresAt().isBefore(before.plusHours(2).plusMinutes(1)));
+    }
+
+    @Test
+    void testAutoResolveExpiredIncidents_PublishesEachExpiredIncident() {
+        Incident first = Incident.builder().id(1L).description("Accident").build();
+        Incident second = Incident.builder().id(2L).description("Protest").build();
+        when(incidentRepository.findExpired(any())).thenReturn(List.of(first, second));
+        when(incidentRepository.resolveExpired(any())).thenReturn(2);
+
+        assertEquals(2, incidentService.autoResolveExpiredIncidents());
+
+        ArgumentCaptor<IncidentChangedEvent> events = ArgumentCaptor.forClass(IncidentChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertTrue(events.getAllValues().stream()
+                .allMatch(event -> event.change() == IncidentChangedEvent.Change.EXPIRED && event.incident().getResolved()));
+        assertEquals(List.of(1L, 2L), events.getAllValues().stream().map(event -> event.incident().getId()).toList());
+    }
+
+    @Test
+    void testResolveExpired_DetachesLoadedIncidents() throws NoSuchMethodException {
+        // The sweep sets resolved on incidents it loaded earlier; they must not be flushed one by one
+        Modifying modifying = IncidentRepository.class.getMethod("resolveExpired", LocalDateTime.class)
+                .getAnnotation(Modifying.class);
+
+        assertTrue(modifying.clearAutomatically());
+    }
+
+    @Test
+    void testAutoResolveExpiredIncidents_NothingExpired() {
+        when(incidentRepository.findExpired(any())).thenReturn(List.of());
+
+        assertEquals(0, incidentService.autoResolveExpiredIncidents());
+        verify(incidentRepository, never()).resolveExpired(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testCursor_RoundTripsThroughToken() {
+        IncidentService.Cursor cursor = new IncidentService.Cursor(LocalDateTime.of(2024, 5, 1, 7, 45, 12, 345_000_000), 981);
+
+        assertEquals(cursor, IncidentService.Cursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void testCursor_RejectsGarbage() {
+        assertThrows(IllegalArgumentException.class, () -> IncidentService.Cursor.decode("not-a-cursor"));
+    }
+
+    @Test
+    void testBounds_ParsesLngLatOrder() {
+        IncidentService.Bounds bounds = IncidentService.Bounds.parse("27.9,-26.3,28.1,-26.1");
+
+        assertEquals(-26.3, bounds.minLat());
+        assertEquals(27.9, bounds.minLng());
+        assertEquals(-26.1, bounds.maxLat());
+        assertEquals(28.1, bounds.maxLng());
+    }
+
+    @Test
+    void testBounds_RejectsInvertedBox() {
+        assertThrows(IllegalArgumentException.class, () -> IncidentService.Bounds.parse("28.1,-26.1,27.9,-26.3"));
+        assertThrows(IllegalArgumentException.class, () -> IncidentService.Bounds.parse("1,2,3"));
+    }
+}
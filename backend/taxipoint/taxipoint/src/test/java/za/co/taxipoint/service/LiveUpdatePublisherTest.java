@@ -0,0 +1,101 @@
+package za.co.taxipoint.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import za.co.taxipoint.dto.IncidentDto;
+import za.co.taxipoint.dto.TaxiRankDTO;
+import za.co.taxipoint.event.IncidentChangedEvent;
+import za.co.taxipoint.event.TaxiRankChangedEvent;
+import za.co.taxipoint.model.Incident;
+import za.co.taxipoint.model.TaxiRank;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LiveUpdatePublisherTest {
+
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+
+    private SimpMessagingTemplate messagingTemplate;
+    private IncidentService incidentService;
+    private TaxiRankService taxiRankService;
+    private LiveUpdatePublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        incidentService = mock(IncidentService.class);
+        taxiRankService = mock(TaxiRankService.class);
+        publisher = new LiveUpdatePublisher(messagingTemplate, incidentService, taxiRankService, 5);
+    }
+
+    @Test
+    void testOnIncidentChanged_SentToAllAndToItsCell() {
+        Incident incident = Incident.builder().id(3L).location(point(-26.2044, 28.0473)).build();
+        IncidentDto dto = new IncidentDto();
+        when(incidentService.toDto(incident)).thenReturn(dto);
+
+        publisher.onIncidentChanged(new IncidentChangedEvent(incident, IncidentChangedEvent.Change.EXPIRED));
+
+        verify(messagingTemplate).convertAndSend(LiveUpdatePublisher.INCIDENTS_TOPIC, (Object) dto);
+        verify(messagingTemplate).convertAndSend(LiveUpdatePublisher.INCIDENT_CELL_TOPIC_PREFIX + publisher.cellOf(-26.2044, 28.0473), (Object) dto);
+        verifyNoMoreInteractions(messagingTemplate);
+    }
+
+    @Test
+    void testOnTaxiRankChanged_MovedRankAnnouncedInBothCells() {
+        TaxiRank rank = rank(-25.7479, 28.2293);
+        TaxiRankDTO dto = new TaxiRankDTO();
+        when(taxiRankService.toDTO(rank)).thenReturn(dto);
+
+        publisher.onTaxiRankChanged(new TaxiRankChangedEvent(rank, point(-26.2044, 28.0473)));
+
+        verify(messagingTemplate).convertAndSend(LiveUpdatePublisher.RANKS_TOPIC, (Object) dto);
+        verify(messagingTemplate).convertAndSend(
+                LiveUpdatePublisher.RANK_CELL_TOPIC_PREFIX + publisher.cellOf(-25.7479, 28.2293), (Object) dto);
+        verify(messagingTemplate).convertAndSend(LiveUpdatePublisher.RANK_CELL_TOPIC_PREFIX + publisher.cellOf(-26.2044, 28.0473), (Object) dto);
+        verifyNoMoreInteractions(messagingTemplate);
+    }
+
+    @Test
+    void testOnTaxiRankChanged_SameCellAnnouncedOnce() {
+        TaxiRank rank = rank(-26.2044, 28.0473);
+        when(taxiRankService.toDTO(rank)).thenReturn(new TaxiRankDTO());
+
+        publisher.onTaxiRankChanged(new TaxiRankChangedEvent(rank, point(-26.2045, 28.0474)));
+
+        verify(messagingTemplate, times(1)).convertAndSend(startsWith(LiveUpdatePublisher.RANK_CELL_TOPIC_PREFIX), any(Object.class));
+    }
+
+    @Test
+    void testOnTaxiRankChanged_NewRankHasNoPreviousCell() {
+        TaxiRank rank = rank(-26.2044, 28.0473);
+        when(taxiRankService.toDTO(rank)).thenReturn(new TaxiRankDTO());
+
+        TaxiRankChangedEvent event = new TaxiRankChangedEvent(rank, null);
+        publisher.onTaxiRankChanged(event);
+
+        assertFalse(event.moved());
+        verify(messagingTemplate, times(2)).convertAndSend(anyString(), any(Object.class));
+    }
+
+    private TaxiRank rank(double latitude, double longitude) {
+        TaxiRank rank = new TaxiRank();
+        rank.setId(UUID.randomUUID());
+        rank.setName("Rank");
+        rank.setLocation(point(latitude, longitude));
+        return rank;
+    }
+
+    private Point point(double latitude, double longitude) {
+        return geometryFactory.createPoint(new Coordinate(longitude, latitude));
+    }
+}
@@ -0,0 +1,109 @@
+package za.co.taxipoint.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import za.co.taxipoint.dto.MapTileDTO;
+import za.co.taxipoint.dto.TileFeatureDTO;
+import za.co.taxipoint.event.TaxiRankChangedEvent;
+import za.co.taxipoint.geo.TileMath;
+import za.co.taxipoint.index.RankSpatialIndex;
+import za.co.taxipoint.model.TaxiRank;
+import za.co.taxipoint.repository.IncidentRepository;
+import za.co.taxipoint.repository.MapTileRepository;
+import za.co.taxipoint.repository.MapTileRepository.TileCell;
+import za.co.taxipoint.repository.TaxiRankRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MapTileServiceTest {
+
+    private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
+
+    private RankSpatialIndex spatialIndex;
+    private TaxiRankRepository taxiRankRepository;
+    private IncidentRepository incidentRepository;
+    private MapTileRepository mapTileRepository;
+    private MapTileService mapTileService;
+
+    @BeforeEach
+    void setUp() {
+        spatialIndex = new RankSpatialIndex();
+        taxiRankRepository = mock(TaxiRankRepository.class);
+        incidentRepository = mock(IncidentRepository.class);
+        mapTileRepository = mock(MapTileRepository.class);
+        mapTileService = new MapTileService(spatialIndex, taxiRankRepository, incidentRepository, mapTileRepository,
+                100, 300, 13, 8);
+    }
+
+    @Test
+    void testGetTile_LowZoomCountsIncidentsInDatabase() {
+        TaxiRank bree = rank(-26.2005, 28.0380);
+        TaxiRank noord = rank(-26.1985, 28.0480);
+        spatialIndex.rebuild(List.of(bree, noord));
+        int x = (int) TileMath.longitudeToTileX(28.04, 3);
+        int y = (int) TileMath.latitudeToTileY(-26.2, 3);
+        int col = (int) ((TileMath.longitudeToTileX(28.04, 3) - x) * 8);
+        int row = (int) ((TileMath.latitudeToTileY(-26.2, 3) - y) * 8);
+        when(mapTileRepository.countUnresolvedIncidents(eq(3), eq(x), eq(y), eq(8),
+                anyDouble(), anyDouble(), anyDouble(), anyDouble(), any()))
+                .thenReturn(List.of(new TileCell(row, col, 40, -26.2, 28.04, "1", "Flooding")));
+
+        MapTileDTO tile = mapTileService.getTile(3, x, y);
+
+        assertTrue(tile.isClustered());
+        assertEquals(1, tile.getFeatures().size());
+        TileFeatureDTO cluster = tile.getFeatures().get(0);
+        assertEquals("CLUSTER", cluster.getType());
+        assertEquals(2, cluster.getRankCount());
+        assertEquals(40, cluster.getIncidentCount());
+        verify(incidentRepository, never()).findUnresolvedInBounds(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any());
+        verifyNoInteractions(taxiRankRepository);
+    }
+
+    @Test
+    void testGetTile_LonePointKeepsItsIdentity() {
+        spatialIndex.rebuild(List.of());
+        when(mapTileRepository.countUnresolvedIncidents(anyInt(), anyInt(), anyInt(), anyInt(),
+                anyDouble(), anyDouble(), anyDouble(), anyDouble(), any()))
+                .thenReturn(List.of(new TileCell(0, 0, 1, -26.2, 28.04, "17", "Road closed")));
+
+        TileFeatureDTO feature = mapTileService.getTile(2, 2, 2).getFeatures().get(0);
+
+        assertEquals("INCIDENT", feature.getType());
+        assertEquals("17", feature.getId());
+        assertEquals("Road closed", feature.getLabel());
+    }
+
+    @Test
+    void testOnTaxiRankChanged_MovedRankLeavesCachedTile() {
+        TaxiRank rank = rank(-26.2005, 28.0380);
+        spatialIndex.rebuild(List.of(rank));
+        int x = (int) TileMath.longitudeToTileX(28.0380, 16);
+        int y = (int) TileMath.latitudeToTileY(-26.2005, 16);
+        assertEquals(1, mapTileService.getTile(16, x, y).getFeatures().size());
+
+        Point previous = rank.getLocation();
+        rank.setLocation(geometryFactory.createPoint(new Coordinate(28.2293, -25.7479)));
+        spatialIndex.upsert(rank);
+        mapTileService.onTaxiRankChanged(new TaxiRankChangedEvent(rank, previous));
+
+        assertTrue(mapTileService.getTile(16, x, y).getFeatures().isEmpty());
+    }
+
+    private TaxiRank rank(double latitude, double longitude) {
+        TaxiRank rank = new TaxiRank();
+        rank.setId(UUID.randomUUID());
+        rank.setName("Rank");
+        rank.setLocation(geometryFactory.createPoint(new Coordinate(longitude, latitude)));
+        return rank;
+    }
+}
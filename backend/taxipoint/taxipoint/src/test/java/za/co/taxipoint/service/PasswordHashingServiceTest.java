@@ -0,0 +1,89 @@
+package za.co.taxipoint.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import za.co.taxipoint.security.SecurityConfig;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testMatches_RecordsHashTime() {
+        // Given
+        PasswordHashingService hashing = new PasswordHashingService(encoder(4), meterRegistry, 1, 4, 2);
+        String hash = hashing.encode("secret123");
+
+        // When
+        boolean matches = hashing.matches("secret123", hash);
+
+        // Then
+        assertTrue(matches);
+        assertFalse(hashing.matches("wrong", hash));
+        assertEquals(2, meterRegistry.get("taxipoint.password.hash").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void testNeedsUpgrade_LegacyAndLowCostHashes() {
+        // Given hashes from before the {id} prefix and from a lower cost
+        String legacy = new BCryptPasswordEncoder(4).encode("secret123");
+        String lowCost = encoder(4).encode("secret123");
+        PasswordHashingService hashing = new PasswordHashingService(encoder(5), meterRegistry, 1, 4, 2);
+
+        // Then both still verify but are flagged for re-hashing
+        assertTrue(hashing.matches("secret123", legacy));
+        assertTrue(hashing.needsUpgrade(legacy));
+        assertTrue(hashing.matches("secret123", lowCost));
+        assertTrue(hashing.needsUpgrade(lowCost));
+        assertFalse(hashing.needsUpgrade(hashing.encode("secret123")));
+    }
+
+    @Test
+    void testEncode_FullQueueIsRejected() throws Exception {
+        // Given one hashing thread stuck on a slow hash and a queue of one
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder slow = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        PasswordHashingService hashing = new PasswordHashingService(slow, meterRegistry, 1, 1, 3);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> hashing.encode("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> hashing.encode("second"));
+        while (meterRegistry.get("taxipoint.password.queue").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // When a third request arrives
+        PasswordHashingBusyException busy = assertThrows(PasswordHashingBusyException.class,
+                () -> hashing.encode("third"));
+
+        // Then it is refused with a retry hint while the others complete
+        assertEquals(3, busy.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("taxipoint.password.rejected").counter().count());
+        release.countDown();
+        assertNotNull(running.get(5, TimeUnit.SECONDS));
+        assertNotNull(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private static PasswordEncoder encoder(int bcryptStrength) {
+        return new SecurityConfig(null, null).passwordEncoder("bcrypt", bcryptStrength);
+    }
+}
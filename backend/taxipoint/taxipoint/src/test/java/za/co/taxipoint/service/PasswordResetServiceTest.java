@@ -15,6 +15,7 @@ import za.co.taxipoint.repository.PasswordResetTokenRepository;
 import za.co.taxipoint.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -35,6 +36,9 @@ class PasswordResetServiceTest {
     @Mock
     private EmailService emailService;
 
+    @Mock
+    private AuthTokenService authTokenService;
+
     @InjectMocks
     private PasswordResetService passwordResetService;
 
@@ -120,6 +124,51 @@ class PasswordResetServiceTest {
         assertTrue(token.isUsed());
     }
 
+    @Test
+    void testResetPassword_RevokesExistingSessions() {
+        ResetPasswordRequest request = new ResetPasswordRequest();
+        request.setToken("fresh-token");
+        request.setNewPassword("newpassword123");
+        request.setConfirmPassword("newpassword123");
+
+        // Reset tokens expire on the GMT+2 clock, see PasswordResetToken.isExpired
+        PasswordResetToken token = new PasswordResetToken();
+        token.setToken("fresh-token");
+        token.setEmail("test@example.com");
+        token.setExpiryDate(LocalDateTime.now(ZoneId.of("GMT+2")).plusMinutes(10));
+
+        User user = new User();
+        user.setEmail("test@example.com");
+
+        when(tokenRepository.findByToken("fresh-token")).thenReturn(Optional.of(token));
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+        when(passwordEncoder.encode("newpassword123")).thenReturn("encoded-password");
+
+        passwordResetService.resetPassword(request);
+
+        var order = inOrder(userRepository, authTokenService);
+        order.verify(userRepository).save(user);
+        order.verify(authTokenService).revokeAllForUser("test@example.com");
+    }
+
+    @Test
+    void testResetPassword_ExpiredTokenKeepsSessions() {
+        ResetPasswordRequest request = new ResetPasswordRequest();
+        request.setToken("old-token");
+        request.setNewPassword("newpassword123");
+        request.setConfirmPassword("newpassword123");
+
+        PasswordResetToken token = new PasswordResetToken();
+        token.setToken("old-token");
+        token.setEmail("test@example.com");
+        token.setExpiryDate(LocalDateTime.now(ZoneId.of("GMT+2")).minusMinutes(1));
+
+        when(tokenRepository.findByToken("old-token")).thenReturn(Optional.of(token));
+
+        assertThrows(IllegalArgumentException.class, () -> passwordResetService.resetPassword(request));
+        verifyNoInteractions(authTokenService);
+    }
+
     @Test
     void testResetPassword_PasswordsDoNotMatch() {
         // Given
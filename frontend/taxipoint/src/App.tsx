@@ -22,6 +22,7 @@ import Support from "./screens/Support";
 import TaxiRanks from "./screens/TaxiRanks";
 import CorrectionHistory from "./screens/CorrectionHistory";
 import CommuterAssistant from "./screens/CommuterAssistant";
+import { SESSION_EVENT, endSession } from "./lib/session";
 
 // User interface
 export interface User {
@@ -31,6 +32,7 @@ export interface User {
   email: string;
   role: string;
   token: string;
+  refreshToken?: string;
   notifications?: boolean;
   soundAlerts?: boolean;
   autoRefresh?: boolean;
@@ -87,6 +89,16 @@ const MainApp: React.FC = () => {
     setLoading(false);
   }, []);
 
+  // Keep in-memory tokens in step with refreshes done by lib/session
+  useEffect(() => {
+    const onSession = (event: Event) => {
+      const { token, refreshToken } = (event as CustomEvent<{ token: string; refreshToken: string }>).detail;
+      setUser((current) => (current ? { ...current, token, refreshToken } : current));
+    };
+    window.addEventListener(SESSION_EVENT, onSession);
+    return () => window.removeEventListener(SESSION_EVENT, onSession);
+  }, []);
+
   const handleLogin = (userData: any) => {
     const fullUser: User = {
       id: userData.id ?? 0,
@@ -95,6 +107,7 @@ const MainApp: React.FC = () => {
       email: userData.email,
       role: userData.role,
       token: userData.token,
+      refreshToken: userData.refreshToken,
       notifications: userData.notifications ?? true,
       soundAlerts: userData.soundAlerts ?? true,
       autoRefresh: userData.autoRefresh ?? true,
@@ -107,6 +120,7 @@ const MainApp: React.FC = () => {
   };
 
   const handleLogout = () => {
+    void endSession();
     setUser(null);
     localStorage.removeItem("user");
     toast.info("Logged out successfully!");
@@ -0,0 +1,75 @@
+// Geohash cells matching the backend's live-update topics
+// (/topic/incidents/cell/{hash}, /topic/ranks/cell/{hash}); see docs/realtime.md.
+
+const BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+// Must match realtime.cell-precision on the backend
+export const CELL_PRECISION = 5;
+
+export const encodeGeohash = (latitude: number, longitude: number, precision: number = CELL_PRECISION): string => {
+  let minLat = -90, maxLat = 90;
+  let minLng = -180, maxLng = 180;
+  let hash = "";
+  let evenBit = true;
+  let bit = 0;
+  let ch = 0;
+
+  while (hash.length < precision) {
+    if (evenBit) {
+      const mid = (minLng + maxLng) / 2;
+      if (longitude >= mid) {
+        ch = (ch << 1) | 1;
+        minLng = mid;
+      } else {
+        ch = ch << 1;
+        maxLng = mid;
+      }
+    } else {
+      const mid = (minLat + maxLat) / 2;
+      if (latitude >= mid) {
+        ch = (ch << 1) | 1;
+        minLat = mid;
+      } else {
+        ch = ch << 1;
+        maxLat = mid;
+      }
+    }
+    evenBit = !evenBit;
+
+    if (++bit === 5) {
+      hash += BASE32[ch];
+      bit = 0;
+      ch = 0;
+    }
+  }
+  return hash;
+};
+
+/**
+ * Cells covering a lat/lng box, or null when more than maxCells would be
+ * needed; callers then fall back to the topics that carry everything.
+ */
+export const cellsCovering = (
+  south: number,
+  west: number,
+  north: number,
+  east: number,
+  maxCells: number = 64,
+  precision: number = CELL_PRECISION,
+): string[] | null => {
+  const bits = precision * 5;
+  const cellHeight = 180 / 2 ** Math.floor(bits / 2);
+  const cellWidth = 360 / 2 ** Math.ceil(bits / 2);
+  const rows = Math.floor((north + 90) / cellHeight) - Math.floor((south + 90) / cellHeight) + 1;
+  const cols = Math.floor((east + 180) / cellWidth) - Math.floor((west + 180) / cellWidth) + 1;
+  if (rows * cols > maxCells) return null;
+
+  const cells = new Set<string>();
+  for (let row = 0; row < rows; row++) {
+    const latitude = Math.min(north, south + row * cellHeight);
+    for (let col = 0; col < cols; col++) {
+      cells.add(encodeGeohash(latitude, Math.min(east, west + col * cellWidth), precision));
+    }
+  }
+  return [...cells];
+};
@@ -0,0 +1,119 @@
+import { API_BASE_URL } from "../config";
+
+// Access tokens from the backend are short-lived. This wraps window.fetch so
+// every API call carries the newest stored token, and a 401 is retried once
+// after exchanging the refresh token for a fresh pair. Only one tab exchanges
+// at a time; the others pick up the stored pair it wrote.
+
+export const SESSION_EVENT = "taxipoint:session";
+
+interface StoredTokens {
+  token?: string;
+  refreshToken?: string;
+}
+
+const readStoredUser = (): (StoredTokens & Record<string, unknown>) | null => {
+  try {
+    return JSON.parse(localStorage.getItem("user") || "null");
+  } catch {
+    return null;
+  }
+};
+
+const REFRESH_LOCK = "taxipoint:token-refresh";
+
+let pendingRefresh: Promise<string | null> | null = null;
+
+const exchangeRefreshToken = async (baseFetch: typeof fetch, usedRefreshToken?: string): Promise<string | null> => {
+  // Another tab may have rotated the pair while this one waited for the lock;
+  // sending the old refresh token again would look like reuse and revoke the family
+  const stored = readStoredUser();
+  if (!stored?.refreshToken) return null;
+  if (stored.refreshToken !== usedRefreshToken && stored.token) return stored.token;
+
+  const response = await baseFetch(`${API_BASE_URL}/api/users/refresh`, {
+    method: "POST",
+    headers: { "Content-Type": "application/json" },
+    body: JSON.stringify({ refreshToken: stored.refreshToken }),
+  });
+  if (!response.ok) return null;
+
+  const tokens: { token: string; refreshToken: string } = await response.json();
+  localStorage.setItem("user", JSON.stringify({ ...stored, token: tokens.token, refreshToken: tokens.refreshToken }));
+  window.dispatchEvent(new CustomEvent(SESSION_EVENT, { detail: tokens }));
+  return tokens.token;
+};
+
+const refreshTokens = (baseFetch: typeof fetch, usedRefreshToken?: string): Promise<string | null> => {
+  // Concurrent 401s share one exchange, and tabs take turns through a Web Lock;
+  // a refresh token only works once
+  if (!pendingRefresh) {
+    const exchange = () => exchangeRefreshToken(baseFetch, usedRefreshToken);
+    pendingRefresh = (navigator.locks ? navigator.locks.request(REFRESH_LOCK, exchange) : exchange())
+      .catch(() => null)
+      .finally(() => {
+        pendingRefresh = null;
+      });
+  }
+  return pendingRefresh;
+};
+
+// Tokens rotated in another tab arrive through the storage event
+const followOtherTabs = () => {
+  window.addEventListener("storage", (event) => {
+    if (event.key !== "user" || !event.newValue) return;
+    try {
+      const { token, refreshToken }: StoredTokens = JSON.parse(event.newValue);
+      const previous: StoredTokens = JSON.parse(event.oldValue || "null") ?? {};
+      if (token && refreshToken && refreshToken !== previous.refreshToken) {
+        window.dispatchEvent(new CustomEvent(SESSION_EVENT, { detail: { token, refreshToken } }));
+      }
+    } catch {
+      // Not a session we wrote
+    }
+  });
+};
+
+export function installSessionRefresh() {
+  const baseFetch = window.fetch.bind(window);
+  followOtherTabs();
+
+  window.fetch = async (input: RequestInfo | URL, init?: RequestInit) => {
+    const url = typeof input === "string" ? input : input instanceof URL ? input.href : input.url;
+    const headers = new Headers(init?.headers ?? (input instanceof Request ? input.headers : undefined));
+    if (!url.startsWith(API_BASE_URL) || !headers.get("Authorization")?.startsWith("Bearer ")) {
+      return baseFetch(input, init);
+    }
+
+    // Components may hold a token from before the last refresh
+    const stored = readStoredUser();
+    if (stored?.token) headers.set("Authorization", `Bearer ${stored.token}`);
+
+    const response = await baseFetch(input, { ...init, headers });
+    if (response.status !== 401 || url.startsWith(`${API_BASE_URL}/api/users/refresh`)) {
+      return response;
+    }
+
+    const token = await refreshTokens(baseFetch, stored?.refreshToken);
+    if (!token) return response;
+    headers.set("Authorization", `Bearer ${token}`);
+    return baseFetch(input, { ...init, headers });
+  };
+}
+
+export async function endSession() {
+  const stored = readStoredUser();
+  if (!stored?.token && !stored?.refreshToken) return;
+  try {
+    await fetch(`${API_BASE_URL}/api/users/logout`, {
+      method: "POST",
+      headers: {
+        "Content-Type": "application/json",
+        ...(stored.token ? { Authorization: `Bearer ${stored.token}` } : {}),
+      },
+      body: JSON.stringify({ refreshToken: stored.refreshToken ?? null }),
+    });
+  } catch {
+    // Logging out locally still works; the tokens simply expire on their own.
+  }
+}
@@ -3,6 +3,9 @@ import { createRoot } from 'react-dom/client'
 import './index.css'
 import './global-polyfill'
 import App from './App.tsx'
+import { installSessionRefresh } from './lib/session'
+
+installSessionRefresh()
 
 createRoot(document.getElementById('root')!).render(
   <StrictMode>
@@ -84,6 +84,7 @@ interface AdminPageProps {
 }
 
 const COLORS = ['#0088FE', '#00C49F', '#FFBB28', '#FF8042', '#8884d8'];
+const CORRECTION_PAGE_SIZE = 50;
 
 const AdminPage: React.FC<AdminPageProps> = ({ onLogout, user }) => {
   const [taxiRanks, setTaxiRanks] = useState<TaxiRank[]>([]);
@@ -110,6 +111,7 @@ const AdminPage: React.FC<AdminPageProps> = ({ onLogout, user }) => {
   const [searchTerm, setSearchTerm] = useState("");
   const [showFormModal, setShowFormModal] = useState(false);
   const [pendingCorrections, setPendingCorrections] = useState<CorrectionSubmission[]>([]);
+  const [correctionsCursor, setCorrectionsCursor] = useState<string | null>(null);
   const [reviewNotesDrafts, setReviewNotesDrafts] = useState<Record<string, string>>({});
   const [incidents, setIncidents] = useState<Incident[]>([]);
   const [incidentsLoading, setIncidentsLoading] = useState(true);
@@ -140,9 +142,12 @@ const AdminPage: React.FC<AdminPageProps> = ({ onLogout, user }) => {
     }
   };
 
-  const fetchPendingCorrections = async () => {
+  // Flagged and near-threshold submissions first, a page at a time
+  const fetchPendingCorrections = async (cursor?: string) => {
     try {
-      const res = await fetch(`${API_BASE_URL}/api/submissions/pending`, {
+      const params = new URLSearchParams({ sort: "PRIORITY", limit: String(CORRECTION_PAGE_SIZE) });
+      if (cursor) params.set("cursor", cursor);
+      const res = await fetch(`${API_BASE_URL}/api/submissions/queue?${params}`, {
         headers: { Authorization: `Bearer ${user.token}` },
       });
 
@@ -158,8 +163,9 @@ const AdminPage: React.FC<AdminPageProps> = ({ onLogout, user }) => {
         throw new Error("Failed to fetch correction submissions");
       }
 
-      const data = await res.json();
-      setPendingCorrections(data || []);
+      const data: CorrectionSubmission[] = (await res.json()) || [];
+      setPendingCorrections((prev) => (cursor ? [...prev, ...data] : data));
+      setCorrectionsCursor(res.headers.get("X-Next-Cursor"));
     } catch (err: any) {
       console.error('Failed to fetch pending corrections:', err);
     }
@@ -775,7 +781,7 @@ const AdminPage: React.FC<AdminPageProps> = ({ onLogout, user }) => {
               </div>
               <div className="flex items-center gap-3">
                 <span className="px-3 py-1 rounded-full bg-blue-50 dark:bg-blue-900/20 text-blue-600 dark:text-blue-400 text-sm font-semibold">
-                  {pendingCorrections.length} pending
+                  {pendingCorrections.length}{correctionsCursor ? '+' : ''} pending
                 </span>
                 <span className="text-gray-400 dark:text-gray-500 text-sm font-semibold">
                   {showCorrectionQueue ? 'Hide' : 'Show'}
@@ -873,6 +879,15 @@ const AdminPage: React.FC<AdminPageProps> = ({ onLogout, user }) => {
                         </div>
                       </div>
                     ))}
+                    {correctionsCursor ? (
+                      <button
+                        type="button"
+                        onClick={() => fetchPendingCorrections(correctionsCursor)}
+                        className="w-full py-2 rounded-xl border border-gray-200 dark:border-gray-700 text-sm font-semibold text-gray-600 dark:text-gray-300 hover:bg-gray-50 dark:hover:bg-gray-800"
+                      >
+                        Load more
+                      </button>
+                    ) : null}
                   </div>
                 ) : (
                   <div className="rounded-2xl border border-dashed border-gray-300 dark:border-gray-700 p-6 text-center text-gray-500 dark:text-gray-400">
@@ -1,4 +1,4 @@
-import { useEffect, useRef, useState } from 'react';
+import { useCallback, useEffect, useRef, useState } from 'react';
 import { MapContainer, TileLayer, Marker, Popup, useMap } from 'react-leaflet';
 import { AnimatePresence } from 'framer-motion';
 import RankDetailPanel from '../components/RankDetailPanel';
@@ -10,7 +10,8 @@ import { useTheme } from '../context/ThemeContext';
 import { Search, Mic, MapPin, Navigation, Plus, X } from 'lucide-react';
 import { API_BASE_URL } from '../config';
 import SockJS from 'sockjs-client';
-import { Client } from '@stomp/stompjs';
+import { Client, StompSubscription } from '@stomp/stompjs';
+import { cellsCovering } from '../lib/geohash';
 
 interface User {
   id: number;
@@ -72,6 +73,25 @@ const MapController = ({ selectedLocation }: { selectedLocation: { lat: number;
   return null;
 };
 
+// Reports the live-update cells covering the visible map, or null when zoomed out too far
+const LiveCellTracker = ({ onCellsChange }: { onCellsChange: (cells: string[] | null) => void }) => {
+  const map = useMap();
+
+  useEffect(() => {
+    const update = () => {
+      const bounds = map.getBounds();
+      onCellsChange(cellsCovering(bounds.getSouth(), bounds.getWest(), bounds.getNorth(), bounds.getEast()));
+    };
+    update();
+    map.on('moveend', update);
+    return () => {
+      map.off('moveend', update);
+    };
+  }, [map, onCellsChange]);
+
+  return null;
+};
+
 const Landing = ({ user, onUpdateUser }: LandingProps) => {
   const { theme } = useTheme();
   const locationEnabled = user.locationSharing ?? false;
@@ -88,6 +108,8 @@ const Landing = ({ user, onUpdateUser }: LandingProps) => {
   const [currentLocation, setCurrentLocation] = useState<{ lat: number; lng: number } | null>(null);
   const [selectedRank, setSelectedRank] = useState<TaxiRank | null>(null);
   const [isListening, setIsListening] = useState(false);
+  const [liveClient, setLiveClient] = useState<Client | null>(null);
+  const [liveCells, setLiveCells] = useState<string[] | null>(null);
   const locationWatchRef = useRef<number | null>(null);
 
   // Leaflet default icon fix
@@ -342,16 +364,25 @@ const Landing = ({ user, onUpdateUser }: LandingProps) => {
     resolved: Boolean(incident.resolved),
   });
 
+  // Follows X-Next-Cursor so every active incident is shown, not just the first page
   const fetchIncidents = async () => {
     try {
-      const res = await fetch(`${API_BASE_URL}/api/incidents`, {
-        headers: getAuthHeaders(),
-      });
-      if (!res.ok) {
-        throw new Error('Failed to fetch incidents');
-      }
-      const data = await res.json();
-      setIncidents((Array.isArray(data) ? data : []).map(mapIncident).filter((incident) => !incident.resolved));
+      const all: Incident[] = [];
+      let cursor: string | null = null;
+      do {
+        const params = new URLSearchParams({ limit: '500' });
+        if (cursor) params.set('cursor', cursor);
+        const res = await fetch(`${API_BASE_URL}/api/incidents?${params}`, {
+          headers: getAuthHeaders(),
+        });
+        if (!res.ok) {
+          throw new Error('Failed to fetch incidents');
+        }
+        const data = await res.json();
+        all.push(...(Array.isArray(data) ? data : []).map(mapIncident));
+        cursor = res.headers.get('X-Next-Cursor');
+      } while (cursor);
+      setIncidents(all.filter((incident) => !incident.resolved));
     } catch (err: any) {
       console.error(err);
       toast.error('Failed to fetch incidents. Please try again later.');
@@ -583,14 +614,8 @@ useEffect(() => {
   const socket = new SockJS(`${API_BASE_URL}/ws`);
   const stompClient = new Client({
     webSocketFactory: () => socket,
-    onConnect: () => {
-      stompClient.subscribe('/topic/incidents', (message) => {
-        const incident: Incident = mapIncident(JSON.parse(message.body));
-        setIncidents((prev) =>
-          incident.resolved ? prev.filter((item) => item.id !== incident.id) : [...prev, incident]
-        );
-      });
-    },
+    onConnect: () => setLiveClient(stompClient),
+    onWebSocketClose: () => setLiveClient(null),
     onStompError: (frame) => {
       console.error('STOMP error:', frame);
     },
@@ -600,10 +625,54 @@ useEffect(() => {
 
   // Fix: wrap deactivate in a non-async arrow function so it returns void, not Promise<void>
   return () => {
+    setLiveClient(null);
     stompClient.deactivate();
   };
 }, []);
 
+  const handleCellsChange = useCallback((cells: string[] | null) => {
+    setLiveCells((prev) => (prev?.join() === cells?.join() ? prev : cells));
+  }, []);
+
+  // Follow only the cells on screen; zoomed far out, follow everything instead
+  useEffect(() => {
+    if (!liveClient) return;
+
+    const onIncident = (body: string) => {
+      const incident: Incident = mapIncident(JSON.parse(body));
+      setIncidents((prev) =>
+        incident.resolved
+          ? prev.filter((item) => item.id !== incident.id)
+          : [...prev.filter((item) => item.id !== incident.id), incident]
+      );
+    };
+    const onRank = (body: string) => {
+      const rank = JSON.parse(body);
+      setTaxiRanks((prev) => {
+        const others = prev.filter((item) => item.id !== rank.id);
+        if (rank.active === false) return others;
+        const existing = prev.find((item) => item.id === rank.id);
+        return [...others, { ...existing, ...rank }];
+      });
+    };
+
+    const topics = liveCells
+      ? liveCells.flatMap((cell) => [
+          [`/topic/incidents/cell/${cell}`, onIncident] as const,
+          [`/topic/ranks/cell/${cell}`, onRank] as const,
+        ])
+      : [['/topic/incidents', onIncident] as const, ['/topic/ranks', onRank] as const];
+    const subscriptions: StompSubscription[] = topics.map(([topic, handler]) =>
+      liveClient.subscribe(topic, (message) => handler(message.body))
+    );
+
+    return () => {
+      if (liveClient.connected) {
+        subscriptions.forEach((subscription) => subscription.unsubscribe());
+      }
+    };
+  }, [liveClient, liveCells]);
+
   useEffect(() => {
     if (!locationEnabled) {
       setShowIncidentForm(false);
@@ -716,6 +785,7 @@ useEffect(() => {
 
         {/* Map Controller for Navigation */}
         <MapController selectedLocation={selectedLocation} />
+        <LiveCellTracker onCellsChange={handleCellsChange} />
 
         {/* Live User Location */}
         {locationEnabled && currentLocation && (
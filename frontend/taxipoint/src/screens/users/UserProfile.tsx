@@ -11,6 +11,7 @@ interface UserProfileProps {
     surname: string;
     email: string;
     token: string;
+    refreshToken?: string;
   };
   onUpdateUser: (updatedUser: any) => void;
 }
@@ -66,9 +67,9 @@ const UserProfile: React.FC<UserProfileProps> = ({ user, onUpdateUser }) => {
       toast.success('Profile updated successfully!');
 
       // Update parent state
-      onUpdateUser({ ...updatedData, token: user.token });
+      onUpdateUser({ ...updatedData, token: user.token, refreshToken: user.refreshToken });
       // Update localStorage so changes persist after refresh
-      localStorage.setItem("user", JSON.stringify({ ...updatedData, token: user.token }));
+      localStorage.setItem("user", JSON.stringify({ ...updatedData, token: user.token, refreshToken: user.refreshToken }));
 
 
       // Update local state immediately so UI matches DB
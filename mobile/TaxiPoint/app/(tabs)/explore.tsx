@@ -690,16 +690,24 @@ export default function ExploreScreen() {
     };
   }, [searchQuery, userLocation]);
 
+  // Follows X-Next-Cursor so every active incident is shown, not just the first page
   const fetchIncidents = async () => {
     try {
-      const res = await fetch(`${API_BASE_URL}/api/incidents`, {
-        headers: { 'Authorization': `Bearer ${user?.token || ''}` }
-      });
-      if (!res.ok) {
-        throw new Error(getErrorMessage(res.status, await res.text(), 'incidents'));
-      }
-      const data = await res.json();
-      setIncidents(data);
+      const all: Incident[] = [];
+      let cursor: string | null = null;
+      do {
+        const query = cursor ? `?limit=500&cursor=${encodeURIComponent(cursor)}` : '?limit=500';
+        const res = await fetch(`${API_BASE_URL}/api/incidents${query}`, {
+          headers: { 'Authorization': `Bearer ${user?.token || ''}` }
+        });
+        if (!res.ok) {
+          throw new Error(getErrorMessage(res.status, await res.text(), 'incidents'));
+        }
+        const data = await res.json();
+        all.push(...(Array.isArray(data) ? data : []));
+        cursor = res.headers.get('X-Next-Cursor');
+      } while (cursor);
+      setIncidents(all);
     } catch (err) {
       console.error('Error fetching incidents:', err);
     }